@@ -0,0 +1,32 @@
+package com.duoc.recetas.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Punto de entrada del jar de benchmarks.
+ * 
+ * Delega en org.openjdk.jmh.Main (acepta todas sus opciones) pero, si no
+ * se indica otra cosa, guarda los resultados en JSON en
+ * target/jmh-result.json para poder compararlos entre versiones.
+ * 
+ * Ejemplos:
+ * <pre>
+ * java -jar target/benchmarks.jar
+ * java -jar target/benchmarks.jar RecetaService -rff resultados/1.0.0.json
+ * </pre>
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        List<String> argumentos = new ArrayList<>(Arrays.asList(args));
+        if (!argumentos.contains("-rf")) {
+            argumentos.addAll(List.of("-rf", "json"));
+        }
+        if (!argumentos.contains("-rff")) {
+            argumentos.addAll(List.of("-rff", "target/jmh-result.json"));
+        }
+        org.openjdk.jmh.Main.main(argumentos.toArray(String[]::new));
+    }
+}
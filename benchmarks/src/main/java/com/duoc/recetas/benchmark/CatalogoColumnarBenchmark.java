@@ -0,0 +1,74 @@
+package com.duoc.recetas.benchmark;
+
+import com.duoc.recetas.cache.CatalogoColumnar;
+import com.duoc.recetas.dto.FiltroCatalogo;
+import com.duoc.recetas.service.CatalogoSnapshotService;
+import com.duoc.recetas.util.GeneradorCatalogo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks del catálogo columnar: filtros por rango, texto y orden.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseG1GC", "-XX:+AlwaysPreTouch"})
+public class CatalogoColumnarBenchmark {
+
+    /**
+     * Consulta: rango de tiempo; rango + orden por visualizaciones; cocina +
+     * rango de porciones + orden por tiempo.
+     */
+    @Param({"rango", "rango-orden", "cocina-rango-orden"})
+    public String consulta;
+
+    /**
+     * Filas desde las que se usa paralelismo (0 = siempre, máximo = nunca).
+     */
+    @Param({"2147483647", "0"})
+    public int umbralParalelo;
+
+    private CatalogoColumnar catalogo;
+
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        CatalogoSnapshotService servicio = ContextoBenchmark.obtener().getBean(CatalogoSnapshotService.class);
+        // El refresco programado corre antes de generar los datos
+        servicio.refrescar();
+        catalogo = servicio.getCatalogo();
+        random = new SplittableRandom(ContextoBenchmark.SEMILLA);
+    }
+
+    @Benchmark
+    public long[] buscar() {
+        int tiempoMax = 15 + random.nextInt(120);
+        FiltroCatalogo filtro = switch (consulta) {
+            case "rango" -> new FiltroCatalogo(null, null, null, null,
+                null, tiempoMax, null, null, FiltroCatalogo.Orden.NINGUNO);
+            case "rango-orden" -> new FiltroCatalogo(null, null, null, null,
+                null, tiempoMax, null, null, FiltroCatalogo.Orden.VISUALIZACIONES);
+            default -> new FiltroCatalogo(null,
+                GeneradorCatalogo.TIPOS_COCINA.get(random.nextInt(GeneradorCatalogo.TIPOS_COCINA.size())),
+                null, null, null, null, 2 + random.nextInt(6), null, FiltroCatalogo.Orden.TIEMPO);
+        };
+        return catalogo.buscar(filtro, umbralParalelo);
+    }
+}
@@ -0,0 +1,99 @@
+package com.duoc.recetas.benchmark;
+
+import com.duoc.recetas.dto.TextosReceta;
+import com.duoc.recetas.repository.TextosRecetaRepository;
+import com.duoc.recetas.util.CompresorTexto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks del formato comprimido de ingredientes e instrucciones:
+ * lectura (lo que agrega cargar una receta) y escritura de un texto.
+ *
+ * Los textos son los del catálogo generado; el diccionario se entrena
+ * con ellos igual que MigracionCompresionService. Al preparar cada
+ * formato se imprime el tamaño total almacenado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseG1GC", "-XX:+AlwaysPreTouch"})
+public class CompresionTextoBenchmark {
+
+    private static final int MUESTRAS = 2000;
+
+    private static final int DICCIONARIO_ID = 1;
+
+    /**
+     * Formato almacenado: UTF-8 sin cabecera (como antes), deflate solo, o
+     * deflate con diccionario.
+     */
+    @Param({"utf8", "deflate", "diccionario"})
+    public String formato;
+
+    private String[] textos;
+
+    private byte[][] almacenados;
+
+    private byte[] diccionario;
+
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        TextosRecetaRepository repositorio = ContextoBenchmark.obtener().getBean(TextosRecetaRepository.class);
+        List<String> muestra = new ArrayList<>(MUESTRAS * 2);
+        for (TextosReceta fila : repositorio.muestra(MUESTRAS)) {
+            muestra.add(CompresorTexto.descomprimir(fila.ingredientes(), id -> null));
+            muestra.add(CompresorTexto.descomprimir(fila.instrucciones(), id -> null));
+        }
+        diccionario = CompresorTexto.entrenarDiccionario(muestra, 16384);
+        textos = muestra.toArray(new String[0]);
+        almacenados = new byte[textos.length][];
+        long original = 0;
+        long total = 0;
+        for (int i = 0; i < textos.length; i++) {
+            almacenados[i] = escribir(textos[i]);
+            original += textos[i].getBytes(StandardCharsets.UTF_8).length;
+            total += almacenados[i].length;
+        }
+        System.out.printf("%n%s: %d textos, %d bytes -> %d bytes (%.1f%%), diccionario de %d bytes%n",
+            formato, textos.length, original, total, 100.0 * total / original, diccionario.length);
+    }
+
+    @Benchmark
+    public String leer() {
+        byte[] datos = almacenados[siguiente++ % almacenados.length];
+        return CompresorTexto.descomprimir(datos, id -> diccionario);
+    }
+
+    @Benchmark
+    public byte[] escribir() {
+        return escribir(textos[siguiente++ % textos.length]);
+    }
+
+    private byte[] escribir(String texto) {
+        return switch (formato) {
+            case "deflate" -> CompresorTexto.comprimir(texto, 0, null, 6);
+            case "diccionario" -> CompresorTexto.comprimir(texto, DICCIONARIO_ID, diccionario, 6);
+            default -> texto.getBytes(StandardCharsets.UTF_8);
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package com.duoc.recetas.benchmark;
+
+import com.duoc.recetas.RecetasApplication;
+import com.duoc.recetas.util.GeneradorCatalogo;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Contexto de Spring compartido por los benchmarks de un mismo fork.
+ * 
+ * Arranca la aplicación completa sobre una H2 en memoria (modo MySQL), crea
+ * las tablas sin entidad JPA (db/h2/tablas-jdbc.sql) y la llena con
+ * GeneradorCatalogo (semilla fija), de modo que dos ejecuciones
+ * trabajan exactamente sobre el mismo catálogo.
+ * 
+ * Propiedades del sistema:
+ * - benchmark.recetas: número de recetas a generar (10k por defecto; acepta 1m, 10m)
+ */
+public final class ContextoBenchmark {
+
+    public static final String USUARIO = GeneradorCatalogo.PREFIJO_USUARIO + "1";
+    public static final long SEMILLA = 42L;
+
+    private static ConfigurableApplicationContext contexto;
+
+    private ContextoBenchmark() {
+    }
+
+    /**
+     * Obtiene (arrancando si es necesario) el contexto de la aplicación.
+     * 
+     * @return Contexto de Spring listo con datos
+     */
+    public static synchronized ConfigurableApplicationContext obtener() {
+        if (contexto == null) {
+            // Argumentos de línea de comandos: tienen prioridad sobre application.properties
+            contexto = new SpringApplicationBuilder(RecetasApplication.class)
+                .run(
+                    "--server.port=0",
+                    "--spring.main.banner-mode=off",
+                    "--spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                    "--spring.jpa.hibernate.ddl-auto=create",
+                    "--spring.thymeleaf.cache=true",
+                    "--logging.level.root=WARN",
+                    "--logging.level.com.duoc.recetas=WARN",
+                    "--logging.level.recetas.sql=ERROR",
+                    // JMH hace su propio calentamiento sobre los datos sintéticos
+                    "--recetas.calentamiento.habilitado=false");
+            poblar(contexto.getBean(DataSource.class), totalRecetas());
+        }
+        return contexto;
+    }
+
+    /**
+     * @return Número de recetas del catálogo (propiedad benchmark.recetas)
+     */
+    public static int totalRecetas() {
+        return GeneradorCatalogo.parsearTamano(System.getProperty("benchmark.recetas", "10k"));
+    }
+
+    private static void poblar(DataSource dataSource, int recetas) {
+        try (Connection conexion = dataSource.getConnection()) {
+            // Hibernate (ddl-auto=create) no crea las tablas que se usan con JDBC
+            ScriptUtils.executeSqlScript(conexion, new ClassPathResource("db/h2/tablas-jdbc.sql"));
+            new GeneradorCatalogo(SEMILLA)
+                .conCostoBcrypt(4)
+                .generar(conexion, recetas, 100);
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo generar el catálogo de benchmarks", e);
+        }
+    }
+}
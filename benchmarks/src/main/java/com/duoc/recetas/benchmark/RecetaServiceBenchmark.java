@@ -0,0 +1,71 @@
+package com.duoc.recetas.benchmark;
+
+import com.duoc.recetas.service.RecetaService;
+import com.duoc.recetas.util.GeneradorCatalogo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de RecetaService: búsqueda por criterios y contador de visitas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseG1GC", "-XX:+AlwaysPreTouch"})
+public class RecetaServiceBenchmark {
+
+    /**
+     * Criterio de búsqueda usado en buscarRecetas.
+     */
+    @Param({"nombre", "tipoCocina", "dificultad", "combinado"})
+    public String criterio;
+
+    private RecetaService recetaService;
+
+    private long totalRecetas;
+
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        recetaService = ContextoBenchmark.obtener().getBean(RecetaService.class);
+        totalRecetas = ContextoBenchmark.totalRecetas();
+        random = new SplittableRandom(ContextoBenchmark.SEMILLA);
+    }
+
+    @Benchmark
+    public void buscarRecetas(Blackhole bh) {
+        int tipo = random.nextInt(GeneradorCatalogo.TIPOS_COCINA.size());
+        String dificultad = GeneradorCatalogo.DIFICULTADES.get(random.nextInt(GeneradorCatalogo.DIFICULTADES.size()));
+        switch (criterio) {
+            case "nombre" -> bh.consume(recetaService.buscarRecetas(
+                String.valueOf(random.nextInt(1000)), null, null, null));
+            case "tipoCocina" -> bh.consume(recetaService.buscarRecetas(
+                null, GeneradorCatalogo.TIPOS_COCINA.get(tipo), null, null));
+            case "dificultad" -> bh.consume(recetaService.buscarRecetas(null, null, null, dificultad));
+            default -> bh.consume(recetaService.buscarRecetas(
+                null, GeneradorCatalogo.TIPOS_COCINA.get(tipo), GeneradorCatalogo.PAISES.get(tipo), dificultad));
+        }
+    }
+
+    @Benchmark
+    public void incrementarVisualizaciones() {
+        recetaService.incrementarVisualizaciones(1 + random.nextLong(totalRecetas));
+    }
+}
@@ -0,0 +1,101 @@
+package com.duoc.recetas.benchmark;
+
+import com.duoc.recetas.cache.TarjetaRecetaCache;
+import com.duoc.recetas.model.Receta;
+import com.duoc.recetas.service.RecetaService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark del renderizado Thymeleaf de buscar.html (modo completo, sin
+ * streaming), con y sin la caché de tarjetas.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseG1GC", "-XX:+AlwaysPreTouch"})
+public class RenderBuscarBenchmark {
+
+    /**
+     * Número de recetas en la página de resultados.
+     */
+    @Param({"10", "100"})
+    public int resultados;
+
+    /**
+     * Si es false se vacía la caché de tarjetas antes de cada renderizado.
+     */
+    @Param({"true", "false"})
+    public boolean cacheTarjetas;
+
+    private ServletWebServerApplicationContext contexto;
+
+    private View vista;
+
+    private TarjetaRecetaCache tarjetaRecetaCache;
+
+    private Map<String, Object> modelo;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        contexto = (ServletWebServerApplicationContext) ContextoBenchmark.obtener();
+        vista = contexto.getBean("thymeleafViewResolver", ViewResolver.class).resolveViewName("buscar", Locale.ROOT);
+        tarjetaRecetaCache = contexto.getBean(TarjetaRecetaCache.class);
+
+        List<Receta> recetas = contexto.getBean(RecetaService.class).obtenerTodasLasRecetas()
+            .subList(0, resultados);
+        modelo = new HashMap<>();
+        modelo.put("recetas", recetas);
+        modelo.put("titulo", "Buscar Recetas");
+        modelo.put("totalResultados", recetas.size());
+
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken(
+            "bench", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+    }
+
+    @Benchmark
+    public String renderizar() throws Exception {
+        if (!cacheTarjetas) {
+            tarjetaRecetaCache.limpiar();
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest(contexto.getServletContext(), "GET", "/recetas/buscar");
+        request.setAttribute(DispatcherServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE, contexto);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        try {
+            vista.render(new HashMap<>(modelo), request, response);
+            return response.getContentAsString();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+}
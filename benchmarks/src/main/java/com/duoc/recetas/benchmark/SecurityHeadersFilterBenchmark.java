@@ -0,0 +1,57 @@
+package com.duoc.recetas.benchmark;
+
+import com.duoc.recetas.config.SecurityHeadersFilter;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de SecurityHeadersFilter.doFilter (sin contexto de Spring).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m", "-XX:+UseG1GC"})
+public class SecurityHeadersFilterBenchmark {
+
+    @Param({"/", "/login", "/recetas/detalle/1"})
+    public String uri;
+
+    private SecurityHeadersFilter filtro;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    private final FilterChain cadena = (req, res) -> { };
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        filtro = new SecurityHeadersFilter();
+        request = new MockHttpServletRequest("GET", uri);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilter() throws Exception {
+        response.reset();
+        filtro.doFilter(request, response, cadena);
+        return response;
+    }
+}
@@ -0,0 +1,55 @@
+package com.duoc.recetas.benchmark;
+
+import com.duoc.recetas.cache.UsuarioSeguridadCache;
+import com.duoc.recetas.service.UserDetailsServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de UserDetailsServiceImpl.loadUserByUsername (usuario + roles).
+ *
+ * Con cache=false se vacía UsuarioSeguridadCache antes de cada carga, para
+ * medir la consulta a la base de datos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseG1GC", "-XX:+AlwaysPreTouch"})
+public class UserDetailsServiceBenchmark {
+
+    @Param({"true", "false"})
+    public boolean cache;
+
+    private UserDetailsServiceImpl userDetailsService;
+
+    private UsuarioSeguridadCache usuarioSeguridadCache;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        userDetailsService = ContextoBenchmark.obtener().getBean(UserDetailsServiceImpl.class);
+        usuarioSeguridadCache = ContextoBenchmark.obtener().getBean(UsuarioSeguridadCache.class);
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername() {
+        if (!cache) {
+            usuarioSeguridadCache.limpiar();
+        }
+        return userDetailsService.loadUserByUsername(ContextoBenchmark.USUARIO);
+    }
+}
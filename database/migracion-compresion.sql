@@ -0,0 +1,32 @@
+-- Migración de ingredientes e instrucciones a columnas binarias, necesaria
+-- para recetas.compresion.habilitado=true (schema.sql las crea como TEXT).
+-- Es el único paso manual: sin él la aplicación sigue guardando texto y lo
+-- avisa al arrancar (MigracionCompresionService).
+-- Los valores existentes se conservan como UTF-8 sin cabecera; la aplicación
+-- los lee igual y MigracionCompresionService los comprime en segundo plano.
+--
+-- ROLLBACK (volver a TEXT):
+-- 1. Arrancar con recetas.compresion.habilitado=false: los textos nuevos se
+--    guardan sin comprimir y MigracionCompresionService devuelve las recetas
+--    comprimidas a UTF-8 ("recetas devueltas a UTF-8" en el registro).
+-- 2. Comprobar con la consulta del final que comprimidas = 0.
+-- 3. ALTER TABLE recetas MODIFY ingredientes TEXT, MODIFY instrucciones TEXT;
+
+USE recetas_db;
+
+ALTER TABLE recetas
+    MODIFY ingredientes MEDIUMBLOB,
+    MODIFY instrucciones MEDIUMBLOB;
+
+CREATE TABLE IF NOT EXISTS diccionarios_compresion (
+    id INT NOT NULL PRIMARY KEY,
+    contenido MEDIUMBLOB NOT NULL,
+    muestras INT NOT NULL,
+    creado_en DATETIME NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Tamaño de las columnas (antes y después de la migración)
+SELECT COUNT(*) AS recetas,
+       ROUND(SUM(LENGTH(ingredientes) + LENGTH(instrucciones)) / 1024) AS kb_textos,
+       SUM(SUBSTRING(ingredientes, 1, 1) = X'00' OR SUBSTRING(instrucciones, 1, 1) = X'00') AS comprimidas
+FROM recetas;
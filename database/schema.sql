@@ -65,6 +65,8 @@ CREATE TABLE IF NOT EXISTS recetas (
     pais_origen VARCHAR(50),
     dificultad VARCHAR(20) NOT NULL,
     tiempo_coccion INT NOT NULL,
+    -- TEXT; para guardarlos comprimidos (recetas.compresion.habilitado=true)
+    -- se convierten a MEDIUMBLOB con migracion-compresion.sql
     ingredientes TEXT,
     instrucciones TEXT,
     foto_url VARCHAR(255),
@@ -85,6 +87,40 @@ CREATE TABLE IF NOT EXISTS recetas (
     CONSTRAINT chk_porciones CHECK (porciones > 0 OR porciones IS NULL)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- ============================================
+-- TABLA: recetas_visitas_hora
+-- Visitas por receta y hora (UTC), agregadas por RegistroVisitas
+-- ============================================
+CREATE TABLE IF NOT EXISTS recetas_visitas_hora (
+    receta_id BIGINT NOT NULL,
+    hora DATETIME NOT NULL,
+    visitas INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (receta_id, hora),
+    INDEX idx_visitas_hora (hora)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================
+-- TABLA: diccionarios_compresion
+-- Diccionarios de compresión de ingredientes e instrucciones (CompresorTexto)
+-- ============================================
+CREATE TABLE IF NOT EXISTS diccionarios_compresion (
+    id INT NOT NULL PRIMARY KEY,
+    contenido MEDIUMBLOB NOT NULL,
+    muestras INT NOT NULL,
+    creado_en DATETIME NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================
+-- TABLA: usuarios_recetas_vistas
+-- Recetas vistas recientemente por cada usuario (RecientesService)
+-- ============================================
+CREATE TABLE IF NOT EXISTS usuarios_recetas_vistas (
+    username VARCHAR(50) NOT NULL,
+    receta_id BIGINT NOT NULL,
+    vista_en DATETIME NOT NULL,
+    PRIMARY KEY (username, receta_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- ============================================
 -- ÍNDICES ADICIONALES PARA OPTIMIZACIÓN
 -- ============================================
@@ -95,6 +131,9 @@ CREATE INDEX idx_busqueda_compuesta ON recetas(tipo_cocina, pais_origen, dificul
 -- Índice para ordenamiento por fecha
 CREATE INDEX idx_fecha_creacion ON recetas(fecha_creacion DESC);
 
+-- Índice para detectar recetas modificadas (recetas similares)
+CREATE INDEX idx_ultima_modificacion ON recetas(ultima_modificacion);
+
 -- ============================================
 -- VISTAS (Opcional - para consultas frecuentes)
 -- ============================================
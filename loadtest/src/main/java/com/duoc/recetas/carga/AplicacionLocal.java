@@ -0,0 +1,102 @@
+package com.duoc.recetas.carga;
+
+import com.duoc.recetas.RecetasApplication;
+import com.duoc.recetas.util.GeneradorCatalogo;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Instancia local de la aplicación para la prueba de carga.
+ *
+ * Por defecto usa H2 en memoria (modo MySQL) con el esquema generado por
+ * Hibernate, más las tablas sin entidad JPA (TABLAS_JDBC); con --jdbc-url usa una base MariaDB/MySQL existente (esquema de
+ * database/schema.sql). En ambos casos llena el catálogo con
+ * GeneradorCatalogo, salvo --recetas=0 sobre una base externa.
+ */
+public final class AplicacionLocal implements AutoCloseable {
+
+    /**
+     * Tablas que la aplicación usa con JDBC (sin entidad) y que Hibernate no crea.
+     */
+    private static final String TABLAS_JDBC = "db/h2/tablas-jdbc.sql";
+
+    private final ServletWebServerApplicationContext contexto;
+
+    private AplicacionLocal(ServletWebServerApplicationContext contexto) {
+        this.contexto = contexto;
+    }
+
+    /**
+     * Arranca la aplicación en un puerto libre y genera los datos.
+     */
+    public static AplicacionLocal iniciar(OpcionesCarga opciones) {
+        List<String> argumentos = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--spring.main.banner-mode=off",
+            "--spring.thymeleaf.cache=true",
+            "--logging.level.root=WARN",
+            "--logging.level.com.duoc.recetas=WARN",
+            // El generador escribe en lotes grandes: no registrarlos como SQL lenta
+            "--logging.level.recetas.sql=ERROR",
+            // El catálogo se genera después del arranque; el calentamiento lo hace --calentamiento
+            "--recetas.calentamiento.habilitado=false"));
+        if (opciones.jdbcUrl() == null) {
+            argumentos.addAll(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:carga;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create"));
+        } else {
+            argumentos.addAll(List.of(
+                "--spring.datasource.url=" + opciones.jdbcUrl(),
+                "--spring.datasource.username=" + opciones.jdbcUsuario(),
+                "--spring.datasource.password=" + opciones.jdbcPassword(),
+                "--spring.jpa.hibernate.ddl-auto=none"));
+        }
+
+        ServletWebServerApplicationContext contexto = (ServletWebServerApplicationContext)
+            new SpringApplicationBuilder(RecetasApplication.class).run(argumentos.toArray(String[]::new));
+
+        if (opciones.jdbcUrl() == null) {
+            try (Connection conexion = contexto.getBean(DataSource.class).getConnection()) {
+                ScriptUtils.executeSqlScript(conexion, new ClassPathResource(TABLAS_JDBC));
+            } catch (SQLException e) {
+                contexto.close();
+                throw new IllegalStateException("No se pudieron crear las tablas de " + TABLAS_JDBC, e);
+            }
+        }
+        if (opciones.recetas() > 0) {
+            try (Connection conexion = contexto.getBean(DataSource.class).getConnection()) {
+                GeneradorCatalogo.Resumen resumen = new GeneradorCatalogo(opciones.semilla())
+                    .conCostoBcrypt(opciones.costoBcrypt())
+                    .generar(conexion, opciones.recetas(), opciones.usuarios());
+                System.out.printf("[carga] Catálogo: %d recetas, %d usuarios (%d ms)%n",
+                    resumen.recetas(), resumen.usuarios(), resumen.milisegundos());
+            } catch (SQLException e) {
+                contexto.close();
+                throw new IllegalStateException("No se pudo generar el catálogo", e);
+            }
+        }
+        return new AplicacionLocal(contexto);
+    }
+
+    public URI getUrlBase() {
+        return URI.create("http://localhost:" + contexto.getWebServer().getPort());
+    }
+
+    @Override
+    public void close() {
+        contexto.close();
+    }
+}
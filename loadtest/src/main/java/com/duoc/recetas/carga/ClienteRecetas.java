@@ -0,0 +1,138 @@
+package com.duoc.recetas.carga;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Cliente HTTP de la prueba de carga.
+ *
+ * Un único HttpClient compartido (sin seguir redirecciones); las cookies se
+ * manejan por Sesion para poder simular muchos navegadores con un solo
+ * cliente. El login reproduce lo que hace el navegador: GET /login para
+ * obtener la cookie XSRF-TOKEN y el campo _csrf, y POST /login con ambos.
+ */
+public class ClienteRecetas {
+
+    private static final Pattern CAMPO_CSRF = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+
+    /**
+     * Texto que escribe Spring Security cuando maximumSessions(1) expira una
+     * sesión por un login posterior del mismo usuario.
+     */
+    static final String SESION_EXPIRADA = "This session has been expired";
+
+    private final HttpClient http;
+
+    private final URI base;
+
+    private final Duration timeout;
+
+    public ClienteRecetas(URI base, Duration timeout) {
+        this.base = base;
+        this.timeout = timeout;
+        this.http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(timeout)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    }
+
+    /**
+     * GET con las cookies de la sesión (puede ser null para un visitante sin
+     * cookies). El cuerpo se lee completo, como lo haría un navegador.
+     */
+    public HttpResponse<String> get(String ruta, Sesion sesion) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(base.resolve(ruta))
+            .timeout(timeout)
+            .header("Accept", "text/html")
+            .GET();
+        return enviar(request, sesion);
+    }
+
+    /**
+     * Inicia sesión y devuelve la sesión autenticada, o null si el servidor
+     * rechazó las credenciales o el token CSRF.
+     */
+    public Sesion login(String username, String password) throws IOException, InterruptedException {
+        Sesion sesion = new Sesion();
+        HttpResponse<String> formulario = get("/login", sesion);
+        Matcher csrf = CAMPO_CSRF.matcher(formulario.body());
+        if (formulario.statusCode() != 200 || !csrf.find()) {
+            return null;
+        }
+
+        String cuerpo = Map.of("username", username, "password", password, "_csrf", csrf.group(1))
+            .entrySet().stream()
+            .map(e -> e.getKey() + "=" + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+            .collect(Collectors.joining("&"));
+        HttpRequest.Builder request = HttpRequest.newBuilder(base.resolve("/login"))
+            .timeout(timeout)
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString(cuerpo));
+        HttpResponse<String> respuesta = enviar(request, sesion);
+
+        String destino = respuesta.headers().firstValue("Location").orElse("");
+        if (respuesta.statusCode() != 302 || destino.contains("error") || destino.contains("/login")) {
+            return null;
+        }
+        return sesion;
+    }
+
+    private HttpResponse<String> enviar(HttpRequest.Builder request, Sesion sesion)
+            throws IOException, InterruptedException {
+        if (sesion != null && !sesion.cookies.isEmpty()) {
+            request.header("Cookie", sesion.cabeceraCookie());
+        }
+        HttpResponse<String> respuesta = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (sesion != null) {
+            sesion.actualizar(respuesta.headers());
+        }
+        return respuesta;
+    }
+
+    /**
+     * Cookies de un navegador simulado (JSESSIONID, XSRF-TOKEN).
+     */
+    public static final class Sesion {
+
+        private final Map<String, String> cookies = new ConcurrentHashMap<>();
+
+        String cabeceraCookie() {
+            return cookies.entrySet().stream()
+                .map(e -> e.getKey() + "=" + e.getValue())
+                .collect(Collectors.joining("; "));
+        }
+
+        void actualizar(HttpHeaders cabeceras) {
+            for (String setCookie : cabeceras.allValues("Set-Cookie")) {
+                String par = setCookie.split(";", 2)[0];
+                int igual = par.indexOf('=');
+                if (igual <= 0) {
+                    continue;
+                }
+                String nombre = par.substring(0, igual).trim();
+                String valor = par.substring(igual + 1).trim();
+                String atributos = setCookie.toLowerCase();
+                if (valor.isEmpty() || atributos.contains("max-age=0")) {
+                    cookies.remove(nombre);
+                } else {
+                    cookies.put(nombre, valor);
+                }
+            }
+        }
+    }
+}
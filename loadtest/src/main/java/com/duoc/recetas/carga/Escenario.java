@@ -0,0 +1,49 @@
+package com.duoc.recetas.carga;
+
+/**
+ * Tipos de tráfico que genera la prueba de carga.
+ */
+public enum Escenario {
+
+    /**
+     * GET / anónimo (HomeController.index).
+     */
+    INICIO("inicio"),
+
+    /**
+     * GET /recetas/buscar anónimo con criterios variados.
+     */
+    BUSCAR("buscar"),
+
+    /**
+     * GET /login + POST /login con token CSRF (flujo completo).
+     */
+    LOGIN("login"),
+
+    /**
+     * GET /recetas/detalle/{id} con una sesión autenticada.
+     */
+    DETALLE("detalle");
+
+    private final String nombre;
+
+    Escenario(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Busca un escenario por su nombre (inicio, buscar, login, detalle).
+     */
+    public static Escenario desdeNombre(String nombre) {
+        for (Escenario escenario : values()) {
+            if (escenario.nombre.equalsIgnoreCase(nombre.trim())) {
+                return escenario;
+            }
+        }
+        throw new IllegalArgumentException("Escenario desconocido: " + nombre);
+    }
+}
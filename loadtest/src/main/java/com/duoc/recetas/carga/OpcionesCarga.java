@@ -0,0 +1,115 @@
+package com.duoc.recetas.carga;
+
+import com.duoc.recetas.util.GeneradorCatalogo;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Opciones de la prueba de carga (--clave=valor).
+ *
+ * <pre>
+ * --objetivo=http://host:puerto   app ya desplegada (sin esto se levanta una local)
+ * --tasa=50                       llegadas por segundo (modelo abierto)
+ * --llegadas=poisson|constante    distribución de los intervalos entre llegadas
+ * --duracion=60s                  duración de la medición
+ * --calentamiento=15s             tráfico previo que no se mide
+ * --mezcla=inicio:40,buscar:35,detalle:20,login:5
+ * --recetas=10k                   recetas a generar (y rango de ids de detalle)
+ * --usuarios=50                   usuarios sintéticos que inician sesión (sintetico1..N)
+ * --password-usuarios=...         contraseña de esos usuarios (la de GeneradorCatalogo)
+ * --costo-bcrypt=12               costo BCrypt de los usuarios generados
+ * --semilla=42
+ * --max-concurrencia=2000         solicitudes en vuelo; sobre eso se descartan
+ * --timeout=10s
+ * --jdbc-url=... --jdbc-usuario=... --jdbc-password=...   app local sobre MariaDB/MySQL
+ * --resultado=target/carga-result.json
+ * </pre>
+ */
+public record OpcionesCarga(
+    String objetivo,
+    double tasa,
+    boolean poisson,
+    Duration duracion,
+    Duration calentamiento,
+    Map<Escenario, Integer> mezcla,
+    int recetas,
+    int usuarios,
+    int costoBcrypt,
+    long semilla,
+    int maxConcurrencia,
+    Duration timeout,
+    String jdbcUrl,
+    String jdbcUsuario,
+    String jdbcPassword,
+    String passwordUsuarios,
+    String resultado
+) {
+
+    /**
+     * Construye las opciones desde los argumentos de la línea de comandos.
+     */
+    public static OpcionesCarga parsear(String[] args) {
+        Map<String, String> valores = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento no válido: " + arg + " (se espera --clave=valor)");
+            }
+            valores.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        return new OpcionesCarga(
+            valores.get("objetivo"),
+            Double.parseDouble(valores.getOrDefault("tasa", "50")),
+            !"constante".equalsIgnoreCase(valores.getOrDefault("llegadas", "poisson")),
+            parsearDuracion(valores.getOrDefault("duracion", "60s")),
+            parsearDuracion(valores.getOrDefault("calentamiento", "15s")),
+            parsearMezcla(valores.getOrDefault("mezcla", "inicio:40,buscar:35,detalle:20,login:5")),
+            GeneradorCatalogo.parsearTamano(valores.getOrDefault("recetas", "10k")),
+            GeneradorCatalogo.parsearTamano(valores.getOrDefault("usuarios", "50")),
+            Integer.parseInt(valores.getOrDefault("costo-bcrypt", "12")),
+            Long.parseLong(valores.getOrDefault("semilla", "42")),
+            Integer.parseInt(valores.getOrDefault("max-concurrencia", "2000")),
+            parsearDuracion(valores.getOrDefault("timeout", "10s")),
+            valores.get("jdbc-url"),
+            valores.getOrDefault("jdbc-usuario", "root"),
+            valores.getOrDefault("jdbc-password", ""),
+            valores.getOrDefault("password-usuarios", GeneradorCatalogo.PASSWORD_USUARIOS),
+            valores.getOrDefault("resultado", "target/carga-result.json")
+        );
+    }
+
+    /**
+     * Acepta "500ms", "30s", "2m" o segundos sin unidad.
+     */
+    static Duration parsearDuracion(String valor) {
+        String v = valor.trim().toLowerCase();
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        if (v.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        if (v.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(v));
+    }
+
+    static Map<Escenario, Integer> parsearMezcla(String valor) {
+        Map<Escenario, Integer> mezcla = new EnumMap<>(Escenario.class);
+        for (String parte : valor.split(",")) {
+            String[] clavePeso = parte.split(":");
+            int peso = Integer.parseInt(clavePeso[1].trim());
+            if (peso > 0) {
+                mezcla.put(Escenario.desdeNombre(clavePeso[0]), peso);
+            }
+        }
+        if (mezcla.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla debe tener al menos un escenario con peso > 0");
+        }
+        return mezcla;
+    }
+}
@@ -0,0 +1,286 @@
+package com.duoc.recetas.carga;
+
+import com.duoc.recetas.util.GeneradorCatalogo;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Prueba de carga HTTP de Recetas Seguras.
+ *
+ * Genera tráfico con un modelo ABIERTO: las solicitudes llegan según un
+ * calendario fijo (Poisson o constante) independiente de lo que tarde el
+ * servidor, y cada una se ejecuta en su propio hilo virtual. Así, si el
+ * servidor se satura, la cola crece y se ve en la latencia corregida, en vez
+ * de que el generador baje el ritmo (omisión coordinada).
+ *
+ * Mezcla de tráfico: inicio anónimo, búsquedas con criterios variados, login
+ * completo (CSRF + cambio de sesión) y detalle autenticado. Ver OpcionesCarga
+ * para los parámetros.
+ */
+public class PruebaCarga {
+
+    private static final String SESION_REEMPLAZADA = "sesion_reemplazada";
+
+    private final OpcionesCarga opciones;
+
+    private final ClienteRecetas cliente;
+
+    private final ResultadosCarga resultados = new ResultadosCarga();
+
+    private final AtomicReferenceArray<ClienteRecetas.Sesion> sesiones;
+
+    private final Escenario[] escenarios;
+
+    private final int[] pesosAcumulados;
+
+    public PruebaCarga(OpcionesCarga opciones, URI base) {
+        this.opciones = opciones;
+        this.cliente = new ClienteRecetas(base, opciones.timeout());
+        this.sesiones = new AtomicReferenceArray<>(Math.max(1, opciones.usuarios()));
+
+        List<Map.Entry<Escenario, Integer>> mezcla = new ArrayList<>(opciones.mezcla().entrySet());
+        this.escenarios = new Escenario[mezcla.size()];
+        this.pesosAcumulados = new int[mezcla.size()];
+        int acumulado = 0;
+        for (int i = 0; i < mezcla.size(); i++) {
+            escenarios[i] = mezcla.get(i).getKey();
+            acumulado += mezcla.get(i).getValue();
+            pesosAcumulados[i] = acumulado;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        OpcionesCarga opciones = OpcionesCarga.parsear(args);
+        try (AplicacionLocal aplicacion = opciones.objetivo() == null ? AplicacionLocal.iniciar(opciones) : null) {
+            URI base = aplicacion != null ? aplicacion.getUrlBase() : URI.create(opciones.objetivo());
+            System.out.println("[carga] Objetivo: " + base);
+            new PruebaCarga(opciones, base).ejecutar();
+        }
+    }
+
+    /**
+     * Prepara las sesiones, ejecuta calentamiento + medición e informa.
+     */
+    public void ejecutar() throws Exception {
+        preautenticar();
+
+        long inicio = System.nanoTime();
+        long inicioMedicion = inicio + opciones.calentamiento().toNanos();
+        long fin = inicioMedicion + opciones.duracion().toNanos();
+        double intervaloMedio = TimeUnit.SECONDS.toNanos(1) / opciones.tasa();
+
+        SplittableRandom random = new SplittableRandom(opciones.semilla());
+        Semaphore enVuelo = new Semaphore(opciones.maxConcurrencia());
+        ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor();
+        long siguienteReporte = inicio + TimeUnit.SECONDS.toNanos(10);
+        long llegadas = 0;
+
+        System.out.printf("[carga] Calentamiento %ds + medición %ds a %.1f req/s (%s)%n",
+            opciones.calentamiento().toSeconds(), opciones.duracion().toSeconds(), opciones.tasa(),
+            opciones.poisson() ? "poisson" : "constante");
+
+        long programada = inicio;
+        while (true) {
+            programada += opciones.poisson()
+                ? (long) (-Math.log(1 - random.nextDouble()) * intervaloMedio)
+                : (long) intervaloMedio;
+            if (programada >= fin) {
+                break;
+            }
+            long espera;
+            while ((espera = programada - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(espera);
+            }
+
+            Escenario escenario = elegirEscenario(random);
+            boolean medir = programada >= inicioMedicion;
+            long semillaSolicitud = random.nextLong();
+            llegadas++;
+
+            if (!enVuelo.tryAcquire()) {
+                if (medir) {
+                    resultados.registrarError(escenario, "descartada");
+                }
+                continue;
+            }
+            long instante = programada;
+            ejecutor.execute(() -> {
+                try {
+                    ejecutarSolicitud(escenario, instante, medir, new SplittableRandom(semillaSolicitud));
+                } finally {
+                    enVuelo.release();
+                }
+            });
+
+            if (programada >= siguienteReporte) {
+                System.out.printf("[carga] t=%ds llegadas=%d en vuelo=%d%n",
+                    TimeUnit.NANOSECONDS.toSeconds(programada - inicio), llegadas,
+                    opciones.maxConcurrencia() - enVuelo.availablePermits());
+                siguienteReporte += TimeUnit.SECONDS.toNanos(10);
+            }
+        }
+
+        ejecutor.shutdown();
+        if (!ejecutor.awaitTermination(opciones.timeout().toSeconds() + 10, TimeUnit.SECONDS)) {
+            System.out.println("[carga] Aviso: quedaron solicitudes sin terminar");
+        }
+
+        double segundos = opciones.duracion().toNanos() / 1e9;
+        resultados.imprimir(System.out, segundos);
+        Path destino = Path.of(opciones.resultado());
+        resultados.escribirJson(destino, opciones, segundos);
+        System.out.println("[carga] Resultados en " + destino.toAbsolutePath());
+    }
+
+    /**
+     * Inicia sesión con todos los usuarios sintéticos antes de empezar, para
+     * que el tráfico de detalle tenga sesiones desde el primer segundo.
+     */
+    private void preautenticar() throws InterruptedException {
+        if (!opciones.mezcla().containsKey(Escenario.DETALLE) && !opciones.mezcla().containsKey(Escenario.LOGIN)) {
+            return;
+        }
+        AtomicInteger fallidos = new AtomicInteger();
+        try (ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < sesiones.length(); i++) {
+                int indice = i;
+                ejecutor.execute(() -> {
+                    try {
+                        ClienteRecetas.Sesion sesion = cliente.login(usuario(indice), opciones.passwordUsuarios());
+                        if (sesion == null) {
+                            fallidos.incrementAndGet();
+                        }
+                        sesiones.set(indice, sesion);
+                    } catch (IOException e) {
+                        fallidos.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+        }
+        System.out.printf("[carga] Sesiones iniciadas: %d de %d%n",
+            sesiones.length() - fallidos.get(), sesiones.length());
+        if (fallidos.get() == sesiones.length()) {
+            throw new IllegalStateException("Ningún usuario pudo iniciar sesión (¿existen "
+                + GeneradorCatalogo.PREFIJO_USUARIO + "1.." + sesiones.length() + " en el objetivo?)");
+        }
+    }
+
+    private void ejecutarSolicitud(Escenario escenario, long programada, boolean medir, SplittableRandom random) {
+        long enviada = System.nanoTime();
+        String error;
+        try {
+            error = switch (escenario) {
+                case INICIO -> verificar(cliente.get("/", null));
+                case BUSCAR -> verificar(cliente.get(rutaBusqueda(random), null));
+                case LOGIN -> login(random);
+                case DETALLE -> detalle(random);
+            };
+        } catch (HttpTimeoutException e) {
+            error = "timeout";
+        } catch (IOException e) {
+            error = "conexion";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (RuntimeException e) {
+            error = e.getClass().getSimpleName();
+        }
+
+        if (SESION_REEMPLAZADA.equals(error)) {
+            resultados.registrarReemplazoSesion();
+        } else if (medir) {
+            resultados.registrar(escenario, programada, enviada, System.nanoTime(), error);
+        }
+    }
+
+    private String login(SplittableRandom random) throws IOException, InterruptedException {
+        int indice = random.nextInt(sesiones.length());
+        ClienteRecetas.Sesion sesion = cliente.login(usuario(indice), opciones.passwordUsuarios());
+        if (sesion == null) {
+            return "login_fallido";
+        }
+        sesiones.set(indice, sesion);
+        return null;
+    }
+
+    private String detalle(SplittableRandom random) throws IOException, InterruptedException {
+        int indice = random.nextInt(sesiones.length());
+        ClienteRecetas.Sesion sesion = sesiones.get(indice);
+        if (sesion == null) {
+            return "sin_sesion";
+        }
+        // Recetas "calientes": los ids bajos concentran la mayoría de las visitas
+        long id = 1 + (long) (Math.max(1, opciones.recetas()) * Math.pow(random.nextDouble(), 3));
+        HttpResponse<String> respuesta = cliente.get("/recetas/detalle/" + id, sesion);
+
+        boolean sinAutenticar = respuesta.statusCode() == 302
+            || respuesta.body().startsWith(ClienteRecetas.SESION_EXPIRADA);
+        if (sinAutenticar) {
+            // Un login posterior del mismo usuario invalida esta sesión (maximumSessions(1))
+            return sesiones.get(indice) != sesion ? SESION_REEMPLAZADA : "sesion_invalida";
+        }
+        return verificar(respuesta);
+    }
+
+    private String rutaBusqueda(SplittableRandom random) {
+        List<String> cocinas = GeneradorCatalogo.TIPOS_COCINA;
+        List<String> dificultades = GeneradorCatalogo.DIFICULTADES;
+        StringBuilder ruta = new StringBuilder("/recetas/buscar?");
+        switch (random.nextInt(4)) {
+            case 0 -> parametro(ruta, "nombre", String.valueOf(1 + random.nextInt(Math.max(1, opciones.recetas()))));
+            case 1 -> parametro(ruta, "tipoCocina", cocinas.get(random.nextInt(cocinas.size())));
+            case 2 -> parametro(ruta, "dificultad", dificultades.get(random.nextInt(dificultades.size())));
+            default -> {
+                int tipo = random.nextInt(cocinas.size());
+                parametro(ruta, "tipoCocina", cocinas.get(tipo));
+                parametro(ruta, "paisOrigen", GeneradorCatalogo.PAISES.get(tipo));
+                parametro(ruta, "dificultad", dificultades.get(random.nextInt(dificultades.size())));
+            }
+        }
+        return ruta.toString();
+    }
+
+    private static void parametro(StringBuilder ruta, String nombre, String valor) {
+        if (ruta.charAt(ruta.length() - 1) != '?') {
+            ruta.append('&');
+        }
+        ruta.append(nombre).append('=').append(URLEncoder.encode(valor, StandardCharsets.UTF_8));
+    }
+
+    private static String verificar(HttpResponse<String> respuesta) {
+        return respuesta.statusCode() == 200 ? null : "http_" + respuesta.statusCode();
+    }
+
+    private Escenario elegirEscenario(SplittableRandom random) {
+        int valor = random.nextInt(pesosAcumulados[pesosAcumulados.length - 1]);
+        for (int i = 0; i < pesosAcumulados.length; i++) {
+            if (valor < pesosAcumulados[i]) {
+                return escenarios[i];
+            }
+        }
+        return escenarios[escenarios.length - 1];
+    }
+
+    private static String usuario(int indice) {
+        return GeneradorCatalogo.PREFIJO_USUARIO + (indice + 1);
+    }
+}
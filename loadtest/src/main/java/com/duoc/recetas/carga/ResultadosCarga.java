@@ -0,0 +1,202 @@
+package com.duoc.recetas.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resultados de la prueba de carga por escenario.
+ *
+ * Cada solicitud registra dos latencias:
+ * - corregida: desde el instante en que DEBÍA enviarse según el calendario
+ *   de llegadas hasta la respuesta. Incluye la espera causada por un
+ *   servidor (o cliente) saturado, es decir, corrige la omisión coordinada.
+ * - servicio: desde el envío real hasta la respuesta (lo que mediría un
+ *   generador de modelo cerrado).
+ * La diferencia entre ambas en los percentiles altos indica encolamiento.
+ */
+public class ResultadosCarga {
+
+    private static final long MAXIMO_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<Escenario, PorEscenario> escenarios = new EnumMap<>(Escenario.class);
+
+    private final LongAdder reemplazosSesion = new LongAdder();
+
+    public ResultadosCarga() {
+        for (Escenario escenario : Escenario.values()) {
+            escenarios.put(escenario, new PorEscenario());
+        }
+    }
+
+    /**
+     * Registra una solicitud completada (con o sin error).
+     *
+     * @param programada Instante planificado (System.nanoTime)
+     * @param enviada Instante real de envío
+     * @param fin Instante de la respuesta
+     * @param error Tipo de error, o null si fue correcta
+     */
+    public void registrar(Escenario escenario, long programada, long enviada, long fin, String error) {
+        PorEscenario datos = escenarios.get(escenario);
+        datos.corregida.recordValue(Math.min(MAXIMO_MICROS, TimeUnit.NANOSECONDS.toMicros(fin - programada)));
+        datos.servicio.recordValue(Math.min(MAXIMO_MICROS, TimeUnit.NANOSECONDS.toMicros(fin - enviada)));
+        if (error == null) {
+            datos.correctas.increment();
+        } else {
+            registrarError(escenario, error);
+        }
+    }
+
+    /**
+     * Registra un error sin latencia (p. ej. solicitud descartada).
+     */
+    public void registrarError(Escenario escenario, String error) {
+        escenarios.get(escenario).errores.computeIfAbsent(error, e -> new LongAdder()).increment();
+    }
+
+    /**
+     * Una sesión de la prueba fue invalidada por un login posterior del mismo
+     * usuario (maximumSessions(1)). No es un error del servidor.
+     */
+    public void registrarReemplazoSesion() {
+        reemplazosSesion.increment();
+    }
+
+    /**
+     * Imprime la tabla de resultados.
+     *
+     * @param segundos Duración de la ventana medida
+     */
+    public void imprimir(PrintStream out, double segundos) {
+        out.printf("%n%-9s %9s %8s %9s %9s %9s %9s %9s %9s %12s%n",
+            "escenario", "total", "errores", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "p99 serv ms");
+        Histogram totalCorregida = new Histogram(MAXIMO_MICROS, 3);
+        Histogram totalServicio = new Histogram(MAXIMO_MICROS, 3);
+        long total = 0;
+        long errores = 0;
+        for (Map.Entry<Escenario, PorEscenario> entrada : escenarios.entrySet()) {
+            PorEscenario datos = entrada.getValue();
+            if (datos.total() == 0) {
+                continue;
+            }
+            imprimirFila(out, entrada.getKey().getNombre(), datos.total(), datos.totalErrores(),
+                segundos, datos.corregida, datos.servicio);
+            totalCorregida.add(datos.corregida);
+            totalServicio.add(datos.servicio);
+            total += datos.total();
+            errores += datos.totalErrores();
+        }
+        imprimirFila(out, "TOTAL", total, errores, segundos, totalCorregida, totalServicio);
+
+        for (Map.Entry<Escenario, PorEscenario> entrada : escenarios.entrySet()) {
+            if (!entrada.getValue().errores.isEmpty()) {
+                out.printf("errores %s: %s%n", entrada.getKey().getNombre(), entrada.getValue().resumenErrores());
+            }
+        }
+        if (reemplazosSesion.sum() > 0) {
+            out.printf("sesiones reemplazadas por re-login (no son errores): %d%n", reemplazosSesion.sum());
+        }
+    }
+
+    private static void imprimirFila(PrintStream out, String nombre, long total, long errores, double segundos,
+                                     Histogram corregida, Histogram servicio) {
+        out.printf("%-9s %9d %8d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f %12.1f%n",
+            nombre, total, errores, (total - errores) / segundos,
+            ms(corregida.getValueAtPercentile(50)), ms(corregida.getValueAtPercentile(90)),
+            ms(corregida.getValueAtPercentile(99)), ms(corregida.getValueAtPercentile(99.9)),
+            ms(corregida.getMaxValue()), ms(servicio.getValueAtPercentile(99)));
+    }
+
+    /**
+     * Escribe los resultados en JSON para comparar ejecuciones.
+     */
+    public void escribirJson(Path destino, OpcionesCarga opciones, double segundos) throws IOException {
+        Map<String, Object> raiz = new LinkedHashMap<>();
+        Map<String, Object> configuracion = new LinkedHashMap<>();
+        configuracion.put("objetivo", opciones.objetivo() != null ? opciones.objetivo() : "local");
+        configuracion.put("tasa", opciones.tasa());
+        configuracion.put("llegadas", opciones.poisson() ? "poisson" : "constante");
+        configuracion.put("duracionSegundos", segundos);
+        configuracion.put("mezcla", opciones.mezcla());
+        configuracion.put("recetas", opciones.recetas());
+        configuracion.put("usuarios", opciones.usuarios());
+        configuracion.put("semilla", opciones.semilla());
+        raiz.put("configuracion", configuracion);
+
+        Map<String, Object> porEscenario = new LinkedHashMap<>();
+        for (Map.Entry<Escenario, PorEscenario> entrada : escenarios.entrySet()) {
+            PorEscenario datos = entrada.getValue();
+            if (datos.total() == 0) {
+                continue;
+            }
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("total", datos.total());
+            json.put("errores", datos.resumenErrores());
+            json.put("throughput", (datos.total() - datos.totalErrores()) / segundos);
+            json.put("latenciaCorregidaMs", percentiles(datos.corregida));
+            json.put("latenciaServicioMs", percentiles(datos.servicio));
+            porEscenario.put(entrada.getKey().getNombre(), json);
+        }
+        raiz.put("escenarios", porEscenario);
+        raiz.put("sesionesReemplazadas", reemplazosSesion.sum());
+
+        if (destino.getParent() != null) {
+            Files.createDirectories(destino.getParent());
+        }
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(destino.toFile(), raiz);
+    }
+
+    private static Map<String, Double> percentiles(Histogram histograma) {
+        Map<String, Double> valores = new LinkedHashMap<>();
+        for (double p : PERCENTILES) {
+            valores.put("p" + p, ms(histograma.getValueAtPercentile(p)));
+        }
+        valores.put("max", ms(histograma.getMaxValue()));
+        valores.put("media", histograma.getMean() / 1000.0);
+        return valores;
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class PorEscenario {
+
+        private final Histogram corregida = new ConcurrentHistogram(MAXIMO_MICROS, 3);
+
+        private final Histogram servicio = new ConcurrentHistogram(MAXIMO_MICROS, 3);
+
+        private final LongAdder correctas = new LongAdder();
+
+        private final Map<String, LongAdder> errores = new ConcurrentHashMap<>();
+
+        long totalErrores() {
+            return errores.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+
+        long total() {
+            return correctas.sum() + totalErrores();
+        }
+
+        Map<String, Long> resumenErrores() {
+            Map<String, Long> resumen = new TreeMap<>();
+            errores.forEach((tipo, cuenta) -> resumen.put(tipo, cuenta.sum()));
+            return resumen;
+        }
+    }
+}
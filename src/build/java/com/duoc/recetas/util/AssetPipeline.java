@@ -0,0 +1,117 @@
+package com.duoc.recetas.util;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pipeline de recursos estáticos ejecutado en tiempo de build.
+ * 
+ * Se ejecuta desde Maven (exec-maven-plugin, fase process-classes) sobre
+ * target/classes/static y:
+ * - Minifica los archivos .css y .js (comentarios y espacios).
+ * - Genera variantes precomprimidas .gz y .br junto a cada archivo.
+ * 
+ * En tiempo de ejecución, WebConfig agrega el hash del contenido al nombre
+ * (style-&lt;md5&gt;.css), reescribe los enlaces @{...} de las plantillas y sirve
+ * la variante precomprimida con Cache-Control immutable.
+ * 
+ * Está en src/build/java, fuera de las fuentes de la aplicación: no se
+ * compila con ella ni viaja en el jar. Maven la ejecuta como programa de un
+ * solo archivo (java AssetPipeline.java), con brotli4j (dependencia
+ * provided) en el classpath.
+ * 
+ * Uso: java -cp &lt;classpath&gt; AssetPipeline.java &lt;directorio-static&gt;
+ */
+public class AssetPipeline {
+
+    private static final List<String> EXTENSIONES = List.of(".css", ".js", ".svg");
+
+    private static final int TAMANO_MINIMO = 256;
+
+    public static void main(String[] args) throws IOException {
+        Path raiz = Paths.get(args.length > 0 ? args[0] : "target/classes/static");
+        if (!Files.isDirectory(raiz)) {
+            System.out.println("[assets] No existe " + raiz + ", nada que procesar");
+            return;
+        }
+
+        boolean brotli = cargarBrotli();
+
+        List<Path> archivos;
+        try (Stream<Path> recorrido = Files.walk(raiz)) {
+            archivos = recorrido
+                .filter(Files::isRegularFile)
+                .filter(p -> EXTENSIONES.stream().anyMatch(ext -> p.toString().endsWith(ext)))
+                .toList();
+        }
+
+        for (Path archivo : archivos) {
+            byte[] original = Files.readAllBytes(archivo);
+            byte[] contenido = original;
+
+            String nombre = archivo.getFileName().toString();
+            if (nombre.endsWith(".css")) {
+                contenido = minificarCss(new String(original, StandardCharsets.UTF_8))
+                    .getBytes(StandardCharsets.UTF_8);
+                Files.write(archivo, contenido);
+            }
+
+            if (contenido.length < TAMANO_MINIMO) {
+                continue;
+            }
+
+            Path gz = archivo.resolveSibling(nombre + ".gz");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gz))) {
+                out.write(contenido);
+            }
+
+            long tamanoBr = -1;
+            if (brotli) {
+                byte[] br = Encoder.compress(contenido, new Encoder.Parameters().setQuality(11));
+                Files.write(archivo.resolveSibling(nombre + ".br"), br);
+                tamanoBr = br.length;
+            }
+
+            System.out.printf("[assets] %s: %d -> %d bytes (gz %d, br %s)%n",
+                raiz.relativize(archivo), original.length, contenido.length,
+                Files.size(gz), tamanoBr >= 0 ? String.valueOf(tamanoBr) : "-");
+        }
+    }
+
+    /**
+     * Minificación conservadora de CSS: elimina comentarios, colapsa espacios
+     * y quita los espacios alrededor de los delimitadores.
+     * 
+     * @param css Hoja de estilos original
+     * @return Hoja de estilos minificada
+     */
+    static String minificarCss(String css) {
+        return css
+            .replaceAll("(?s)/\\*.*?\\*/", "")
+            .replaceAll("\\s+", " ")
+            .replaceAll("\\s*([{};,>])\\s*", "$1")
+            .replaceAll(";}", "}")
+            .trim();
+    }
+
+    private static boolean cargarBrotli() {
+        try {
+            Brotli4jLoader.ensureAvailability();
+            return true;
+        } catch (Throwable e) {
+            // Sin librería nativa para esta plataforma: solo se genera .gz
+            System.out.println("[assets] Brotli no disponible (" + e.getMessage() + "), se omite .br");
+            return false;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.duoc.recetas;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Clase principal de la aplicación de Recetas Seguras.
@@ -10,19 +12,28 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * con autenticación y autorización mediante Spring Security, cumpliendo
  * con los estándares de seguridad OWASP Top 10.
  * 
+ * Las tareas programadas están habilitadas para el refresco periódico del
+ * catálogo columnar (CatalogoSnapshotService).
+ * 
  * @author Equipo de Desarrollo
  * @version 1.0.0
  */
 @SpringBootApplication
+@EnableScheduling
 public class RecetasApplication {
 
     /**
      * Método principal que inicia la aplicación Spring Boot.
      * 
+     * Registra las fases del arranque (BufferingApplicationStartup) para
+     * consultarlas en /actuator/startup.
+     * 
      * @param args Argumentos de línea de comandos
      */
     public static void main(String[] args) {
-        SpringApplication.run(RecetasApplication.class, args);
+        SpringApplication application = new SpringApplication(RecetasApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(4096));
+        application.run(args);
         System.out.println("\n============================================");
         System.out.println("✅ Aplicación iniciada correctamente");
         System.out.println("🌐 Accede a: http://localhost:8082");
@@ -0,0 +1,134 @@
+package com.duoc.recetas.analitica;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Buffer circular acotado y sin bloqueos para eventos de visita
+ * (varios productores, un consumidor).
+ *
+ * Cada posición tiene un número de secuencia que indica si está libre para
+ * la vuelta actual de los productores o lista para el consumidor:
+ * - Un productor reserva la posición con un CAS sobre la cola, escribe el
+ *   evento y publica la secuencia (escritura volátil). Si el buffer está
+ *   lleno, ofrecer() devuelve false de inmediato: el evento se descarta en
+ *   vez de hacer esperar a la petición.
+ * - El consumidor (RegistroVisitas) lee las posiciones publicadas en orden
+ *   y las libera para la vuelta siguiente.
+ *
+ * Los eventos son dos primitivos (receta y hora) en arreglos paralelos, sin
+ * crear objetos por visita.
+ */
+public final class AnilloVisitas {
+
+    /**
+     * Recibe los eventos al drenar el buffer.
+     */
+    @FunctionalInterface
+    public interface ConsumidorVisita {
+
+        /**
+         * @param recetaId ID de la receta visitada
+         * @param hora Hora de la visita (horas desde la época Unix, UTC)
+         */
+        void aceptar(long recetaId, int hora);
+    }
+
+    private final int capacidad;
+
+    private final int mascara;
+
+    private final AtomicLongArray secuencias;
+
+    private final long[] recetas;
+
+    private final int[] horas;
+
+    private final AtomicLong cola = new AtomicLong();
+
+    /**
+     * Solo la modifica el consumidor (volátil para getPendientes()).
+     */
+    private volatile long cabeza;
+
+    /**
+     * @param capacidad Eventos máximos en espera (se redondea a potencia de 2)
+     */
+    public AnilloVisitas(int capacidad) {
+        this.capacidad = Integer.highestOneBit(Math.max(2, capacidad - 1)) << 1;
+        this.mascara = this.capacidad - 1;
+        this.secuencias = new AtomicLongArray(this.capacidad);
+        this.recetas = new long[this.capacidad];
+        this.horas = new int[this.capacidad];
+        for (int i = 0; i < this.capacidad; i++) {
+            secuencias.set(i, i);
+        }
+    }
+
+    /**
+     * Encola una visita sin bloquear.
+     *
+     * @param recetaId ID de la receta
+     * @param hora Hora de la visita (horas desde la época Unix, UTC)
+     * @return false si el buffer está lleno y el evento se descartó
+     */
+    public boolean ofrecer(long recetaId, int hora) {
+        long posicion = cola.get();
+        while (true) {
+            int indice = (int) (posicion & mascara);
+            long diferencia = secuencias.get(indice) - posicion;
+            if (diferencia == 0) {
+                if (cola.compareAndSet(posicion, posicion + 1)) {
+                    recetas[indice] = recetaId;
+                    horas[indice] = hora;
+                    secuencias.set(indice, posicion + 1);
+                    return true;
+                }
+                posicion = cola.get();
+            } else if (diferencia < 0) {
+                // La posición aún no la libera el consumidor: buffer lleno
+                return false;
+            } else {
+                // Otro productor ya tomó esta posición
+                posicion = cola.get();
+            }
+        }
+    }
+
+    /**
+     * Entrega al consumidor los eventos publicados, en orden de llegada.
+     * Debe llamarse desde un solo hilo a la vez.
+     *
+     * @param consumidor Acción por evento
+     * @param maximo Eventos máximos a drenar en esta llamada
+     * @return Eventos drenados
+     */
+    public int drenar(ConsumidorVisita consumidor, int maximo) {
+        int drenados = 0;
+        while (drenados < maximo) {
+            int indice = (int) (cabeza & mascara);
+            if (secuencias.get(indice) != cabeza + 1) {
+                break;
+            }
+            consumidor.aceptar(recetas[indice], horas[indice]);
+            secuencias.set(indice, cabeza + capacidad);
+            cabeza++;
+            drenados++;
+        }
+        return drenados;
+    }
+
+    /**
+     * @return Eventos en espera (aproximado)
+     */
+    public int getPendientes() {
+        return (int) Math.max(0, cola.get() - cabeza);
+    }
+
+    /**
+     * @return Capacidad del buffer
+     */
+    public int getCapacidad() {
+        return capacidad;
+    }
+}
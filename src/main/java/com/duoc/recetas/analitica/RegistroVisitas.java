@@ -0,0 +1,247 @@
+package com.duoc.recetas.analitica;
+
+import com.duoc.recetas.dto.VisitasRecetaHora;
+import com.duoc.recetas.repository.VisitasHoraRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Registro de visitas a recetas por hora (tabla recetas_visitas_hora).
+ *
+ * - registrar() se llama en cada visita al detalle: solo encola (receta,
+ *   hora) en un AnilloVisitas, sin bloqueos ni acceso a la base de datos.
+ *   Si el buffer está lleno la visita se descarta y se cuenta en
+ *   recetas.visitas.eventos{resultado=descartado}.
+ * - Cada recetas.visitas.intervalo, un escritor en el TaskScheduler drena el
+ *   buffer, agrega las visitas por (receta, hora) y las suma en la tabla con
+ *   upserts JDBC por lotes dentro de una transacción.
+ * - Si la escritura falla, las visitas agregadas se conservan para el
+ *   siguiente intento, hasta recetas.visitas.max-pendientes filas; sobre
+ *   ese límite se descartan (recetas.visitas.perdidas).
+ * - Una vez por hora se eliminan las filas anteriores a
+ *   recetas.visitas.retencion.
+ *
+ * Las consultas (VisitasService) ven las visitas con hasta un intervalo de
+ * retraso. El contador Receta.visualizaciones se mantiene como antes.
+ */
+@Component
+public class RegistroVisitas {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistroVisitas.class);
+
+    private static final long MILIS_HORA = 3_600_000L;
+
+    @Autowired
+    private VisitasHoraRepository visitasHoraRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Value("${recetas.visitas.habilitado:true}")
+    private boolean habilitado;
+
+    /**
+     * Visitas máximas en espera en el buffer.
+     */
+    @Value("${recetas.visitas.capacidad:65536}")
+    private int capacidad;
+
+    @Value("${recetas.visitas.intervalo:5s}")
+    private Duration intervalo;
+
+    @Value("${recetas.visitas.tamano-lote:500}")
+    private int tamanoLote;
+
+    /**
+     * Filas (receta, hora) que se conservan si la escritura falla.
+     */
+    @Value("${recetas.visitas.max-pendientes:100000}")
+    private int maxPendientes;
+
+    /**
+     * Antigüedad máxima de las filas (0 = no eliminar).
+     */
+    @Value("${recetas.visitas.retencion:90d}")
+    private Duration retencion;
+
+    private AnilloVisitas anillo;
+
+    /**
+     * Visitas agregadas aún no escritas; solo se accede con el bloqueo.
+     */
+    private final Map<ClaveVisita, int[]> pendientes = new HashMap<>();
+
+    private final ReentrantLock escribiendo = new ReentrantLock();
+
+    private int ultimaPurga;
+
+    private TransactionTemplate transaccion;
+
+    private Counter encoladas;
+
+    private Counter descartadas;
+
+    private Counter perdidas;
+
+    private Timer duracionEscritura;
+
+    @PostConstruct
+    void inicializar() {
+        anillo = new AnilloVisitas(capacidad);
+        transaccion = new TransactionTemplate(transactionManager);
+
+        encoladas = Counter.builder("recetas.visitas.eventos")
+            .description("Visitas registradas en el buffer de analítica")
+            .tag("resultado", "encolado")
+            .register(meterRegistry);
+        descartadas = Counter.builder("recetas.visitas.eventos")
+            .description("Visitas registradas en el buffer de analítica")
+            .tag("resultado", "descartado")
+            .register(meterRegistry);
+        perdidas = Counter.builder("recetas.visitas.perdidas")
+            .description("Visitas agregadas descartadas tras fallos de escritura")
+            .register(meterRegistry);
+        duracionEscritura = Timer.builder("recetas.visitas.escritura")
+            .description("Tiempo de escritura de un lote de visitas por hora")
+            .register(meterRegistry);
+        Gauge.builder("recetas.visitas.cola", anillo, AnilloVisitas::getPendientes)
+            .description("Visitas en espera en el buffer")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Programa el escritor cada recetas.visitas.intervalo.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void programarEscritura() {
+        if (habilitado) {
+            taskScheduler.scheduleWithFixedDelay(this::escribir, Instant.now().plus(intervalo), intervalo);
+        }
+    }
+
+    /**
+     * Registra una visita sin bloquear la petición.
+     *
+     * @param recetaId ID de la receta visitada
+     */
+    public void registrar(Long recetaId) {
+        if (!habilitado || recetaId == null) {
+            return;
+        }
+        if (anillo.ofrecer(recetaId, (int) (System.currentTimeMillis() / MILIS_HORA))) {
+            encoladas.increment();
+        } else {
+            descartadas.increment();
+        }
+    }
+
+    /**
+     * Drena el buffer y suma las visitas agregadas en la base de datos.
+     */
+    public void escribir() {
+        escribiendo.lock();
+        try {
+            // Como máximo una capacidad por pasada, aunque sigan llegando visitas
+            anillo.drenar(this::acumular, anillo.getCapacidad());
+            if (!pendientes.isEmpty()) {
+                guardarPendientes();
+            }
+            purgarSiCorresponde();
+        } finally {
+            escribiendo.unlock();
+        }
+    }
+
+    /**
+     * Escribe las visitas pendientes al detener la aplicación.
+     */
+    @PreDestroy
+    void detener() {
+        if (habilitado) {
+            escribir();
+        }
+    }
+
+    private void acumular(long recetaId, int hora) {
+        pendientes.computeIfAbsent(new ClaveVisita(recetaId, hora), c -> new int[1])[0]++;
+    }
+
+    private void guardarPendientes() {
+        List<VisitasRecetaHora> filas = new ArrayList<>(pendientes.size());
+        pendientes.forEach((clave, visitas) -> filas.add(
+            new VisitasRecetaHora(clave.recetaId(), inicioHora(clave.hora()), visitas[0])));
+        try {
+            // En una transacción: si falla un lote no queda nada sumado y se puede reintentar
+            duracionEscritura.record(() -> transaccion.executeWithoutResult(
+                estado -> visitasHoraRepository.sumarVisitas(filas, tamanoLote)));
+            pendientes.clear();
+        } catch (RuntimeException e) {
+            if (pendientes.size() > maxPendientes) {
+                long visitas = filas.stream().mapToLong(VisitasRecetaHora::visitas).sum();
+                perdidas.increment(visitas);
+                pendientes.clear();
+                log.warn("No se pudieron guardar las visitas por hora; se descartan {} visitas: {}",
+                    visitas, e.toString());
+            } else {
+                log.warn("No se pudieron guardar las visitas por hora (se reintentará): {}", e.toString());
+            }
+        }
+    }
+
+    private void purgarSiCorresponde() {
+        int horaActual = (int) (System.currentTimeMillis() / MILIS_HORA);
+        if (retencion.isZero() || horaActual == ultimaPurga) {
+            return;
+        }
+        // Un intento por hora aunque falle: la purga siguiente borra también
+        // lo que quedó pendiente, y no se repite el aviso en cada escritura
+        ultimaPurga = horaActual;
+        try {
+            int eliminadas = visitasHoraRepository.purgar(inicioHora(horaActual).minus(retencion));
+            log.debug("Visitas por hora: {} filas anteriores a la retención eliminadas", eliminadas);
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron eliminar las visitas por hora antiguas (se reintentará en la próxima hora): {}",
+                e.toString());
+        }
+    }
+
+    private static LocalDateTime inicioHora(int hora) {
+        return LocalDateTime.ofEpochSecond(hora * 3600L, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Receta y hora (horas desde la época Unix) de una visita.
+     */
+    private record ClaveVisita(long recetaId, int hora) {
+    }
+}
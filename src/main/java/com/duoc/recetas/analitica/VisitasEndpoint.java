@@ -0,0 +1,65 @@
+package com.duoc.recetas.analitica;
+
+import com.duoc.recetas.dto.RecetaVisitas;
+import com.duoc.recetas.dto.VisitasHora;
+import com.duoc.recetas.service.VisitasService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Endpoint de administración con las visitas por hora.
+ * 
+ * GET /actuator/visitas?horas=24&limite=10  → recetas más visitadas en la ventana
+ * GET /actuator/visitas/{recetaId}?horas=48 → serie horaria de una receta
+ * 
+ * Requiere ROLE_ADMIN (ver SecurityConfig).
+ */
+@Component
+@Endpoint(id = "visitas")
+public class VisitasEndpoint {
+
+    @Autowired
+    private VisitasService visitasService;
+
+    @ReadOperation
+    public Map<String, Object> masVisitadas(@Nullable Integer horas, @Nullable Integer limite) {
+        int ventana = horas != null ? horas : 24;
+        List<RecetaVisitas> recetas = visitasService.obtenerMasVisitadas(ventana, limite != null ? limite : 10);
+
+        Map<String, Object> respuesta = new LinkedHashMap<>();
+        respuesta.put("horas", ventana);
+        respuesta.put("recetas", recetas.stream().map(r -> {
+            Map<String, Object> fila = new LinkedHashMap<>();
+            fila.put("recetaId", r.recetaId());
+            fila.put("nombre", r.nombre());
+            fila.put("visitas", r.visitas());
+            return fila;
+        }).toList());
+        return respuesta;
+    }
+
+    @ReadOperation
+    public Map<String, Object> serie(@Selector Long recetaId, @Nullable Integer horas) {
+        int ventana = horas != null ? horas : 24;
+        List<VisitasHora> serie = visitasService.obtenerSerie(recetaId, ventana);
+
+        Map<String, Object> respuesta = new LinkedHashMap<>();
+        respuesta.put("recetaId", recetaId);
+        respuesta.put("total", serie.stream().mapToLong(VisitasHora::visitas).sum());
+        respuesta.put("serie", serie.stream().map(v -> {
+            Map<String, Object> fila = new LinkedHashMap<>();
+            fila.put("hora", v.hora().toString());
+            fila.put("visitas", v.visitas());
+            return fila;
+        }).toList());
+        return respuesta;
+    }
+}
@@ -0,0 +1,391 @@
+package com.duoc.recetas.cache;
+
+import com.duoc.recetas.dto.FilaCatalogo;
+import com.duoc.recetas.dto.FiltroCatalogo;
+
+import java.text.Normalizer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Copia inmutable y columnar del catálogo de recetas.
+ *
+ * Cada columna es un arreglo primitivo indexado por fila:
+ * - id: long[]; tiempo de cocción, porciones y visualizaciones: int[]
+ *   (SIN_VALOR si la columna es null).
+ * - tipoCocina y paisOrigen: short[] con códigos de diccionario;
+ *   dificultad: byte[]. El código 0 representa null.
+ * - nombre: String[] normalizado, para el filtro "contiene".
+ *
+ * Los textos se comparan normalizados (minúsculas y sin tildes, ver
+ * normalizar) tanto en las columnas y diccionarios como en el filtro, igual
+ * que LIKE con la intercalación de MySQL: "Asiatica" encuentra "Asiática".
+ *
+ * Una búsqueda recorre las filas en un solo bucle comparando primitivos;
+ * los filtros de texto se resuelven antes sobre el diccionario (unas pocas
+ * entradas) y en el bucle solo se consulta un boolean[] por código. El
+ * orden se hace sobre claves long (valor << 32 | fila) con Arrays.sort.
+ * Sobre el umbral de paralelismo, el filtro y el orden se reparten entre los
+ * hilos del ForkJoinPool común.
+ *
+ * La construye CatalogoSnapshotService, que la reemplaza completa en cada
+ * refresco; nunca se modifica después de construida.
+ */
+public final class CatalogoColumnar {
+
+    /**
+     * Valor de las columnas numéricas cuando la receta no lo tiene.
+     */
+    public static final int SIN_VALOR = Integer.MIN_VALUE;
+
+    /**
+     * Marcas diacríticas que quedan separadas al descomponer (NFD).
+     */
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+
+    private final int filas;
+
+    private final long[] ids;
+
+    private final String[] nombres;
+
+    private final int[] tiempos;
+
+    private final int[] porciones;
+
+    private final int[] visualizaciones;
+
+    private final short[] tipos;
+
+    private final short[] paises;
+
+    private final byte[] dificultades;
+
+    private final String[] diccionarioTipos;
+
+    private final String[] diccionarioPaises;
+
+    private final String[] diccionarioDificultades;
+
+    private final Instant creadoEn = Instant.now();
+
+    private CatalogoColumnar(Constructor c) {
+        this.filas = c.filas;
+        this.ids = Arrays.copyOf(c.ids, c.filas);
+        this.nombres = Arrays.copyOf(c.nombres, c.filas);
+        this.tiempos = Arrays.copyOf(c.tiempos, c.filas);
+        this.porciones = Arrays.copyOf(c.porciones, c.filas);
+        this.visualizaciones = Arrays.copyOf(c.visualizaciones, c.filas);
+        this.tipos = Arrays.copyOf(c.tipos, c.filas);
+        this.paises = Arrays.copyOf(c.paises, c.filas);
+        this.dificultades = Arrays.copyOf(c.dificultades, c.filas);
+        this.diccionarioTipos = normalizados(c.tiposCodigos.valores());
+        this.diccionarioPaises = normalizados(c.paisesCodigos.valores());
+        this.diccionarioDificultades = normalizados(c.dificultadesCodigos.valores());
+    }
+
+    /**
+     * Pasa un texto a minúsculas y le quita tildes y otras marcas
+     * diacríticas (á → a, ñ → n, ü → u).
+     *
+     * @param texto Texto a normalizar
+     * @return Texto normalizado
+     */
+    static String normalizar(String texto) {
+        String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        return MARCAS.matcher(descompuesto).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static String[] normalizados(String[] diccionario) {
+        String[] normalizado = new String[diccionario.length];
+        for (int codigo = 1; codigo < diccionario.length; codigo++) {
+            normalizado[codigo] = normalizar(diccionario[codigo]);
+        }
+        return normalizado;
+    }
+
+    /**
+     * Crea un constructor para cargar filas.
+     *
+     * @param capacidadInicial Número estimado de filas
+     * @return Constructor vacío
+     */
+    public static Constructor constructor(int capacidadInicial) {
+        return new Constructor(capacidadInicial);
+    }
+
+    /**
+     * Busca las recetas que cumplen el filtro.
+     *
+     * @param filtro Criterios y orden
+     * @param umbralParalelo Número de filas desde el que se usa paralelismo
+     * @return IDs de las recetas, en el orden pedido
+     */
+    public long[] buscar(FiltroCatalogo filtro, int umbralParalelo) {
+        Criterios criterios = new Criterios(filtro);
+        boolean paralelo = filas >= umbralParalelo;
+
+        int[] seleccion = paralelo ? filtrarEnParalelo(criterios) : filtrar(criterios, 0, filas);
+        if (filtro.orden() != FiltroCatalogo.Orden.NINGUNO) {
+            seleccion = ordenar(seleccion, filtro.orden(), paralelo);
+        }
+
+        long[] resultado = new long[seleccion.length];
+        for (int i = 0; i < seleccion.length; i++) {
+            resultado[i] = ids[seleccion[i]];
+        }
+        return resultado;
+    }
+
+    public int getFilas() {
+        return filas;
+    }
+
+    public Instant getCreadoEn() {
+        return creadoEn;
+    }
+
+    /**
+     * Filtra las filas [desde, hasta) y devuelve sus índices.
+     */
+    private int[] filtrar(Criterios c, int desde, int hasta) {
+        int[] salida = new int[hasta - desde];
+        int n = 0;
+        for (int i = desde; i < hasta; i++) {
+            int tiempo = tiempos[i];
+            if (tiempo < c.tiempoMin || tiempo > c.tiempoMax) {
+                continue;
+            }
+            int porcion = porciones[i];
+            if (porcion < c.porcionesMin || porcion > c.porcionesMax) {
+                continue;
+            }
+            if (c.tipos != null && !c.tipos[tipos[i]]) {
+                continue;
+            }
+            if (c.paises != null && !c.paises[paises[i]]) {
+                continue;
+            }
+            if (c.dificultades != null && !c.dificultades[dificultades[i] & 0xFF]) {
+                continue;
+            }
+            if (c.nombre != null && !nombres[i].contains(c.nombre)) {
+                continue;
+            }
+            salida[n++] = i;
+        }
+        return n == salida.length ? salida : Arrays.copyOf(salida, n);
+    }
+
+    private int[] filtrarEnParalelo(Criterios c) {
+        int bloques = Math.max(1, Runtime.getRuntime().availableProcessors() * 4);
+        int tamano = (filas + bloques - 1) / bloques;
+        int[][] partes = IntStream.range(0, bloques)
+            .parallel()
+            .mapToObj(b -> filtrar(c, Math.min(filas, b * tamano), Math.min(filas, (b + 1) * tamano)))
+            .toArray(int[][]::new);
+
+        int total = 0;
+        for (int[] parte : partes) {
+            total += parte.length;
+        }
+        int[] seleccion = new int[total];
+        int posicion = 0;
+        for (int[] parte : partes) {
+            System.arraycopy(parte, 0, seleccion, posicion, parte.length);
+            posicion += parte.length;
+        }
+        return seleccion;
+    }
+
+    /**
+     * Ordena la selección por la columna pedida. La fila va en los 32 bits
+     * bajos de la clave, así los empates conservan el orden del catálogo.
+     */
+    private int[] ordenar(int[] seleccion, FiltroCatalogo.Orden orden, boolean paralelo) {
+        long[] claves = new long[seleccion.length];
+        for (int k = 0; k < seleccion.length; k++) {
+            int fila = seleccion[k];
+            int valor = switch (orden) {
+                case VISUALIZACIONES -> -Math.max(0, visualizaciones[fila]);
+                // Sin tiempo o sin porciones al final
+                case TIEMPO -> tiempos[fila] == SIN_VALOR ? Integer.MAX_VALUE : tiempos[fila];
+                case PORCIONES -> porciones[fila] == SIN_VALOR ? Integer.MAX_VALUE : -porciones[fila];
+                case NINGUNO -> 0;
+            };
+            claves[k] = ((long) valor << 32) | fila;
+        }
+        if (paralelo) {
+            Arrays.parallelSort(claves);
+        } else {
+            Arrays.sort(claves);
+        }
+        int[] ordenada = new int[claves.length];
+        for (int k = 0; k < claves.length; k++) {
+            ordenada[k] = (int) claves[k];
+        }
+        return ordenada;
+    }
+
+    /**
+     * Filtro preparado para el bucle: límites primitivos y códigos aceptados.
+     */
+    private final class Criterios {
+
+        final int tiempoMin;
+        final int tiempoMax;
+        final int porcionesMin;
+        final int porcionesMax;
+        final boolean[] tipos;
+        final boolean[] paises;
+        final boolean[] dificultades;
+        final String nombre;
+
+        Criterios(FiltroCatalogo filtro) {
+            // Con un rango activo, las filas sin valor (SIN_VALOR) quedan fuera
+            boolean rangoTiempo = filtro.tiempoMin() != null || filtro.tiempoMax() != null;
+            tiempoMin = filtro.tiempoMin() != null ? filtro.tiempoMin()
+                : rangoTiempo ? SIN_VALOR + 1 : SIN_VALOR;
+            tiempoMax = filtro.tiempoMax() != null ? filtro.tiempoMax() : Integer.MAX_VALUE;
+            boolean rangoPorciones = filtro.porcionesMin() != null || filtro.porcionesMax() != null;
+            porcionesMin = filtro.porcionesMin() != null ? filtro.porcionesMin()
+                : rangoPorciones ? SIN_VALOR + 1 : SIN_VALOR;
+            porcionesMax = filtro.porcionesMax() != null ? filtro.porcionesMax() : Integer.MAX_VALUE;
+
+            tipos = aceptados(diccionarioTipos, filtro.tipoCocina(), false);
+            paises = aceptados(diccionarioPaises, filtro.paisOrigen(), false);
+            dificultades = aceptados(diccionarioDificultades, filtro.dificultad(), true);
+            nombre = filtro.nombre() != null ? normalizar(filtro.nombre()) : null;
+        }
+
+        private static boolean[] aceptados(String[] diccionario, String texto, boolean exacto) {
+            if (texto == null) {
+                return null;
+            }
+            String buscado = normalizar(texto);
+            boolean[] aceptados = new boolean[diccionario.length];
+            for (int codigo = 1; codigo < diccionario.length; codigo++) {
+                String valor = diccionario[codigo];
+                aceptados[codigo] = exacto ? valor.equals(buscado) : valor.contains(buscado);
+            }
+            return aceptados;
+        }
+    }
+
+    /**
+     * Carga filas en arreglos que crecen según se necesita.
+     */
+    public static final class Constructor {
+
+        private int filas;
+        private long[] ids;
+        private String[] nombres;
+        private int[] tiempos;
+        private int[] porciones;
+        private int[] visualizaciones;
+        private short[] tipos;
+        private short[] paises;
+        private byte[] dificultades;
+        private final Diccionario tiposCodigos = new Diccionario(Short.MAX_VALUE);
+        private final Diccionario paisesCodigos = new Diccionario(Short.MAX_VALUE);
+        private final Diccionario dificultadesCodigos = new Diccionario(255);
+
+        private Constructor(int capacidad) {
+            int inicial = Math.max(16, capacidad);
+            ids = new long[inicial];
+            nombres = new String[inicial];
+            tiempos = new int[inicial];
+            porciones = new int[inicial];
+            visualizaciones = new int[inicial];
+            tipos = new short[inicial];
+            paises = new short[inicial];
+            dificultades = new byte[inicial];
+        }
+
+        /**
+         * Agrega una fila.
+         *
+         * @param fila Columnas de la receta
+         * @return Este constructor
+         * @throws IllegalStateException Si un diccionario supera su tamaño máximo
+         */
+        public Constructor agregar(FilaCatalogo fila) {
+            if (filas == ids.length) {
+                crecer();
+            }
+            ids[filas] = fila.id();
+            nombres[filas] = fila.nombre() != null ? normalizar(fila.nombre()) : "";
+            tiempos[filas] = fila.tiempoCoccion() != null ? fila.tiempoCoccion() : SIN_VALOR;
+            porciones[filas] = fila.porciones() != null ? fila.porciones() : SIN_VALOR;
+            visualizaciones[filas] = fila.visualizaciones() != null ? fila.visualizaciones() : 0;
+            tipos[filas] = (short) tiposCodigos.codigo(fila.tipoCocina());
+            paises[filas] = (short) paisesCodigos.codigo(fila.paisOrigen());
+            dificultades[filas] = (byte) dificultadesCodigos.codigo(fila.dificultad());
+            filas++;
+            return this;
+        }
+
+        public CatalogoColumnar construir() {
+            return new CatalogoColumnar(this);
+        }
+
+        private void crecer() {
+            int capacidad = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacidad);
+            nombres = Arrays.copyOf(nombres, capacidad);
+            tiempos = Arrays.copyOf(tiempos, capacidad);
+            porciones = Arrays.copyOf(porciones, capacidad);
+            visualizaciones = Arrays.copyOf(visualizaciones, capacidad);
+            tipos = Arrays.copyOf(tipos, capacidad);
+            paises = Arrays.copyOf(paises, capacidad);
+            dificultades = Arrays.copyOf(dificultades, capacidad);
+        }
+    }
+
+    /**
+     * Diccionario valor → código; el código 0 es null.
+     */
+    private static final class Diccionario {
+
+        private final int maximo;
+
+        private final Map<String, Integer> codigos = new HashMap<>();
+
+        private String[] valores = new String[8];
+
+        private int tamano = 1;
+
+        Diccionario(int maximo) {
+            this.maximo = maximo;
+        }
+
+        int codigo(String valor) {
+            if (valor == null) {
+                return 0;
+            }
+            Integer codigo = codigos.get(valor);
+            if (codigo != null) {
+                return codigo;
+            }
+            if (tamano > maximo) {
+                throw new IllegalStateException("Demasiados valores distintos para el diccionario (máximo "
+                    + maximo + ")");
+            }
+            if (tamano == valores.length) {
+                valores = Arrays.copyOf(valores, valores.length * 2);
+            }
+            valores[tamano] = valor;
+            codigos.put(valor, tamano);
+            return tamano++;
+        }
+
+        String[] valores() {
+            return Arrays.copyOf(valores, tamano);
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package com.duoc.recetas.cache;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de recetas similares por ingredientes (MinHash + LSH).
+ *
+ * - Cada receta se reduce a un conjunto de palabras de sus ingredientes
+ *   (sin cantidades, unidades, tildes ni palabras vacías).
+ * - Su firma MinHash son bandas * filasPorBanda enteros: el mínimo de cada
+ *   función de hash sobre el conjunto. La fracción de posiciones iguales
+ *   entre dos firmas estima la similitud de Jaccard de los conjuntos.
+ * - La firma se divide en bandas; las recetas con una banda idéntica caen
+ *   en la misma cubeta y son candidatas entre sí. Solo se comparan
+ *   candidatos, nunca todas las recetas entre sí.
+ * - Para cada receta se guardan los k candidatos más similares (sobre el
+ *   umbral) en un long[]; similares(id) es una consulta a un mapa.
+ *
+ * Las cubetas muy pobladas (muchas recetas con los mismos ingredientes)
+ * aportan como máximo maxCandidatos candidatos, para acotar el costo.
+ *
+ * Las escrituras (agregar, actualizar, recalcular) deben hacerse desde un
+ * solo hilo a la vez (RecetasSimilaresService las serializa); similares(id)
+ * puede llamarse en paralelo con ellas.
+ */
+public final class IndiceSimilitud {
+
+    private static final long[] VACIO = new long[0];
+
+    private static final long SEMILLA = 0x5EED_C0C1_4A5L;
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z]+");
+
+    /**
+     * Cantidades, unidades y palabras vacías que no distinguen ingredientes.
+     */
+    private static final Set<String> IGNORADAS = Set.of(
+        "del", "las", "los", "con", "sin", "para", "una", "unos", "unas", "gusto",
+        "gramos", "grs", "kilo", "kilos", "litro", "litros", "taza", "tazas",
+        "cucharada", "cucharadas", "cucharadita", "cucharaditas", "pizca", "unidad",
+        "unidades", "diente", "dientes", "trozo", "trozos", "opcional"
+    );
+
+    private final int bandas;
+
+    private final int filasPorBanda;
+
+    private final int k;
+
+    private final double umbral;
+
+    private final int maxCandidatos;
+
+    private final long[] multiplicadores;
+
+    private final long[] sumandos;
+
+    private final Map<Long, int[]> firmas = new HashMap<>();
+
+    private final Map<Long, Cubeta> cubetas = new HashMap<>();
+
+    private final Map<Long, long[]> similares = new ConcurrentHashMap<>();
+
+    /**
+     * @param bandas Bandas de la firma
+     * @param filasPorBanda Posiciones de la firma por banda
+     * @param k Recetas similares a guardar por receta
+     * @param umbral Similitud mínima estimada (0 a 1)
+     * @param maxCandidatos Candidatos máximos que aporta cada cubeta
+     */
+    public IndiceSimilitud(int bandas, int filasPorBanda, int k, double umbral, int maxCandidatos) {
+        this.bandas = bandas;
+        this.filasPorBanda = filasPorBanda;
+        this.k = k;
+        this.umbral = umbral;
+        this.maxCandidatos = maxCandidatos;
+        // Funciones de hash fijas: la misma receta tiene siempre la misma firma
+        SplittableRandom random = new SplittableRandom(SEMILLA);
+        int funciones = bandas * filasPorBanda;
+        multiplicadores = new long[funciones];
+        sumandos = new long[funciones];
+        for (int i = 0; i < funciones; i++) {
+            multiplicadores[i] = random.nextLong() | 1L;
+            sumandos[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * Palabras que identifican los ingredientes de una receta.
+     *
+     * "- 400g de arroz bomba\n- 1 pollo troceado" produce
+     * {arroz, bomba, pollo, troceado}.
+     *
+     * @param ingredientes Ingredientes (una línea por ingrediente; puede ser null)
+     * @return Conjunto de palabras (vacío si no hay ingredientes)
+     */
+    public static Set<String> tokenizar(String ingredientes) {
+        if (ingredientes == null || ingredientes.isBlank()) {
+            return Set.of();
+        }
+        String normalizado = MARCAS.matcher(Normalizer.normalize(ingredientes, Normalizer.Form.NFD))
+            .replaceAll("")
+            .toLowerCase(Locale.ROOT);
+        Set<String> palabras = new HashSet<>();
+        for (String palabra : SEPARADORES.split(normalizado)) {
+            if (palabra.length() >= 3 && !IGNORADAS.contains(palabra)) {
+                palabras.add(palabra);
+            }
+        }
+        return palabras;
+    }
+
+    /**
+     * Agrega o reemplaza una receta sin recalcular recomendaciones; se usa al
+     * construir el índice completo, antes de recalcularTodas().
+     *
+     * @param id ID de la receta
+     * @param ingredientes Ingredientes de la receta
+     */
+    public void agregar(long id, String ingredientes) {
+        int[] firma = firma(tokenizar(ingredientes));
+        quitarDeCubetas(id, firmas.remove(id));
+        if (firma != null) {
+            firmas.put(id, firma);
+            agregarACubetas(id, firma);
+        }
+    }
+
+    /**
+     * Calcula las recomendaciones de todas las recetas del índice.
+     */
+    public void recalcularTodas() {
+        for (Long id : firmas.keySet()) {
+            recalcular(id);
+        }
+    }
+
+    /**
+     * Actualiza una receta modificada y recalcula sus recomendaciones y las
+     * de las recetas que comparten cubeta con su firma anterior o nueva (las
+     * únicas que pueden tenerla entre sus similares).
+     *
+     * @param id ID de la receta
+     * @param ingredientes Ingredientes nuevos (null o vacío si la receta ya no existe)
+     * @return Recetas recalculadas (0 si los ingredientes no cambiaron)
+     */
+    public int actualizar(long id, String ingredientes) {
+        int[] anterior = firmas.get(id);
+        int[] nueva = firma(tokenizar(ingredientes));
+        if (Arrays.equals(anterior, nueva)) {
+            return 0;
+        }
+        long[] afectadas = VACIO;
+        if (anterior != null) {
+            afectadas = candidatos(id, anterior);
+            firmas.remove(id);
+            quitarDeCubetas(id, anterior);
+        }
+        if (nueva != null) {
+            firmas.put(id, nueva);
+            agregarACubetas(id, nueva);
+            afectadas = unir(afectadas, candidatos(id, nueva));
+        }
+        recalcular(id);
+        for (long afectada : afectadas) {
+            recalcular(afectada);
+        }
+        return afectadas.length + 1;
+    }
+
+    /**
+     * Recetas similares precalculadas.
+     *
+     * @param id ID de la receta
+     * @return IDs de hasta k recetas, de la más a la menos similar (vacío si no hay)
+     */
+    public long[] similares(long id) {
+        return similares.getOrDefault(id, VACIO);
+    }
+
+    /**
+     * @return Recetas con firma en el índice
+     */
+    public int getRecetas() {
+        return firmas.size();
+    }
+
+    /**
+     * @return Recetas con al menos una receta similar
+     */
+    public int getConSimilares() {
+        return similares.size();
+    }
+
+    private void recalcular(long id) {
+        int[] firma = firmas.get(id);
+        if (firma == null) {
+            similares.remove(id);
+            return;
+        }
+        long[] mejores = new long[k];
+        int[] coincidencias = new int[k];
+        int encontradas = 0;
+        int minimo = (int) Math.ceil(umbral * firma.length);
+        for (long candidato : candidatos(id, firma)) {
+            int iguales = iguales(firma, firmas.get(candidato));
+            if (iguales < minimo || (encontradas == k && iguales <= coincidencias[k - 1])) {
+                continue;
+            }
+            // Inserción ordenada (más coincidencias primero; a igualdad, menor ID)
+            int pos = Math.min(encontradas, k - 1);
+            while (pos > 0 && coincidencias[pos - 1] < iguales) {
+                mejores[pos] = mejores[pos - 1];
+                coincidencias[pos] = coincidencias[pos - 1];
+                pos--;
+            }
+            mejores[pos] = candidato;
+            coincidencias[pos] = iguales;
+            encontradas = Math.min(encontradas + 1, k);
+        }
+        if (encontradas == 0) {
+            similares.remove(id);
+        } else {
+            similares.put(id, Arrays.copyOf(mejores, encontradas));
+        }
+    }
+
+    /**
+     * Candidatos de una firma: IDs que comparten alguna cubeta, sin
+     * repetidos, ordenados y sin la propia receta.
+     */
+    private long[] candidatos(long id, int[] firma) {
+        long[] ids = new long[16];
+        int total = 0;
+        for (int banda = 0; banda < bandas; banda++) {
+            Cubeta cubeta = cubetas.get(clave(firma, banda));
+            if (cubeta == null) {
+                continue;
+            }
+            int limite = Math.min(cubeta.tamano, maxCandidatos);
+            if (total + limite > ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(ids.length * 2, total + limite));
+            }
+            for (int i = 0; i < limite; i++) {
+                if (cubeta.ids[i] != id) {
+                    ids[total++] = cubeta.ids[i];
+                }
+            }
+        }
+        Arrays.sort(ids, 0, total);
+        int unicos = 0;
+        for (int i = 0; i < total; i++) {
+            if (unicos == 0 || ids[unicos - 1] != ids[i]) {
+                ids[unicos++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(ids, unicos);
+    }
+
+    private int[] firma(Set<String> palabras) {
+        if (palabras.isEmpty()) {
+            return null;
+        }
+        int[] firma = new int[multiplicadores.length];
+        Arrays.fill(firma, Integer.MAX_VALUE);
+        for (String palabra : palabras) {
+            long h = mezclar(palabra.hashCode() ^ SEMILLA);
+            for (int i = 0; i < firma.length; i++) {
+                // Hash multiplicativo: los 32 bits altos de a*x + b
+                int valor = (int) ((multiplicadores[i] * h + sumandos[i]) >>> 32);
+                if (valor < firma[i]) {
+                    firma[i] = valor;
+                }
+            }
+        }
+        return firma;
+    }
+
+    private void agregarACubetas(long id, int[] firma) {
+        for (int banda = 0; banda < bandas; banda++) {
+            cubetas.computeIfAbsent(clave(firma, banda), c -> new Cubeta()).agregar(id);
+        }
+    }
+
+    private void quitarDeCubetas(long id, int[] firma) {
+        if (firma == null) {
+            return;
+        }
+        for (int banda = 0; banda < bandas; banda++) {
+            Long clave = clave(firma, banda);
+            Cubeta cubeta = cubetas.get(clave);
+            if (cubeta != null && cubeta.quitar(id) && cubeta.tamano == 0) {
+                cubetas.remove(clave);
+            }
+        }
+    }
+
+    /**
+     * Clave de cubeta: número de banda en los 32 bits altos y hash de sus
+     * posiciones en los bajos.
+     */
+    private long clave(int[] firma, int banda) {
+        int h = 1;
+        int desde = banda * filasPorBanda;
+        for (int i = desde; i < desde + filasPorBanda; i++) {
+            h = 31 * h + firma[i];
+        }
+        return ((long) banda << 32) | (h & 0xFFFF_FFFFL);
+    }
+
+    private static int iguales(int[] a, int[] b) {
+        int iguales = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                iguales++;
+            }
+        }
+        return iguales;
+    }
+
+    private static long[] unir(long[] a, long[] b) {
+        long[] todos = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, todos, a.length, b.length);
+        return Arrays.stream(todos).sorted().distinct().toArray();
+    }
+
+    /**
+     * Finalizador de MurmurHash3 (fmix64): reparte los bits del hash de la palabra.
+     */
+    private static long mezclar(long x) {
+        x ^= x >>> 33;
+        x *= 0xFF51_AFD7_ED55_8CCDL;
+        x ^= x >>> 33;
+        x *= 0xC4CE_B9FE_1A85_EC53L;
+        x ^= x >>> 33;
+        return x;
+    }
+
+    /**
+     * IDs de una cubeta en un arreglo que crece según se necesite.
+     */
+    private static final class Cubeta {
+
+        private long[] ids = new long[2];
+
+        private int tamano;
+
+        void agregar(long id) {
+            if (tamano == ids.length) {
+                ids = Arrays.copyOf(ids, tamano * 2);
+            }
+            ids[tamano++] = id;
+        }
+
+        boolean quitar(long id) {
+            for (int i = 0; i < tamano; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--tamano];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.duoc.recetas.cache;
+
+import com.duoc.recetas.model.Rol;
+import com.duoc.recetas.model.Usuario;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Invalida UsuarioSeguridadCache cuando cambian los datos de seguridad de
+ * un usuario a través de JPA.
+ *
+ * Se registra como listener de eventos de Hibernate (no como
+ * EntityListener de Usuario) porque los cambios de roles son cambios de la
+ * colección usuarios_roles, que no disparan @PostUpdate sobre el usuario:
+ *
+ * - Usuario actualizado o eliminado: se invalidan sus entradas.
+ * - Roles de un usuario agregados, quitados o reemplazados: ídem.
+ * - Rol actualizado o eliminado: se vacía la caché.
+ *
+ * Los eventos ocurren al hacer flush, antes del commit: se invalida en ese
+ * momento y otra vez tras el commit, para descartar lo que otro hilo haya
+ * leído de la base de datos mientras la transacción seguía abierta.
+ */
+@Component
+public class InvalidacionUsuariosListener implements PostUpdateEventListener, PostDeleteEventListener,
+        PostCollectionUpdateEventListener, PostCollectionRecreateEventListener,
+        PostCollectionRemoveEventListener {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UsuarioSeguridadCache usuarioSeguridadCache;
+
+    @PostConstruct
+    void registrar() {
+        EventListenerRegistry registro = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(EventListenerRegistry.class);
+        registro.appendListeners(EventType.POST_UPDATE, this);
+        registro.appendListeners(EventType.POST_DELETE, this);
+        registro.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registro.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registro.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        entidadModificada(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        entidadModificada(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        coleccionModificada(event);
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        coleccionModificada(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        coleccionModificada(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void entidadModificada(Object entidad) {
+        if (entidad instanceof Usuario usuario && usuario.getId() != null) {
+            invalidar(() -> usuarioSeguridadCache.invalidarUsuario(usuario.getId()));
+        } else if (entidad instanceof Rol) {
+            invalidar(usuarioSeguridadCache::limpiar);
+        }
+    }
+
+    private void coleccionModificada(AbstractCollectionEvent event) {
+        if (event.getAffectedOwnerOrNull() instanceof Usuario usuario && usuario.getId() != null) {
+            invalidar(() -> usuarioSeguridadCache.invalidarUsuario(usuario.getId()));
+        }
+    }
+
+    /**
+     * Invalida ahora y, si hay una transacción en curso, de nuevo tras el
+     * commit.
+     */
+    private static void invalidar(Runnable invalidacion) {
+        invalidacion.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidacion.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.duoc.recetas.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Último resultado correcto de cada lectura de RecetaService.
+ *
+ * Lo usa LecturaResilienteAspect para responder con datos obsoletos cuando
+ * la base de datos está lenta o caída (circuito abierto, timeout o error).
+ * Cada lectura exitosa reemplaza la entrada de su clave.
+ *
+ * - Tamaño acotado por número de entradas (LRU) y filas por entrada: de los
+ *   listados grandes (todas las recetas, búsquedas sin criterios) se guardan
+ *   solo las primeras max-filas, de modo que esas páginas también tienen
+ *   una respuesta obsoleta (acotada) en lugar de un 503.
+ * - Las entradas más antiguas que max-edad no se sirven.
+ */
+@Component
+public class RespaldoLecturasCache {
+
+    /**
+     * Resultado guardado y el instante en que se leyó.
+     *
+     * @param valor Resultado de la lectura
+     * @param leidoEn Instante de la lectura (System.nanoTime)
+     */
+    public record Entrada(Object valor, long leidoEn) {
+
+        public Duration edad() {
+            return Duration.ofNanos(System.nanoTime() - leidoEn);
+        }
+    }
+
+    private final int maxEntradas;
+
+    private final int maxFilas;
+
+    private final Duration maxEdad;
+
+    private final Map<String, Entrada> entradas;
+
+    public RespaldoLecturasCache(
+            @Value("${recetas.resiliencia.respaldo.max-entradas:256}") int maxEntradas,
+            @Value("${recetas.resiliencia.respaldo.max-filas:500}") int maxFilas,
+            @Value("${recetas.resiliencia.respaldo.max-edad:1h}") Duration maxEdad) {
+        this.maxEntradas = maxEntradas;
+        this.maxFilas = maxFilas;
+        this.maxEdad = maxEdad;
+        // LinkedHashMap en orden de acceso = LRU
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> eldest) {
+                return size() > RespaldoLecturasCache.this.maxEntradas;
+            }
+        };
+    }
+
+    /**
+     * Guarda el resultado de una lectura exitosa. Las colecciones se copian
+     * (inmutables), recortadas a las primeras max-filas.
+     *
+     * @param clave Clave de la lectura (método + argumentos)
+     * @param valor Resultado
+     */
+    public void guardar(String clave, Object valor) {
+        Object copia = valor;
+        if (valor instanceof Collection<?> coleccion) {
+            copia = coleccion.size() > maxFilas
+                ? coleccion.stream().limit(maxFilas).toList()
+                : List.copyOf(coleccion);
+        }
+        synchronized (entradas) {
+            entradas.put(clave, new Entrada(copia, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Obtiene el último resultado de una lectura si no es más antiguo que max-edad.
+     *
+     * @param clave Clave de la lectura
+     * @return Optional con la entrada
+     */
+    public Optional<Entrada> obtener(String clave) {
+        Entrada entrada;
+        synchronized (entradas) {
+            entrada = entradas.get(clave);
+        }
+        if (entrada == null || entrada.edad().compareTo(maxEdad) > 0) {
+            return Optional.empty();
+        }
+        return Optional.of(entrada);
+    }
+
+    public int getMaxFilas() {
+        return maxFilas;
+    }
+
+    public int getTamano() {
+        synchronized (entradas) {
+            return entradas.size();
+        }
+    }
+
+    /**
+     * Vacía la caché completa.
+     */
+    public void limpiar() {
+        synchronized (entradas) {
+            entradas.clear();
+        }
+    }
+}
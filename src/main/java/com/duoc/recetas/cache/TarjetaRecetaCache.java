@@ -0,0 +1,253 @@
+package com.duoc.recetas.cache;
+
+import com.duoc.recetas.dto.TarjetaReceta;
+import com.duoc.recetas.model.Receta;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché de fragmentos HTML para las tarjetas de receta.
+ * 
+ * Las vistas de listado (index, buscar, lista) muestran la misma tarjeta
+ * para cada receta en cada petición. Este componente renderiza la tarjeta
+ * una sola vez por (variante, receta, versión, autenticado) y guarda el
+ * HTML resultante, de modo que renderizar un listado se reduce a concatenar
+ * fragmentos ya generados.
+ * 
+ * - La versión es ultima_modificacion: si la receta cambia, la clave cambia.
+ * - El tamaño está acotado y se expulsa la entrada menos usada (LRU). Con
+ *   max-entradas=0 el límite sigue al catálogo (recetas x 2 variantes x 2
+ *   estados de autenticación, ver ajustarCapacidad), hasta limite-entradas:
+ *   un listado que recorre el catálogo completo no expulsa sus propias
+ *   tarjetas.
+ * - RecetaService invalida las entradas de una receta al guardarla.
+ * 
+ * Uso desde Thymeleaf:
+ * <pre>
+ * th:utext="${@tarjetaRecetaCache.renderizar('busqueda', receta, #authorization.expression('isAuthenticated()'))}"
+ * </pre>
+ */
+@Component
+public class TarjetaRecetaCache {
+
+    private static final String PLANTILLA = "fragments/tarjeta-receta";
+
+    /**
+     * Tarjetas por receta: variantes (inicio, busqueda) x autenticado o no.
+     */
+    private static final int TARJETAS_POR_RECETA = 4;
+
+    /**
+     * Capacidad mientras no se conoce el tamaño del catálogo.
+     */
+    private static final int CAPACIDAD_INICIAL = 1000;
+
+    @Autowired
+    private ITemplateEngine templateEngine;
+
+    /**
+     * Límite fijo (0 = según el catálogo).
+     */
+    private final int maxEntradasFijo;
+
+    private final int limiteEntradas;
+
+    private volatile int maxEntradas;
+
+    private final Map<String, String> fragmentos;
+
+    private final LongAdder aciertos = new LongAdder();
+
+    private final LongAdder fallos = new LongAdder();
+
+    /**
+     * Aplicación web de Thymeleaf, creada con la primera petición.
+     */
+    private volatile JakartaServletWebApplication aplicacion;
+
+    public TarjetaRecetaCache(@Value("${recetas.cache.tarjetas.max-entradas:0}") int maxEntradas,
+                              @Value("${recetas.cache.tarjetas.limite-entradas:100000}") int limiteEntradas) {
+        this.maxEntradasFijo = maxEntradas;
+        this.limiteEntradas = limiteEntradas;
+        this.maxEntradas = maxEntradas > 0 ? maxEntradas : Math.min(CAPACIDAD_INICIAL, limiteEntradas);
+        // LinkedHashMap en orden de acceso = LRU
+        this.fragmentos = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > TarjetaRecetaCache.this.maxEntradas;
+            }
+        };
+    }
+
+    /**
+     * Devuelve el HTML de la tarjeta de una receta, renderizándolo solo si
+     * no está en caché.
+     * 
+     * @param variante Variante de la tarjeta: "inicio" o "busqueda"
+     * @param receta Receta a mostrar
+     * @param autenticado Si el usuario actual está autenticado
+     * @return HTML de la tarjeta
+     */
+    public String renderizar(String variante, Receta receta, boolean autenticado) {
+        return renderizar(variante, TarjetaReceta.de(receta), autenticado);
+    }
+
+    /**
+     * Devuelve el HTML de la tarjeta de una receta leída como proyección
+     * (sin cargar la entidad), renderizándolo solo si no está en caché.
+     * 
+     * @param variante Variante de la tarjeta: "inicio" o "busqueda"
+     * @param receta Columnas de la tarjeta
+     * @param autenticado Si el usuario actual está autenticado
+     * @return HTML de la tarjeta
+     */
+    public String renderizar(String variante, TarjetaReceta receta, boolean autenticado) {
+        String clave = clave(variante, receta, autenticado);
+
+        String html;
+        synchronized (fragmentos) {
+            html = fragmentos.get(clave);
+        }
+        if (html != null) {
+            aciertos.increment();
+            return html;
+        }
+
+        // Renderizar fuera del bloqueo: dos hilos pueden renderizar la misma
+        // tarjeta a la vez, pero el resultado es idéntico
+        fallos.increment();
+        html = templateEngine.process(PLANTILLA, Set.of("tarjeta-" + variante),
+                crearContexto(receta, autenticado));
+
+        synchronized (fragmentos) {
+            fragmentos.put(clave, html);
+        }
+        return html;
+    }
+
+    /**
+     * Ajusta la capacidad al tamaño del catálogo (solo con max-entradas=0).
+     * Si la capacidad baja, las entradas sobrantes se expulsan con las
+     * siguientes inserciones.
+     * 
+     * @param recetas Recetas del catálogo
+     */
+    public void ajustarCapacidad(int recetas) {
+        if (maxEntradasFijo <= 0) {
+            maxEntradas = (int) Math.min(limiteEntradas, Math.max(CAPACIDAD_INICIAL,
+                    (long) recetas * TARJETAS_POR_RECETA));
+        }
+    }
+
+    /**
+     * Elimina todas las tarjetas en caché de una receta.
+     * 
+     * @param recetaId ID de la receta modificada
+     */
+    public void invalidar(Long recetaId) {
+        String marca = "|" + recetaId + "|";
+        synchronized (fragmentos) {
+            fragmentos.keySet().removeIf(clave -> clave.contains(marca));
+        }
+    }
+
+    /**
+     * Vacía la caché completa.
+     */
+    public void limpiar() {
+        synchronized (fragmentos) {
+            fragmentos.clear();
+        }
+    }
+
+    public int getMaxEntradas() {
+        return maxEntradas;
+    }
+
+    public int getTamano() {
+        synchronized (fragmentos) {
+            return fragmentos.size();
+        }
+    }
+
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    private String clave(String variante, TarjetaReceta receta, boolean autenticado) {
+        LocalDateTime version = receta.version();
+        long millis = version != null ? version.toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+        return variante + "|" + receta.id() + "|" + millis + "|" + (autenticado ? "a" : "p");
+    }
+
+    /**
+     * Crea el contexto de Thymeleaf. Si hay una petición web en curso se usa
+     * un WebContext para que las expresiones @{...} incluyan el context path.
+     * 
+     * La tarjeta se comparte entre todos los usuarios: la respuesta se envuelve
+     * en RespuestaSinSesion para que los enlaces no lleven el ;jsessionid= de
+     * quien la renderizó primero.
+     */
+    private IContext crearContexto(TarjetaReceta receta, boolean autenticado) {
+        Map<String, Object> variables = Map.of("receta", receta, "autenticado", autenticado);
+
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attrs
+                && attrs.getResponse() != null) {
+            HttpServletRequest request = attrs.getRequest();
+            HttpServletResponse response = attrs.getResponse();
+            JakartaServletWebApplication aplicacion = this.aplicacion;
+            if (aplicacion == null) {
+                // Hay un único ServletContext: basta con crearla una vez
+                aplicacion = JakartaServletWebApplication.buildApplication(request.getServletContext());
+                this.aplicacion = aplicacion;
+            }
+            return new WebContext(aplicacion.buildExchange(request, new RespuestaSinSesion(response)),
+                    LocaleContextHolder.getLocale(), variables);
+        }
+        return new Context(LocaleContextHolder.getLocale(), variables);
+    }
+
+    /**
+     * Respuesta que no codifica la sesión en las URLs (encodeURL las deja
+     * igual), para renderizar HTML independiente de la petición.
+     */
+    private static final class RespuestaSinSesion extends HttpServletResponseWrapper {
+
+        RespuestaSinSesion(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public String encodeURL(String url) {
+            return url;
+        }
+
+        @Override
+        public String encodeRedirectURL(String url) {
+            return url;
+        }
+    }
+}
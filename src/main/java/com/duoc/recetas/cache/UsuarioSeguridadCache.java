@@ -0,0 +1,194 @@
+package com.duoc.recetas.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché de los datos de seguridad de los usuarios (hash de la contraseña,
+ * habilitado y autoridades), por nombre de usuario.
+ *
+ * Evita leer el usuario y sus roles en cada autenticación
+ * (UserDetailsServiceImpl):
+ *
+ * - El tamaño está acotado y se expulsa la entrada menos usada (LRU).
+ * - Cada entrada vence a los recetas.seguridad.cache.ttl, de modo que los
+ *   cambios hechos fuera de JPA (SQL directo) se ven como máximo con ese
+ *   retraso.
+ * - InvalidacionUsuariosListener elimina las entradas cuando cambia un
+ *   usuario (contraseña, habilitado, nombre), sus roles o un rol.
+ *
+ * Se guardan datos inmutables, no el UserDetails: Spring Security borra la
+ * contraseña del principal tras autenticar, así que cada carga arma un
+ * UserDetails nuevo a partir de la entrada.
+ *
+ * CARRERAS: quien carga desde la base de datos lee getGeneracion() antes de
+ * la consulta y la pasa a guardar(); si hubo una invalidación entretanto la
+ * entrada no se guarda, para no dejar en caché datos leídos antes del cambio.
+ */
+@Component
+public class UsuarioSeguridadCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${recetas.seguridad.cache.habilitado:true}")
+    private boolean habilitado;
+
+    private final long ttlMilis;
+
+    private final int maxEntradas;
+
+    private final Map<String, Vigente> entradas;
+
+    private final AtomicLong generacion = new AtomicLong();
+
+    private Counter aciertos;
+
+    private Counter fallos;
+
+    private Counter invalidaciones;
+
+    public UsuarioSeguridadCache(@Value("${recetas.seguridad.cache.max-entradas:1000}") int maxEntradas,
+                                 @Value("${recetas.seguridad.cache.ttl:5m}") Duration ttl) {
+        this.maxEntradas = maxEntradas;
+        this.ttlMilis = ttl.toMillis();
+        // LinkedHashMap en orden de acceso = LRU
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Vigente> eldest) {
+                return size() > UsuarioSeguridadCache.this.maxEntradas;
+            }
+        };
+    }
+
+    @PostConstruct
+    void inicializar() {
+        aciertos = Counter.builder("recetas.seguridad.cache")
+            .description("Búsquedas en la caché de datos de seguridad de usuarios")
+            .tag("resultado", "acierto")
+            .register(meterRegistry);
+        fallos = Counter.builder("recetas.seguridad.cache")
+            .description("Búsquedas en la caché de datos de seguridad de usuarios")
+            .tag("resultado", "fallo")
+            .register(meterRegistry);
+        invalidaciones = Counter.builder("recetas.seguridad.cache.invalidaciones")
+            .description("Invalidaciones de la caché de datos de seguridad de usuarios")
+            .register(meterRegistry);
+        Gauge.builder("recetas.seguridad.cache.tamano", this, UsuarioSeguridadCache::getTamano)
+            .description("Usuarios en la caché de datos de seguridad")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Datos de seguridad de un usuario.
+     *
+     * @param usuarioId ID del usuario (para invalidar aunque cambie el nombre)
+     * @param username Nombre de usuario tal como está guardado
+     * @param password Hash de la contraseña
+     * @param habilitado Si el usuario está habilitado
+     * @param autoridades Roles del usuario
+     */
+    public record Entrada(Long usuarioId, String username, String password, boolean habilitado,
+                          Set<GrantedAuthority> autoridades) {
+
+        public Entrada {
+            autoridades = Set.copyOf(autoridades);
+        }
+    }
+
+    private record Vigente(Entrada entrada, long venceEn) {
+    }
+
+    /**
+     * Busca los datos vigentes de un usuario.
+     *
+     * @param username Nombre de usuario
+     * @return Datos del usuario, o null si no están en caché o vencieron
+     */
+    public Entrada obtener(String username) {
+        if (!habilitado) {
+            return null;
+        }
+        Vigente vigente;
+        synchronized (entradas) {
+            vigente = entradas.get(username);
+            if (vigente != null && vigente.venceEn() <= System.currentTimeMillis()) {
+                entradas.remove(username);
+                vigente = null;
+            }
+        }
+        if (vigente == null) {
+            fallos.increment();
+            return null;
+        }
+        aciertos.increment();
+        return vigente.entrada();
+    }
+
+    /**
+     * Guarda los datos de un usuario recién leídos de la base de datos.
+     *
+     * @param username Nombre de usuario
+     * @param entrada Datos del usuario
+     * @param generacionLeida Generación leída antes de la consulta
+     */
+    public void guardar(String username, Entrada entrada, long generacionLeida) {
+        if (!habilitado) {
+            return;
+        }
+        synchronized (entradas) {
+            if (generacion.get() == generacionLeida) {
+                entradas.put(username, new Vigente(entrada, System.currentTimeMillis() + ttlMilis));
+            }
+        }
+    }
+
+    /**
+     * Elimina las entradas de un usuario.
+     *
+     * @param usuarioId ID del usuario modificado
+     */
+    public void invalidarUsuario(Long usuarioId) {
+        synchronized (entradas) {
+            generacion.incrementAndGet();
+            entradas.values().removeIf(vigente -> vigente.entrada().usuarioId().equals(usuarioId));
+        }
+        invalidaciones.increment();
+    }
+
+    /**
+     * Vacía la caché completa (por ejemplo, si cambia un rol).
+     */
+    public void limpiar() {
+        synchronized (entradas) {
+            generacion.incrementAndGet();
+            entradas.clear();
+        }
+        invalidaciones.increment();
+    }
+
+    /**
+     * @return Generación actual; cambia con cada invalidación
+     */
+    public long getGeneracion() {
+        return generacion.get();
+    }
+
+    public int getTamano() {
+        synchronized (entradas) {
+            return entradas.size();
+        }
+    }
+}
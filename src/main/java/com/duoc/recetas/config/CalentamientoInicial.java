@@ -0,0 +1,316 @@
+package com.duoc.recetas.config;
+
+import com.duoc.recetas.model.Receta;
+import com.duoc.recetas.service.ImagenRecetaService;
+import com.duoc.recetas.service.RecetaService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Calentamiento de la aplicación antes de recibir tráfico.
+ *
+ * Al terminar el arranque (ApplicationReadyEvent), en segundo plano:
+ * 1. Abre el pool de Hikari hasta su tamaño mínimo.
+ * 2. Precarga los feeds (populares/recientes), las recetas más vistas y las
+ *    miniaturas de la página de inicio.
+ * 3. Repite varias veces un conjunto representativo de peticiones (inicio,
+ *    login y búsquedas con criterios tomados de los datos) contra el propio
+ *    servidor, para compilar el código caliente (JIT) y llenar la caché de
+ *    tarjetas.
+ *
+ * Mientras tanto este HealthIndicator ("calentamiento", incluido en el grupo
+ * readiness) responde OUT_OF_SERVICE, así /actuator/health/readiness solo
+ * queda UP cuando el calentamiento termina o agota su tiempo máximo.
+ */
+@Component("calentamiento")
+public class CalentamientoInicial implements HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(CalentamientoInicial.class);
+
+    /**
+     * Estados del calentamiento.
+     */
+    enum Estado {
+        PENDIENTE, EN_CURSO, COMPLETADO, TIEMPO_AGOTADO, FALLIDO, DESHABILITADO
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private RecetaService recetaService;
+
+    @Autowired
+    private ImagenRecetaService imagenRecetaService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private AsyncTaskExecutor taskExecutor;
+
+    @Value("${recetas.calentamiento.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${recetas.calentamiento.timeout:60s}")
+    private Duration timeout;
+
+    @Value("${recetas.calentamiento.iteraciones:5}")
+    private int iteraciones;
+
+    @Value("${recetas.calentamiento.recetas:20}")
+    private int recetasPrecargar;
+
+    private volatile Estado estado = Estado.PENDIENTE;
+
+    private volatile long duracionMs;
+
+    private volatile boolean cancelado;
+
+    private final Map<String, Object> cobertura = new LinkedHashMap<>();
+
+    private final AtomicInteger solicitudes = new AtomicInteger();
+
+    private final AtomicInteger errores = new AtomicInteger();
+
+    /**
+     * Lanza el calentamiento en segundo plano al terminar el arranque.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar(ApplicationReadyEvent evento) {
+        if (!habilitado) {
+            estado = Estado.DESHABILITADO;
+            return;
+        }
+        Integer puerto = evento.getApplicationContext() instanceof WebServerApplicationContext web
+            && web.getWebServer() != null ? web.getWebServer().getPort() : null;
+
+        estado = Estado.EN_CURSO;
+        long inicio = System.nanoTime();
+        CompletableFuture.runAsync(() -> calentar(puerto), taskExecutor)
+            .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+            .whenComplete((resultado, error) -> {
+                duracionMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+                if (error == null) {
+                    estado = Estado.COMPLETADO;
+                } else if (error instanceof TimeoutException) {
+                    cancelado = true;
+                    estado = Estado.TIEMPO_AGOTADO;
+                } else {
+                    estado = Estado.FALLIDO;
+                    log.warn("Calentamiento fallido: {}", error.toString());
+                }
+                Timer.builder("recetas.calentamiento")
+                    .description("Duración del calentamiento inicial")
+                    .tag("estado", estado.name().toLowerCase())
+                    .register(meterRegistry)
+                    .record(duracionMs, TimeUnit.MILLISECONDS);
+                log.info("Calentamiento {} en {} ms: {}", estado.name().toLowerCase(), duracionMs, detalles());
+            });
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = switch (estado) {
+            case PENDIENTE, EN_CURSO -> Health.outOfService();
+            default -> Health.up();
+        };
+        return builder.withDetails(detalles()).build();
+    }
+
+    private Map<String, Object> detalles() {
+        Map<String, Object> detalles = new LinkedHashMap<>();
+        detalles.put("estado", estado.name().toLowerCase());
+        if (estado != Estado.EN_CURSO && estado != Estado.PENDIENTE) {
+            detalles.put("duracionMs", duracionMs);
+        }
+        synchronized (cobertura) {
+            detalles.putAll(cobertura);
+        }
+        detalles.put("solicitudes", solicitudes.get());
+        detalles.put("errores", errores.get());
+        return detalles;
+    }
+
+    private void registrar(String clave, Object valor) {
+        synchronized (cobertura) {
+            cobertura.put(clave, valor);
+        }
+    }
+
+    private void calentar(Integer puerto) {
+        abrirConexiones();
+
+        List<Receta> populares = recetaService.obtenerRecetasPopulares();
+        List<Receta> recientes = recetaService.obtenerRecetasRecientes();
+        precargarRecetas(populares, recientes);
+
+        if (puerto != null) {
+            repetirPeticiones(puerto, rutas(populares));
+        }
+    }
+
+    /**
+     * Pide tantas conexiones como el mínimo del pool y las devuelve, para que
+     * las primeras peticiones no paguen el costo de abrirlas.
+     */
+    private void abrirConexiones() {
+        int objetivo = 1;
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                objetivo = Math.max(1, dataSource.unwrap(HikariDataSource.class).getMinimumIdle());
+            }
+        } catch (SQLException e) {
+            log.debug("No se pudo obtener el pool de Hikari: {}", e.getMessage());
+        }
+
+        List<Connection> abiertas = new ArrayList<>();
+        try {
+            while (abiertas.size() < objetivo && !cancelado) {
+                abiertas.add(dataSource.getConnection());
+            }
+        } catch (SQLException e) {
+            errores.incrementAndGet();
+            log.warn("Calentamiento: no se pudieron abrir todas las conexiones: {}", e.getMessage());
+        } finally {
+            registrar("conexiones", abiertas.size());
+            for (Connection conexion : abiertas) {
+                try {
+                    conexion.close();
+                } catch (SQLException e) {
+                    log.debug("Error al devolver conexión: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Lee las recetas más vistas con las mismas consultas que la página de
+     * detalle (obtenerDetalle + versión para el ETag) y genera las
+     * miniaturas de las que aparecen en la página de inicio.
+     */
+    private void precargarRecetas(List<Receta> populares, List<Receta> recientes) {
+        List<Long> masVistas = Stream.concat(populares.stream(), recientes.stream())
+            .sorted(Comparator.comparing(
+                (Receta r) -> r.getVisualizaciones() != null ? r.getVisualizaciones() : 0).reversed())
+            .map(Receta::getId)
+            .distinct()
+            .limit(recetasPrecargar)
+            .toList();
+        for (Long id : masVistas) {
+            if (cancelado) {
+                return;
+            }
+            recetaService.obtenerDetalle(id);
+            recetaService.obtenerVersionReceta(id);
+        }
+        registrar("recetasPrecargadas", masVistas.size());
+
+        int miniaturas = 0;
+        for (Receta receta : Stream.concat(populares.stream().limit(3), recientes.stream().limit(3)).toList()) {
+            if (cancelado) {
+                break;
+            }
+            if (imagenRecetaService.prepararDerivadas(receta.getId()).join()) {
+                miniaturas++;
+            }
+        }
+        registrar("miniaturas", miniaturas);
+    }
+
+    /**
+     * Rutas públicas representativas; los criterios de búsqueda salen de las
+     * recetas populares para que las consultas devuelvan resultados.
+     * 
+     * Cada búsqueda combina varios criterios de la misma receta para que
+     * devuelva pocas filas: /recetas/buscar sin criterios (o con uno solo,
+     * como el tipo de cocina) renderiza gran parte del catálogo y, repetida
+     * en cada iteración, el calentamiento acababa recorriendo la tabla entera
+     * varias veces. Con criterios selectivos se calienta igual la plantilla y
+     * el camino de consulta.
+     */
+    private List<String> rutas(List<Receta> populares) {
+        Set<String> rutas = new LinkedHashSet<>(List.of("/", "/login"));
+        for (Receta receta : populares.stream().limit(5).toList()) {
+            String palabra = receta.getNombre().split("\\s+")[0];
+            rutas.add(UriComponentsBuilder.fromPath("/recetas/buscar")
+                .queryParam("nombre", palabra)
+                .queryParam("tipoCocina", receta.getTipoCocina())
+                .queryParam("dificultad", receta.getDificultad())
+                .encode().toUriString());
+            rutas.add(UriComponentsBuilder.fromPath("/recetas/buscar")
+                .queryParam("nombre", receta.getNombre())
+                .encode().toUriString());
+        }
+        return new ArrayList<>(rutas);
+    }
+
+    private void repetirPeticiones(int puerto, List<String> rutas) {
+        registrar("rutas", rutas.size());
+        HttpClient cliente = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        for (int i = 0; i < iteraciones && !cancelado; i++) {
+            for (String ruta : rutas) {
+                if (cancelado) {
+                    return;
+                }
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta))
+                    .timeout(Duration.ofSeconds(10))
+                    .header("Accept", "text/html")
+                    .GET()
+                    .build();
+                try {
+                    HttpResponse<Void> respuesta = cliente.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (respuesta.statusCode() >= 400) {
+                        errores.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    errores.incrementAndGet();
+                }
+                solicitudes.incrementAndGet();
+            }
+        }
+    }
+}
@@ -1,58 +1,105 @@
 package com.duoc.recetas.config;
 
 import com.duoc.recetas.repository.UsuarioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Inicializador de datos para asegurar que los usuarios tengan contraseñas correctas.
  * 
- * Este componente se ejecuta al iniciar la aplicación y actualiza las contraseñas
- * de los usuarios existentes con hashes BCrypt correctos.
+ * Al iniciar la aplicación verifica que el hash guardado de cada usuario de
+ * prueba corresponda a su contraseña y solo lo regenera (y guarda) si no
+ * coincide o si el hash usa un costo distinto al del PasswordEncoder.
+ * 
+ * BCrypt es costoso por diseño (costo 12, ~250 ms por hash), así que las
+ * verificaciones corren en paralelo en el executor de tareas de Spring y
+ * run() retorna de inmediato: el arranque no espera el hashing. Durante esos
+ * primeros instantes un login de estos usuarios usa el hash anterior.
  */
 @Component
 public class DataInitializer implements CommandLineRunner {
 
+    private static final Logger log = LoggerFactory.getLogger(DataInitializer.class);
+
+    /**
+     * Usuarios de prueba y su contraseña esperada.
+     */
+    private static final Map<String, String> USUARIOS = new LinkedHashMap<>();
+
+    static {
+        USUARIOS.put("admin", "admin123");
+        USUARIOS.put("usuario1", "usuario123");
+        USUARIOS.put("usuario2", "usuario123");
+        USUARIOS.put("chef", "usuario123");
+    }
+
     @Autowired
     private UsuarioRepository usuarioRepository;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private AsyncTaskExecutor taskExecutor;
+
     @Override
-    public void run(String... args) throws Exception {
-        System.out.println("\n========================================");
-        System.out.println("🔒 INICIALIZANDO CONTRASEÑAS DE USUARIOS");
-        System.out.println("========================================\n");
+    public void run(String... args) {
+        long inicio = System.nanoTime();
 
-        // Actualizar contraseña de admin
-        actualizarContraseña("admin", "admin123");
+        List<CompletableFuture<Boolean>> tareas = USUARIOS.entrySet().stream()
+            .map(usuario -> CompletableFuture.supplyAsync(
+                () -> asegurarContraseña(usuario.getKey(), usuario.getValue()), taskExecutor))
+            .toList();
 
-        // Actualizar contraseñas de otros usuarios
-        actualizarContraseña("usuario1", "usuario123");
-        actualizarContraseña("usuario2", "usuario123");
-        actualizarContraseña("chef", "usuario123");
+        CompletableFuture.allOf(tareas.toArray(CompletableFuture[]::new)).whenComplete((resultado, error) -> {
+            long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+            if (error != null) {
+                log.warn("Error al verificar las contraseñas de los usuarios de prueba", error);
+                return;
+            }
+            long actualizados = tareas.stream().filter(CompletableFuture::join).count();
+            log.info("Contraseñas de usuarios de prueba verificadas en {} ms ({} de {} actualizadas)",
+                milisegundos, actualizados, tareas.size());
+        });
 
         System.out.println("\n========================================");
-        System.out.println("✅ USUARIOS LISTOS PARA USAR");
+        System.out.println("✅ USUARIOS DE PRUEBA");
+        System.out.println("========================================");
+        USUARIOS.forEach((username, password) -> System.out.println("  " + username + " / " + password));
         System.out.println("========================================\n");
-        System.out.println("Credenciales:");
-        System.out.println("  admin / admin123");
-        System.out.println("  usuario1 / usuario123");
-        System.out.println("  usuario2 / usuario123");
-        System.out.println("  chef / usuario123");
-        System.out.println("\n========================================\n");
     }
 
-    private void actualizarContraseña(String username, String password) {
-        usuarioRepository.findByUsername(username).ifPresent(usuario -> {
-            String hashedPassword = passwordEncoder.encode(password);
-            usuario.setPassword(hashedPassword);
+    /**
+     * Regenera el hash del usuario solo si el guardado no corresponde.
+     * 
+     * @return true si se actualizó la contraseña
+     */
+    private boolean asegurarContraseña(String username, String password) {
+        return usuarioRepository.findByUsername(username).map(usuario -> {
+            String actual = usuario.getPassword();
+            boolean vigente = actual != null
+                && !passwordEncoder.upgradeEncoding(actual)
+                && passwordEncoder.matches(password, actual);
+            if (vigente) {
+                return false;
+            }
+            usuario.setPassword(passwordEncoder.encode(password));
             usuarioRepository.save(usuario);
-            System.out.println("✅ Usuario '" + username + "' actualizado");
-        });
+            log.info("Contraseña del usuario '{}' actualizada", username);
+            return true;
+        }).orElse(false);
     }
 }
-
@@ -0,0 +1,48 @@
+package com.duoc.recetas.config;
+
+import com.duoc.recetas.metrics.ObservadorSql;
+import com.duoc.recetas.resiliencia.TimeoutConsultas;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Envuelve el DataSource con datasource-proxy para que ObservadorSql vea
+ * cada sentencia SQL con su tiempo de ejecución y sus parámetros, y para
+ * que TimeoutConsultas fije el timeout de las lecturas resilientes.
+ * 
+ * El proxy delega unwrap() al pool original, por lo que las métricas de
+ * Hikari siguen funcionando. El observador se puede desactivar con
+ * recetas.sql.observador.habilitado=false; el proxy se mantiene por el
+ * timeout de consulta.
+ */
+@Configuration
+public class DataSourceProxyConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<ObservadorSql> observador,
+            ObjectProvider<TimeoutConsultas> timeoutConsultas, Environment environment) {
+        boolean observar = environment.getProperty("recetas.sql.observador.habilitado", Boolean.class, true);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(timeoutConsultas.getObject());
+                    if (observar) {
+                        builder.listener(observador.getObject());
+                    }
+                    return builder.build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package com.duoc.recetas.config;
+
+import com.duoc.recetas.metrics.RenderizadoMetricasInterceptor;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuración de métricas (Micrometer).
+ * 
+ * Spring Boot ya registra automáticamente:
+ * - http.server.requests: latencia y conteo por ruta de controlador
+ * - spring.data.repository.invocations: latencia por método de repositorio
+ * - hikaricp.connections.acquire: tiempo de espera por una conexión del pool
+ * 
+ * Esta clase agrega:
+ * - @Timed en servicios (RecetaService, UserDetailsServiceImpl)
+ * - recetas.vista.render: tiempo de renderizado de plantillas Thymeleaf
+ * - recetas.repositorio.filas (RepositorioMetricasAspect): filas por consulta
+ * 
+ * Todo se expone en /actuator/prometheus. Los histogramas se configuran en
+ * application.properties (management.metrics.distribution.*).
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Aspecto que procesa las anotaciones @Timed.
+     * 
+     * @param registry Registro de métricas
+     * @return TimedAspect
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RenderizadoMetricasInterceptor(meterRegistry));
+    }
+}
@@ -2,13 +2,21 @@ package com.duoc.recetas.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.LoginUrlAuthenticationEntryPoint;
+import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
+import org.springframework.security.web.util.matcher.AnyRequestMatcher;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 
 /**
@@ -25,6 +33,49 @@ import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /**
+     * Filtro de seguridad de Actuator (/actuator/**).
+     * 
+     * Además de la sesión del formulario de login (administrador en el
+     * navegador) acepta HTTP Basic, para que Prometheus pueda autenticarse
+     * al leer /actuator/prometheus (basic_auth en el scrape_config) con un
+     * usuario ADMIN. Sin credenciales responde 401 en vez de redirigir al
+     * login, y las peticiones con Basic no crean sesión.
+     * 
+     * @param http Configurador de seguridad HTTP
+     * @return SecurityFilterChain de Actuator
+     * @throws Exception Si hay error en la configuración
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http) throws Exception {
+        BasicAuthenticationEntryPoint entryPoint = new BasicAuthenticationEntryPoint();
+        entryPoint.setRealmName("actuator");
+        http
+            .securityMatcher("/actuator/**")
+            .authorizeHttpRequests(auth -> auth
+                // health público (healthcheck de Docker), el resto solo ADMIN
+                .requestMatchers("/actuator/health/**").permitAll()
+                .anyRequest().hasRole("ADMIN")
+            )
+            .httpBasic(basic -> basic.authenticationEntryPoint(entryPoint))
+            .exceptionHandling(ex -> ex.authenticationEntryPoint(entryPoint))
+            .sessionManagement(session -> session
+                .sessionCreationPolicy(SessionCreationPolicy.NEVER)
+            )
+            .csrf(csrf -> {
+                CookieCsrfTokenRepository tokenRepository = new CookieCsrfTokenRepository();
+                tokenRepository.setCookieCustomizer(cookie -> cookie
+                    .httpOnly(true)
+                    .sameSite("Strict")
+                    .path("/")
+                );
+                csrf.csrfTokenRepository(tokenRepository);
+            });
+
+        return http.build();
+    }
+
     /**
      * Configura el filtro de seguridad para las peticiones HTTP.
      * 
@@ -35,6 +86,7 @@ public class SecurityConfig {
      * @throws Exception Si hay error en la configuración
      */
     @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
             // Configuración de autorización de URLs
@@ -43,12 +95,16 @@ public class SecurityConfig {
                 .requestMatchers("/", "/home", "/index").permitAll()
                 .requestMatchers("/buscar", "/recetas/buscar").permitAll()
                 .requestMatchers("/login", "/error").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/v1/recetas").permitAll()
                 
                 // Recursos estáticos públicos
                 .requestMatchers("/css/**", "/js/**", "/images/**", "/webjars/**").permitAll()
                 
+                // Actuator: ver actuatorFilterChain
+                
                 // URLs PRIVADAS - Requieren autenticación
                 .requestMatchers("/recetas/detalle/**").authenticated()
+                .requestMatchers("/api/v1/recetas/**").authenticated()
                 
                 // Cualquier otra URL requiere autenticación
                 .anyRequest().authenticated()
@@ -65,6 +121,16 @@ public class SecurityConfig {
                 .permitAll()
             )
             
+            // API JSON: sin sesión se responde 401 en vez de redirigir al login;
+            // el resto sigue redirigiendo al login (con cualquier Accept)
+            .exceptionHandling(ex -> ex
+                .defaultAuthenticationEntryPointFor(
+                    new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED),
+                    request -> request.getRequestURI().startsWith(request.getContextPath() + "/api/"))
+                .defaultAuthenticationEntryPointFor(
+                    new LoginUrlAuthenticationEntryPoint("/login"), AnyRequestMatcher.INSTANCE)
+            )
+            
             // Configuración del logout
             .logout(logout -> logout
                 .logoutUrl("/logout")                   // URL para hacer logout
@@ -64,10 +64,19 @@ public class SecurityHeadersFilter implements Filter {
         
         // Cache-Control para páginas sensibles
         String requestURI = ((jakarta.servlet.http.HttpServletRequest) request).getRequestURI();
-        if (requestURI.contains("/login") || requestURI.contains("/recetas/detalle")) {
+        if (requestURI.contains("/login")) {
             httpResponse.setHeader("Cache-Control", "no-store, no-cache, must-revalidate, max-age=0");
             httpResponse.setHeader("Pragma", "no-cache");
             httpResponse.setHeader("Expires", "0");
+        } else if (requestURI.contains("/recetas/detalle")) {
+            // Detalle: caché solo del navegador (private) y siempre revalidada
+            // con ETag / Last-Modified, nunca en proxies compartidos
+            httpResponse.setHeader("Cache-Control", "private, no-cache, must-revalidate");
+            httpResponse.setHeader("Vary", "Cookie");
+        } else if (requestURI.startsWith("/api/")) {
+            // API JSON: igual que el detalle, revalidada con ETag
+            httpResponse.setHeader("Cache-Control", "private, no-cache, must-revalidate");
+            httpResponse.setHeader("Vary", "Cookie");
         }
         
         chain.doFilter(request, response);
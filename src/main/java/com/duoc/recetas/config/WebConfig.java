@@ -0,0 +1,167 @@
+package com.duoc.recetas.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuración de Spring MVC para recursos estáticos versionados.
+ * 
+ * - Los archivos de /css y /js se sirven con el hash de su contenido en el
+ *   nombre (style.css → style-&lt;md5&gt;.css).
+ * - Las plantillas no cambian: ResourceUrlEncodingFilter reescribe
+ *   automáticamente los enlaces @{/css/style.css} al nombre versionado.
+ * - Si el navegador acepta br/gzip, se sirve la variante precomprimida
+ *   generada en el build (ver AssetPipeline).
+ * - Como la URL versionada cambia con el contenido, esa respuesta es
+ *   cacheable por un año con Cache-Control immutable (sin revalidaciones).
+ *   La URL sin hash (enlaces externos, caché de HTML antiguo) se sirve con
+ *   no-cache: el navegador revalida con el ETag/Last-Modified.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registrarVersionado(registry, "/css/**", "classpath:/static/css/");
+        registrarVersionado(registry, "/js/**", "classpath:/static/js/");
+    }
+
+    private void registrarVersionado(ResourceHandlerRegistry registry, String patron, String ubicacion) {
+        registry.addResourceHandler(patron)
+            .addResourceLocations(ubicacion)
+            .setCacheControl(CacheControl.noCache())
+            .resourceChain(true)
+            .addResolver(new EncodedResourceResolver())
+            .addResolver(new VersionadoInmutableResolver().addContentVersionStrategy("/**"));
+    }
+
+    /**
+     * VersionResourceResolver que marca como immutable solo los recursos
+     * pedidos con su versión en la URL. Lo que se encuentra con la ruta tal
+     * cual (sin hash) conserva el Cache-Control del handler.
+     */
+    private static final class VersionadoInmutableResolver extends VersionResourceResolver {
+
+        @Override
+        protected Resource resolveResourceInternal(HttpServletRequest request, String requestPath,
+                List<? extends Resource> locations, ResourceResolverChain chain) {
+            Resource directo = chain.resolveResource(request, requestPath, locations);
+            if (directo != null) {
+                return directo;
+            }
+            Resource versionado = super.resolveResourceInternal(request, requestPath, locations, chain);
+            return versionado != null ? new RecursoInmutable(versionado) : null;
+        }
+    }
+
+    /**
+     * Recurso versionado: delega en el original y agrega Cache-Control
+     * immutable a sus cabeceras (ResourceHttpRequestHandler las aplica
+     * sobre las del handler).
+     */
+    private static final class RecursoInmutable extends AbstractResource implements HttpResource {
+
+        private static final String CACHE_INMUTABLE =
+            CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable().getHeaderValue();
+
+        private final Resource original;
+
+        RecursoInmutable(Resource original) {
+            this.original = original;
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            HttpHeaders headers = original instanceof HttpResource httpResource
+                ? httpResource.getResponseHeaders() : new HttpHeaders();
+            headers.setCacheControl(CACHE_INMUTABLE);
+            return headers;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return original.getInputStream();
+        }
+
+        @Override
+        public boolean exists() {
+            return original.exists();
+        }
+
+        @Override
+        public boolean isReadable() {
+            return original.isReadable();
+        }
+
+        @Override
+        public URL getURL() throws IOException {
+            return original.getURL();
+        }
+
+        @Override
+        public URI getURI() throws IOException {
+            return original.getURI();
+        }
+
+        @Override
+        public File getFile() throws IOException {
+            return original.getFile();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return original.contentLength();
+        }
+
+        @Override
+        public long lastModified() throws IOException {
+            return original.lastModified();
+        }
+
+        @Override
+        public Resource createRelative(String relativePath) throws IOException {
+            return original.createRelative(relativePath);
+        }
+
+        @Override
+        public String getFilename() {
+            return original.getFilename();
+        }
+
+        @Override
+        public String getDescription() {
+            return original.getDescription();
+        }
+    }
+
+    /**
+     * Filtro que reescribe las URLs de recursos estáticos generadas por
+     * Thymeleaf a su versión con hash.
+     * 
+     * @return ResourceUrlEncodingFilter
+     */
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
+    }
+}
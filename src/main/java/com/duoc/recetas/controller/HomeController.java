@@ -2,11 +2,13 @@ package com.duoc.recetas.controller;
 
 import com.duoc.recetas.model.Receta;
 import com.duoc.recetas.service.RecetaService;
+import com.duoc.recetas.service.RecientesService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 
+import java.security.Principal;
 import java.util.List;
 
 /**
@@ -20,16 +22,22 @@ public class HomeController {
     @Autowired
     private RecetaService recetaService;
 
+    @Autowired
+    private RecientesService recientesService;
+
     /**
      * Página de inicio (HOME) - PÚBLICA
      * 
      * Muestra las recetas más recientes y populares, además de banners comerciales.
+     * A los usuarios autenticados les muestra también las recetas que vieron
+     * recientemente (desde memoria, sin consultar la base de datos).
      * 
      * @param model Modelo para pasar datos a la vista
+     * @param principal Usuario autenticado (null si es anónimo)
      * @return Nombre de la vista index.html
      */
     @GetMapping({"/", "/home", "/index"})
-    public String index(Model model) {
+    public String index(Model model, Principal principal) {
         
         // Obtener recetas populares y recientes
         List<Receta> recetasPopulares = recetaService.obtenerRecetasPopulares();
@@ -46,6 +54,8 @@ public class HomeController {
         // Agregar datos al modelo
         model.addAttribute("recetasPopulares", recetasPopulares);
         model.addAttribute("recetasRecientes", recetasRecientes);
+        model.addAttribute("recetasVistas",
+            recientesService.obtenerRecientes(principal != null ? principal.getName() : null));
         model.addAttribute("titulo", "Bienvenido a Recetas Seguras");
         
         return "index";
@@ -0,0 +1,95 @@
+package com.duoc.recetas.controller;
+
+import com.duoc.recetas.service.ImagenRecetaService;
+import com.duoc.recetas.service.ImagenRecetaService.TamanoImagen;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controlador para las imágenes derivadas de las recetas - PÚBLICO
+ * 
+ * Sirve /images/recetas/{id}/{tamano} desde el almacén local
+ * (ImagenRecetaService). Las plantillas incluyen ?v={fotoVersion} en la URL,
+ * por lo que la respuesta se puede cachear un año sin revalidar; con esa
+ * versión la imagen se sirve de disco sin consultar la receta.
+ */
+@Controller
+public class ImagenController {
+
+    /**
+     * Atributos de Tomcat para transferencia de archivos sin copia (sendfile).
+     */
+    private static final String SENDFILE_SOPORTADO = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_ARCHIVO = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIN = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private ImagenRecetaService imagenRecetaService;
+
+    /**
+     * Sirve una imagen derivada de una receta.
+     * 
+     * Si la imagen no se pudo obtener se redirige a la foto original para no
+     * dejar la tarjeta sin imagen.
+     * 
+     * @param id ID de la receta
+     * @param tamano Tamaño (miniatura, mediana)
+     * @param version Versión de la foto (hash de fotoUrl), opcional
+     * @param request Petición HTTP
+     * @param response Respuesta HTTP
+     * @throws IOException Si falla la escritura de la respuesta
+     */
+    @GetMapping("/images/recetas/{id}/{tamano}")
+    public void imagen(@PathVariable Long id, @PathVariable String tamano,
+                       @RequestParam(name = "v", required = false) String version,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        Optional<TamanoImagen> tamanoOpt = TamanoImagen.desdeNombre(tamano);
+        if (tamanoOpt.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        Optional<Path> archivo = imagenRecetaService.obtenerDerivada(id, tamanoOpt.get(), version);
+        if (archivo.isEmpty()) {
+            Optional<String> original = imagenRecetaService.obtenerFotoOriginal(id);
+            if (original.isPresent() && original.get().startsWith("http")) {
+                response.sendRedirect(original.get());
+            } else {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            }
+            return;
+        }
+
+        Path ruta = archivo.get();
+        long tamanoArchivo = Files.size(ruta);
+        response.setContentType(MediaType.IMAGE_JPEG_VALUE);
+        response.setContentLengthLong(tamanoArchivo);
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+            CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable().getHeaderValue());
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SOPORTADO))) {
+            // Tomcat envía el archivo con sendfile (sin copiarlo a la JVM)
+            request.setAttribute(SENDFILE_ARCHIVO, ruta.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_INICIO, 0L);
+            request.setAttribute(SENDFILE_FIN, tamanoArchivo);
+        } else {
+            Files.copy(ruta, response.getOutputStream());
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.duoc.recetas.controller;
+
+import com.duoc.recetas.dto.CampoReceta;
+import com.duoc.recetas.dto.CursorRecetas;
+import com.duoc.recetas.dto.RecetaVersion;
+import com.duoc.recetas.service.RecetaService;
+import com.duoc.recetas.view.RecetaJsonWriter;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * API JSON de solo lectura para clientes móviles (versión 1).
+ *
+ * - GET /api/v1/recetas - PÚBLICA: búsqueda con los mismos criterios que
+ *   /recetas/buscar (nombre, tipoCocina, paisOrigen, dificultad), en orden
+ *   de ID y paginada con un cursor opaco (cursor=, limit=). Ingredientes e
+ *   instrucciones (CampoReceta.PRIVADOS) solo se entregan con sesión: sin
+ *   ella se responde 400, igual que el detalle exige iniciar sesión.
+ * - GET /api/v1/recetas/{id} - PRIVADA: detalle de una receta.
+ *
+ * Con fields= (nombres separados por comas, ver CampoReceta) se eligen los
+ * campos de la respuesta; la consulta selecciona solo esos campos, de modo
+ * que ingredientes e instrucciones no se leen si no se piden. Por defecto la
+ * búsqueda devuelve los campos de una tarjeta y el detalle todos.
+ *
+ * CACHÉ: ambas respuestas llevan ETag y aceptan If-None-Match (304 sin leer
+ * las recetas). En el detalle el ETag sale de ultima_modificacion, como en
+ * la página de detalle; en la búsqueda, de la versión del catálogo (última
+ * modificación, mayor ID y cantidad de recetas, para que también cambie al
+ * eliminar). Igual que en las páginas, las visitas no
+ * cambian el ETag, y la API no cuenta visitas.
+ *
+ * Los errores se responden como {"error": "..."}.
+ */
+@RestController
+@RequestMapping("/api/v1/recetas")
+public class RecetaApiController {
+
+    @Autowired
+    private RecetaService recetaService;
+
+    @Autowired
+    private RecetaJsonWriter recetaJsonWriter;
+
+    private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+
+    @Value("${recetas.api.limite:20}")
+    private int limitePorDefecto;
+
+    @Value("${recetas.api.limite-maximo:100}")
+    private int limiteMaximo;
+
+    /**
+     * Búsqueda paginada de recetas.
+     *
+     * @param nombre Nombre de la receta (opcional)
+     * @param tipoCocina Tipo de cocina (opcional)
+     * @param paisOrigen País de origen (opcional)
+     * @param dificultad Dificultad (opcional)
+     * @param fields Campos de la respuesta (opcional)
+     * @param cursor Cursor "next" de la página anterior (opcional)
+     * @param limit Recetas por página (opcional)
+     * @param webRequest Petición actual (para validar If-None-Match)
+     * @param response Respuesta HTTP
+     * @throws IOException Si falla la escritura de la respuesta
+     */
+    @GetMapping
+    public void buscar(
+            @RequestParam(required = false) String nombre,
+            @RequestParam(required = false) String tipoCocina,
+            @RequestParam(required = false) String paisOrigen,
+            @RequestParam(required = false) String dificultad,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest,
+            HttpServletResponse response) throws IOException {
+
+        String nombreBuscado = vacioANull(nombre);
+        String tipoBuscado = vacioANull(tipoCocina);
+        String paisBuscado = vacioANull(paisOrigen);
+        String dificultadBuscada = vacioANull(dificultad);
+
+        EnumSet<CampoReceta> campos = parsearCampos(fields, CampoReceta.BUSQUEDA);
+        if (!Collections.disjoint(campos, CampoReceta.PRIVADOS) && !trustResolver.isAuthenticated(
+                SecurityContextHolder.getContext().getAuthentication())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "ingredientes e instrucciones requieren iniciar sesión");
+        }
+        int limite = limit != null ? limit : limitePorDefecto;
+        if (limite < 1 || limite > limiteMaximo) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "limit debe estar entre 1 y " + limiteMaximo);
+        }
+        int consulta = Objects.hash(minusculas(nombreBuscado), minusculas(tipoBuscado),
+                minusculas(paisBuscado), minusculas(dificultadBuscada));
+        long desdeId = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            CursorRecetas anterior;
+            try {
+                anterior = CursorRecetas.decodificar(cursor.trim());
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+            if (anterior.consulta() != consulta) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "El cursor no corresponde a esta búsqueda");
+            }
+            desdeId = anterior.ultimoId();
+        }
+
+        // Validación condicional con la versión del catálogo
+        Object[] version = recetaService.obtenerVersionCatalogo();
+        LocalDateTime ultimaModificacion = (LocalDateTime) version[0];
+        long maximoId = version[1] != null ? (Long) version[1] : 0;
+        long cantidad = (Long) version[2];
+        long lastModified = ultimaModificacion != null
+                ? ultimaModificacion.toInstant(ZoneOffset.UTC).toEpochMilli() : 0;
+        String etag = "W/\"recetas-" + Long.toHexString(lastModified) + "-" + Long.toHexString(maximoId)
+                + "-" + Long.toHexString(cantidad)
+                + "-" + Integer.toHexString(Objects.hash(consulta, CampoReceta.mascara(campos), desdeId, limite))
+                + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return;
+        }
+
+        long inicio = desdeId;
+        recetaJsonWriter.escribirPagina(response, campos, limite,
+                consumidor -> recetaService.recorrerProyecciones(campos, nombreBuscado, tipoBuscado,
+                        paisBuscado, dificultadBuscada, inicio, limite + 1, consumidor),
+                ultimoId -> new CursorRecetas(ultimoId, consulta).codificar());
+    }
+
+    /**
+     * Detalle de una receta.
+     *
+     * @param id ID de la receta
+     * @param fields Campos de la respuesta (opcional)
+     * @param webRequest Petición actual (para validar If-None-Match / If-Modified-Since)
+     * @param response Respuesta HTTP
+     * @throws IOException Si falla la escritura de la respuesta
+     */
+    @GetMapping("/{id}")
+    public void detalle(@PathVariable Long id,
+                        @RequestParam(required = false) String fields,
+                        WebRequest webRequest,
+                        HttpServletResponse response) throws IOException {
+        EnumSet<CampoReceta> campos = parsearCampos(fields, CampoReceta.DETALLE);
+
+        // Validación condicional con una consulta liviana de versión
+        RecetaVersion version = recetaService.obtenerVersionReceta(id)
+                .orElseThrow(RecetaApiController::noEncontrada);
+        if (version.getUltimaModificacion() != null) {
+            long lastModified = version.getUltimaModificacion().toInstant(ZoneOffset.UTC).toEpochMilli();
+            String etag = "W/\"receta-" + id + "-" + Long.toHexString(lastModified) + "-"
+                    + Integer.toHexString(CampoReceta.mascara(campos)) + "\"";
+            if (webRequest.checkNotModified(etag, lastModified)) {
+                return;
+            }
+        }
+
+        Optional<Object[]> fila = recetaService.obtenerProyeccion(campos, id);
+        recetaJsonWriter.escribirReceta(response, campos, fila.orElseThrow(RecetaApiController::noEncontrada));
+    }
+
+    /**
+     * Responde los errores de la API como JSON.
+     *
+     * @param e Error con el estado HTTP
+     * @return Respuesta {"error": "..."}
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<Map<String, String>> error(ResponseStatusException e) {
+        return ResponseEntity.status(e.getStatusCode())
+                .body(Map.of("error", Objects.requireNonNullElse(e.getReason(), "Error")));
+    }
+
+    private static EnumSet<CampoReceta> parsearCampos(String fields, Set<CampoReceta> porDefecto) {
+        try {
+            return CampoReceta.parsear(fields, porDefecto);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static ResponseStatusException noEncontrada() {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "La receta solicitada no existe");
+    }
+
+    private static String vacioANull(String valor) {
+        return valor != null && valor.trim().isEmpty() ? null : valor;
+    }
+
+    private static String minusculas(String valor) {
+        return valor != null ? valor.toLowerCase(Locale.ROOT) : null;
+    }
+}
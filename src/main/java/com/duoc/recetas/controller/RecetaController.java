@@ -1,16 +1,30 @@
 package com.duoc.recetas.controller;
 
+import com.duoc.recetas.dto.FiltroCatalogo;
+import com.duoc.recetas.dto.RecetaDetalle;
+import com.duoc.recetas.dto.RecetaVersion;
 import com.duoc.recetas.model.Receta;
+import com.duoc.recetas.service.CatalogoSnapshotService;
 import com.duoc.recetas.service.RecetaService;
+import com.duoc.recetas.service.RecetasSimilaresService;
+import com.duoc.recetas.service.RecientesService;
+import com.duoc.recetas.view.BusquedaStreamingRenderer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -25,17 +39,46 @@ public class RecetaController {
     @Autowired
     private RecetaService recetaService;
 
+    @Autowired
+    private BusquedaStreamingRenderer streamingRenderer;
+
+    @Autowired
+    private CatalogoSnapshotService catalogoSnapshotService;
+
+    @Autowired
+    private RecetasSimilaresService recetasSimilaresService;
+
+    @Autowired
+    private RecientesService recientesService;
+
+    /**
+     * Si está activo, buscar y lista envían los resultados en streaming.
+     */
+    @Value("${recetas.busqueda.streaming.habilitado:true}")
+    private boolean streamingHabilitado;
+
     /**
      * Página de búsqueda de recetas - PÚBLICA
      * 
      * Permite buscar recetas por nombre, tipo de cocina, país de origen y dificultad.
+     * Los rangos de tiempo de cocción y porciones, y el orden, se resuelven
+     * sobre el catálogo columnar en memoria (CatalogoSnapshotService) y luego
+     * se cargan solo las recetas encontradas.
      * 
      * @param nombre Nombre de la receta (opcional)
      * @param tipoCocina Tipo de cocina (opcional)
      * @param paisOrigen País de origen (opcional)
      * @param dificultad Dificultad (opcional)
+     * @param tiempoMin Tiempo de cocción mínimo en minutos (opcional)
+     * @param tiempoMax Tiempo de cocción máximo en minutos (opcional)
+     * @param porcionesMin Porciones mínimas (opcional)
+     * @param porcionesMax Porciones máximas (opcional)
+     * @param orden visualizaciones, tiempo o porciones (opcional)
      * @param model Modelo para pasar datos a la vista
-     * @return Nombre de la vista buscar.html
+     * @param request Petición HTTP (modo streaming)
+     * @param response Respuesta HTTP (modo streaming)
+     * @return Nombre de la vista buscar.html, o null si se respondió en streaming
+     * @throws Exception Si falla el renderizado en streaming
      */
     @GetMapping("/buscar")
     public String buscar(
@@ -43,7 +86,14 @@ public class RecetaController {
             @RequestParam(required = false) String tipoCocina,
             @RequestParam(required = false) String paisOrigen,
             @RequestParam(required = false) String dificultad,
-            Model model) {
+            @RequestParam(required = false) Integer tiempoMin,
+            @RequestParam(required = false) Integer tiempoMax,
+            @RequestParam(required = false) Integer porcionesMin,
+            @RequestParam(required = false) Integer porcionesMax,
+            @RequestParam(required = false) String orden,
+            Model model,
+            HttpServletRequest request,
+            HttpServletResponse response) throws Exception {
         
         // Convertir strings vacíos a null para que la búsqueda funcione correctamente
         nombre = (nombre != null && nombre.trim().isEmpty()) ? null : nombre;
@@ -51,10 +101,39 @@ public class RecetaController {
         paisOrigen = (paisOrigen != null && paisOrigen.trim().isEmpty()) ? null : paisOrigen;
         dificultad = (dificultad != null && dificultad.trim().isEmpty()) ? null : dificultad;
         
+        // Rangos u orden: IDs desde el catálogo columnar
+        FiltroCatalogo filtro = new FiltroCatalogo(nombre, tipoCocina, paisOrigen, dificultad,
+                tiempoMin, tiempoMax, porcionesMin, porcionesMax, FiltroCatalogo.Orden.desde(orden));
+        long[] ids = filtro.requiereCatalogo() ? catalogoSnapshotService.buscar(filtro) : null;
+        model.addAttribute("tiempoMin", tiempoMin);
+        model.addAttribute("tiempoMax", tiempoMax);
+        model.addAttribute("porcionesMin", porcionesMin);
+        model.addAttribute("porcionesMax", porcionesMax);
+        model.addAttribute("orden", filtro.orden() != FiltroCatalogo.Orden.NINGUNO
+                ? filtro.orden().name().toLowerCase() : null);
+        
+        if (streamingHabilitado) {
+            model.addAttribute("nombre", nombre);
+            model.addAttribute("tipoCocina", tipoCocina);
+            model.addAttribute("paisOrigen", paisOrigen);
+            model.addAttribute("dificultad", dificultad);
+            model.addAttribute("titulo", "Buscar Recetas");
+            if (ids != null) {
+                streamingRenderer.renderizar("buscar", model.asMap(),
+                        consumidor -> recetaService.recorrerTarjetasPorIds(ids, consumidor), request, response);
+            } else {
+                streamingRenderer.renderizar("buscar", model.asMap(),
+                        nombre, tipoCocina, paisOrigen, dificultad, request, response);
+            }
+            return null;
+        }
+        
         List<Receta> recetas;
         
-        // Si no se proporcionó ningún criterio de búsqueda, mostrar todas las recetas
-        if (nombre == null && tipoCocina == null && paisOrigen == null && dificultad == null) {
+        if (ids != null) {
+            recetas = recetaService.obtenerRecetasPorIds(ids);
+        } else if (nombre == null && tipoCocina == null && paisOrigen == null && dificultad == null) {
+            // Si no se proporcionó ningún criterio de búsqueda, mostrar todas las recetas
             recetas = recetaService.obtenerTodasLasRecetas();
         } else {
             // Buscar con los criterios proporcionados
@@ -86,25 +165,78 @@ public class RecetaController {
      * SEGURIDAD: Solo usuarios autenticados pueden ver los detalles de las recetas.
      * Esto cumple con A01: Broken Access Control del OWASP Top 10.
      * 
+     * LECTURA: La receta se lee con una sola consulta que trae solo las
+     * columnas de detalle.html (RecetaService.obtenerDetalle), sin cargar
+     * la entidad.
+     * 
+     * CACHÉ: Si la petición es condicional (If-None-Match / If-Modified-Since),
+     * antes de cargar la receta se consulta solo su versión
+     * (ultima_modificacion). Si el navegador ya tiene esa versión se responde
+     * 304 sin leer las columnas TEXT ni renderizar la plantilla. Si no es
+     * condicional, el ETag se calcula con la misma fila del detalle, sin la
+     * consulta de versión. La respuesta es siempre privada (ver
+     * SecurityHeadersFilter) y el ETag incluye al usuario y su sesión, por lo
+     * que nunca se comparte entre usuarios.
+     * 
+     * RECOMENDACIONES: Las recetas similares ("te puede interesar") están
+     * precalculadas (RecetasSimilaresService); aquí solo se leen las
+     * tarjetas de las k recetas por ID (sin cargar las entidades). La versión
+     * de las recomendaciones forma parte del ETag, de modo que un 304 no
+     * muestra recomendaciones antiguas.
+     * 
+     * RECIENTES: La visita se agrega a las recetas vistas recientemente del
+     * usuario (RecientesService, en memoria; se guarda en segundo plano).
+     * 
      * @param id ID de la receta
      * @param model Modelo para pasar datos a la vista
-     * @return Nombre de la vista detalle.html o error.html si no existe
+     * @param webRequest Petición actual (para validar If-None-Match / If-Modified-Since)
+     * @return Nombre de la vista detalle.html, error.html si no existe o null si es 304
      */
     @GetMapping("/detalle/{id}")
-    public String detalle(@PathVariable Long id, Model model) {
+    public String detalle(@PathVariable Long id, Model model, WebRequest webRequest) {
+        
+        // Validación condicional con una consulta liviana de versión, solo
+        // si el navegador envía una versión que comparar
+        boolean condicional = webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+        if (condicional) {
+            Optional<RecetaVersion> versionOpt = recetaService.obtenerVersionReceta(id);
+            if (versionOpt.isPresent() && versionOpt.get().getUltimaModificacion() != null) {
+                RecetaVersion version = versionOpt.get();
+                long lastModified = version.getUltimaModificacion().toInstant(ZoneOffset.UTC).toEpochMilli();
+                if (webRequest.checkNotModified(calcularEtag(id, lastModified, webRequest), lastModified)) {
+                    // El contenido no cambió: se cuenta la visita y se responde 304
+                    recetaService.incrementarVisualizaciones(id);
+                    recientesService.registrarVista(webRequest.getRemoteUser(), id);
+                    return null;
+                }
+            }
+        }
         
-        // Buscar la receta por ID
-        Optional<Receta> recetaOpt = recetaService.obtenerRecetaPorId(id);
+        // Buscar la receta por ID (solo las columnas de la página)
+        Optional<RecetaDetalle> recetaOpt = recetaService.obtenerDetalle(id);
         
         if (recetaOpt.isPresent()) {
-            Receta receta = recetaOpt.get();
+            RecetaDetalle receta = recetaOpt.get();
+            
+            // Sin petición condicional: ETag y Last-Modified desde la misma fila
+            if (!condicional && receta.ultimaModificacion() != null) {
+                long lastModified = receta.ultimaModificacion().toInstant(ZoneOffset.UTC).toEpochMilli();
+                webRequest.checkNotModified(calcularEtag(id, lastModified, webRequest), lastModified);
+            }
             
             // Incrementar contador de visualizaciones
             recetaService.incrementarVisualizaciones(id);
+            recientesService.registrarVista(webRequest.getRemoteUser(), receta);
             
             // Agregar receta al modelo
             model.addAttribute("receta", receta);
-            model.addAttribute("titulo", receta.getNombre());
+            model.addAttribute("titulo", receta.nombre());
+            
+            // Recetas similares precalculadas
+            long[] similares = recetasSimilaresService.similares(id);
+            model.addAttribute("recomendaciones",
+                similares.length > 0 ? recetaService.obtenerTarjetasPorIds(similares) : List.of());
             
             return "detalle";
         } else {
@@ -115,16 +247,47 @@ public class RecetaController {
         }
     }
 
+    /**
+     * Calcula el ETag de la página de detalle.
+     * 
+     * Combina la versión de la receta y la de las recomendaciones
+     * (RecetasSimilaresService.getVersion) con el usuario y la sesión: la
+     * página contiene el nombre del usuario y el token CSRF, que cambian al
+     * iniciar o cerrar sesión.
+     * 
+     * @param id ID de la receta
+     * @param lastModified Última modificación en milisegundos
+     * @param webRequest Petición actual
+     * @return ETag débil para la página
+     */
+    private String calcularEtag(Long id, long lastModified, WebRequest webRequest) {
+        int sesion = Objects.hash(webRequest.getRemoteUser(), webRequest.getSessionId());
+        return "W/\"receta-" + id + "-" + Long.toHexString(lastModified)
+                + "-" + Long.toHexString(recetasSimilaresService.getVersion())
+                + "-" + Integer.toHexString(sesion) + "\"";
+    }
+
     /**
      * Lista todas las recetas - PÚBLICA
      * 
      * Muestra un listado simple de todas las recetas disponibles.
      * 
      * @param model Modelo para pasar datos a la vista
-     * @return Nombre de la vista buscar.html
+     * @param request Petición HTTP (modo streaming)
+     * @param response Respuesta HTTP (modo streaming)
+     * @return Nombre de la vista buscar.html, o null si se respondió en streaming
+     * @throws Exception Si falla el renderizado en streaming
      */
     @GetMapping("/lista")
-    public String lista(Model model) {
+    public String lista(Model model, HttpServletRequest request,
+                        HttpServletResponse response) throws Exception {
+        if (streamingHabilitado) {
+            model.addAttribute("titulo", "Todas las Recetas");
+            streamingRenderer.renderizar("buscar", model.asMap(),
+                    null, null, null, null, request, response);
+            return null;
+        }
+        
         List<Receta> recetas = recetaService.obtenerTodasLasRecetas();
         
         model.addAttribute("recetas", recetas);
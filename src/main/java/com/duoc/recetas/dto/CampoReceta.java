@@ -0,0 +1,117 @@
+package com.duoc.recetas.dto;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Campos de una receta que se pueden pedir en la API JSON (parámetro
+ * fields=), con el atributo JPQL que se selecciona para cada uno.
+ *
+ * Solo se leen de la base de datos los campos pedidos; ingredientes e
+ * instrucciones (texto largo) no se leen si no se piden.
+ */
+public enum CampoReceta {
+
+    ID("id", "r.id"),
+    NOMBRE("nombre", "r.nombre"),
+    TIPO_COCINA("tipoCocina", "r.tipoCocina"),
+    PAIS_ORIGEN("paisOrigen", "r.paisOrigen"),
+    DIFICULTAD("dificultad", "r.dificultad"),
+    TIEMPO_COCCION("tiempoCoccion", "r.tiempoCoccion"),
+    PORCIONES("porciones", "r.porciones"),
+    DESCRIPCION("descripcion", "r.descripcion"),
+    FOTO_URL("fotoUrl", "r.fotoUrl"),
+    INGREDIENTES("ingredientes", "r.ingredientes"),
+    INSTRUCCIONES("instrucciones", "r.instrucciones"),
+    POPULAR("popular", "r.popular"),
+    RECIENTE("reciente", "r.reciente"),
+    VISUALIZACIONES("visualizaciones", "r.visualizaciones"),
+    FECHA_CREACION("fechaCreacion", "r.fechaCreacion"),
+    ULTIMA_MODIFICACION("ultimaModificacion", "r.ultimaModificacion");
+
+    /**
+     * Campos de la búsqueda si no se indica fields= (sin texto largo).
+     */
+    public static final Set<CampoReceta> BUSQUEDA = EnumSet.of(ID, NOMBRE, TIPO_COCINA, PAIS_ORIGEN,
+        DIFICULTAD, TIEMPO_COCCION, PORCIONES, DESCRIPCION, FOTO_URL);
+
+    /**
+     * Campos que solo ven los usuarios autenticados, igual que en la página
+     * de detalle: la búsqueda pública los rechaza sin sesión.
+     */
+    public static final Set<CampoReceta> PRIVADOS = EnumSet.of(INGREDIENTES, INSTRUCCIONES);
+
+    /**
+     * Campos del detalle si no se indica fields= (todos).
+     */
+    public static final Set<CampoReceta> DETALLE = EnumSet.allOf(CampoReceta.class);
+
+    private final String nombre;
+
+    private final String atributo;
+
+    CampoReceta(String nombre, String atributo) {
+        this.nombre = nombre;
+        this.atributo = atributo;
+    }
+
+    /**
+     * @return Nombre del campo en el JSON y en fields=
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * @return Atributo JPQL (alias r)
+     */
+    public String getAtributo() {
+        return atributo;
+    }
+
+    /**
+     * Convierte el parámetro fields= (nombres separados por comas). El ID
+     * se incluye siempre.
+     *
+     * @param fields Valor del parámetro (null o vacío = porDefecto)
+     * @param porDefecto Campos si no se indica ninguno
+     * @return Campos pedidos, en el orden del enum
+     * @throws IllegalArgumentException si un nombre no existe
+     */
+    public static EnumSet<CampoReceta> parsear(String fields, Set<CampoReceta> porDefecto) {
+        if (fields == null || fields.isBlank()) {
+            return EnumSet.copyOf(porDefecto);
+        }
+        EnumSet<CampoReceta> campos = EnumSet.of(ID);
+        for (String nombre : fields.split(",")) {
+            String buscado = nombre.trim();
+            if (buscado.isEmpty()) {
+                continue;
+            }
+            CampoReceta campo = null;
+            for (CampoReceta candidato : values()) {
+                if (candidato.nombre.equals(buscado)) {
+                    campo = candidato;
+                    break;
+                }
+            }
+            if (campo == null) {
+                throw new IllegalArgumentException("Campo desconocido: " + buscado);
+            }
+            campos.add(campo);
+        }
+        return campos;
+    }
+
+    /**
+     * @param campos Conjunto de campos
+     * @return Máscara de bits del conjunto (para ETags y cursores)
+     */
+    public static int mascara(Set<CampoReceta> campos) {
+        int mascara = 0;
+        for (CampoReceta campo : campos) {
+            mascara |= 1 << campo.ordinal();
+        }
+        return mascara;
+    }
+}
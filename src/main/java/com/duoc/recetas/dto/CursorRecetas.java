@@ -0,0 +1,50 @@
+package com.duoc.recetas.dto;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Cursor de la búsqueda paginada de la API JSON: la página siguiente
+ * empieza después del último ID entregado (paginación por clave, sin
+ * OFFSET).
+ *
+ * Para el cliente es un texto opaco (Base64 URL de versión, ID y un hash de
+ * los criterios); el hash impide usar el cursor de una búsqueda con otros
+ * criterios.
+ *
+ * @param ultimoId ID de la última receta entregada
+ * @param consulta Hash de los criterios de búsqueda
+ */
+public record CursorRecetas(long ultimoId, int consulta) {
+
+    private static final byte VERSION = 1;
+
+    private static final int LONGITUD = 1 + Long.BYTES + Integer.BYTES;
+
+    /**
+     * @return Cursor opaco para la respuesta
+     */
+    public String codificar() {
+        ByteBuffer buffer = ByteBuffer.allocate(LONGITUD).put(VERSION).putLong(ultimoId).putInt(consulta);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * @param cursor Cursor recibido del cliente
+     * @return Cursor decodificado
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public static CursorRecetas decodificar(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        if (bytes.length != LONGITUD || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, LONGITUD - 1);
+        return new CursorRecetas(buffer.getLong(), buffer.getInt());
+    }
+}
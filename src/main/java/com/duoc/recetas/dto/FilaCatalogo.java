@@ -0,0 +1,19 @@
+package com.duoc.recetas.dto;
+
+/**
+ * Columnas de una receta usadas por el catálogo columnar (CatalogoColumnar).
+ *
+ * Se lee con una expresión constructora (SELECT new ...) para no cargar las
+ * entidades ni sus columnas TEXT.
+ */
+public record FilaCatalogo(
+    Long id,
+    String nombre,
+    String tipoCocina,
+    String paisOrigen,
+    String dificultad,
+    Integer tiempoCoccion,
+    Integer porciones,
+    Integer visualizaciones
+) {
+}
@@ -0,0 +1,17 @@
+package com.duoc.recetas.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ingredientes de una receta, usados para calcular recetas similares
+ * (IndiceSimilitud).
+ *
+ * Se lee con una expresión constructora (SELECT new ...) para no cargar las
+ * entidades ni la columna instrucciones.
+ */
+public record FilaIngredientes(
+    Long id,
+    String ingredientes,
+    LocalDateTime ultimaModificacion
+) {
+}
@@ -0,0 +1,79 @@
+package com.duoc.recetas.dto;
+
+/**
+ * Criterios de búsqueda sobre el catálogo columnar.
+ *
+ * Los textos se comparan como en RecetaRepository.buscarRecetas (contiene,
+ * sin distinguir mayúsculas; dificultad exacta). Los rangos son inclusivos
+ * y null significa sin límite.
+ *
+ * @param nombre Parte del nombre (opcional)
+ * @param tipoCocina Parte del tipo de cocina (opcional)
+ * @param paisOrigen Parte del país de origen (opcional)
+ * @param dificultad Dificultad (opcional)
+ * @param tiempoMin Tiempo de cocción mínimo en minutos (opcional)
+ * @param tiempoMax Tiempo de cocción máximo en minutos (opcional)
+ * @param porcionesMin Porciones mínimas (opcional)
+ * @param porcionesMax Porciones máximas (opcional)
+ * @param orden Orden de los resultados
+ */
+public record FiltroCatalogo(
+    String nombre,
+    String tipoCocina,
+    String paisOrigen,
+    String dificultad,
+    Integer tiempoMin,
+    Integer tiempoMax,
+    Integer porcionesMin,
+    Integer porcionesMax,
+    Orden orden
+) {
+
+    /**
+     * Orden de los resultados.
+     */
+    public enum Orden {
+        /** Orden del catálogo (ID). */
+        NINGUNO,
+        /** Más vistas primero. */
+        VISUALIZACIONES,
+        /** Menor tiempo de cocción primero. */
+        TIEMPO,
+        /** Más porciones primero. */
+        PORCIONES;
+
+        /**
+         * Convierte el parámetro de la petición (visualizaciones, tiempo,
+         * porciones); cualquier otro valor es NINGUNO.
+         *
+         * @param valor Valor del parámetro (puede ser null)
+         * @return Orden
+         */
+        public static Orden desde(String valor) {
+            if (valor == null) {
+                return NINGUNO;
+            }
+            for (Orden orden : values()) {
+                if (orden.name().equalsIgnoreCase(valor.trim())) {
+                    return orden;
+                }
+            }
+            return NINGUNO;
+        }
+    }
+
+    public FiltroCatalogo {
+        orden = orden != null ? orden : Orden.NINGUNO;
+    }
+
+    /**
+     * Indica si la búsqueda necesita el catálogo columnar (rangos u orden),
+     * o si basta con la consulta SQL de texto.
+     *
+     * @return true si hay rangos numéricos u orden
+     */
+    public boolean requiereCatalogo() {
+        return tiempoMin != null || tiempoMax != null || porcionesMin != null
+            || porcionesMax != null || orden != Orden.NINGUNO;
+    }
+}
@@ -0,0 +1,50 @@
+package com.duoc.recetas.dto;
+
+import com.duoc.recetas.model.Receta;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columnas de una receta que muestra la página de detalle (detalle.html).
+ *
+ * Se lee con una expresión constructora (SELECT new ...) en una sola
+ * consulta, sin cargar la entidad: incluye la última modificación para
+ * calcular el ETag de la página con la misma fila.
+ *
+ * @param id ID de la receta
+ * @param nombre Nombre
+ * @param descripcion Descripción
+ * @param tipoCocina Tipo de cocina
+ * @param paisOrigen País de origen
+ * @param dificultad Dificultad
+ * @param tiempoCoccion Tiempo de cocción en minutos
+ * @param porciones Porciones
+ * @param ingredientes Ingredientes (ya descomprimidos)
+ * @param instrucciones Instrucciones (ya descomprimidas)
+ * @param fotoUrl URL de la fotografía
+ * @param visualizaciones Contador de visualizaciones
+ * @param ultimaModificacion Última modificación
+ */
+public record RecetaDetalle(
+    Long id,
+    String nombre,
+    String descripcion,
+    String tipoCocina,
+    String paisOrigen,
+    String dificultad,
+    Integer tiempoCoccion,
+    Integer porciones,
+    String ingredientes,
+    String instrucciones,
+    String fotoUrl,
+    Integer visualizaciones,
+    LocalDateTime ultimaModificacion
+) {
+
+    /**
+     * @return Versión de la fotografía (ver Receta.getFotoVersion)
+     */
+    public String fotoVersion() {
+        return Receta.versionFoto(fotoUrl);
+    }
+}
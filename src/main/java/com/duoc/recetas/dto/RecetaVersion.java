@@ -0,0 +1,16 @@
+package com.duoc.recetas.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección mínima de una receta para validar cachés HTTP.
+ * 
+ * Solo lee el ID y la fecha de última modificación, sin tocar las
+ * columnas de texto largo (ingredientes, instrucciones).
+ */
+public interface RecetaVersion {
+
+    Long getId();
+
+    LocalDateTime getUltimaModificacion();
+}
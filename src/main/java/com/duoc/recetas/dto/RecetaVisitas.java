@@ -0,0 +1,15 @@
+package com.duoc.recetas.dto;
+
+/**
+ * Total de visitas de una receta en una ventana de tiempo.
+ *
+ * @param recetaId ID de la receta
+ * @param nombre Nombre de la receta
+ * @param visitas Visitas en la ventana
+ */
+public record RecetaVisitas(
+    Long recetaId,
+    String nombre,
+    long visitas
+) {
+}
@@ -0,0 +1,30 @@
+package com.duoc.recetas.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Receta vista por un usuario, con lo necesario para mostrarla en la
+ * página de inicio sin volver a leerla.
+ *
+ * @param recetaId ID de la receta
+ * @param nombre Nombre de la receta
+ * @param fotoVersion Versión de la fotografía (Receta.getFotoVersion)
+ * @param vistaEn Momento de la última visita
+ */
+public record RecetaVista(
+    Long recetaId,
+    String nombre,
+    String fotoVersion,
+    LocalDateTime vistaEn
+) {
+
+    /**
+     * Misma receta con otra fecha de visita.
+     *
+     * @param vistaEn Momento de la visita
+     * @return Copia con la fecha indicada
+     */
+    public RecetaVista vistaEn(LocalDateTime vistaEn) {
+        return new RecetaVista(recetaId, nombre, fotoVersion, vistaEn);
+    }
+}
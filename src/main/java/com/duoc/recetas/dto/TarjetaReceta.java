@@ -0,0 +1,57 @@
+package com.duoc.recetas.dto;
+
+import com.duoc.recetas.model.Receta;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columnas de una receta que muestra su tarjeta en los listados
+ * (fragments/tarjeta-receta.html).
+ *
+ * Se lee con una expresión constructora (SELECT new ...) para no cargar las
+ * entidades ni sus columnas de texto largo (ingredientes, instrucciones).
+ *
+ * @param id ID de la receta
+ * @param nombre Nombre
+ * @param descripcion Descripción
+ * @param tipoCocina Tipo de cocina
+ * @param paisOrigen País de origen
+ * @param dificultad Dificultad
+ * @param tiempoCoccion Tiempo de cocción en minutos
+ * @param porciones Porciones
+ * @param fotoUrl URL de la fotografía
+ * @param version Última modificación (o creación), para la clave de TarjetaRecetaCache
+ */
+public record TarjetaReceta(
+    Long id,
+    String nombre,
+    String descripcion,
+    String tipoCocina,
+    String paisOrigen,
+    String dificultad,
+    Integer tiempoCoccion,
+    Integer porciones,
+    String fotoUrl,
+    LocalDateTime version
+) {
+
+    /**
+     * Tarjeta de una receta ya cargada.
+     *
+     * @param receta Receta
+     * @return Tarjeta con las columnas de la receta
+     */
+    public static TarjetaReceta de(Receta receta) {
+        return new TarjetaReceta(receta.getId(), receta.getNombre(), receta.getDescripcion(),
+            receta.getTipoCocina(), receta.getPaisOrigen(), receta.getDificultad(),
+            receta.getTiempoCoccion(), receta.getPorciones(), receta.getFotoUrl(),
+            receta.getUltimaModificacion() != null ? receta.getUltimaModificacion() : receta.getFechaCreacion());
+    }
+
+    /**
+     * @return Versión de la fotografía (ver Receta.getFotoVersion)
+     */
+    public String fotoVersion() {
+        return Receta.versionFoto(fotoUrl);
+    }
+}
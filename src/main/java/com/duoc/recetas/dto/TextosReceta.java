@@ -0,0 +1,16 @@
+package com.duoc.recetas.dto;
+
+/**
+ * Columnas de texto largo de una receta tal como están almacenadas
+ * (UTF-8 sin cabecera o formato de CompresorTexto).
+ *
+ * @param id ID de la receta
+ * @param ingredientes Valor almacenado de ingredientes (puede ser null)
+ * @param instrucciones Valor almacenado de instrucciones (puede ser null)
+ */
+public record TextosReceta(
+    long id,
+    byte[] ingredientes,
+    byte[] instrucciones
+) {
+}
@@ -0,0 +1,15 @@
+package com.duoc.recetas.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Visitas de una receta en una hora.
+ *
+ * @param hora Inicio de la hora (UTC)
+ * @param visitas Visitas registradas en esa hora
+ */
+public record VisitasHora(
+    LocalDateTime hora,
+    long visitas
+) {
+}
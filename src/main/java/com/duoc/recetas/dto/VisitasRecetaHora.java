@@ -0,0 +1,18 @@
+package com.duoc.recetas.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Visitas agregadas de una receta en una hora, pendientes de sumar en
+ * recetas_visitas_hora.
+ *
+ * @param recetaId ID de la receta
+ * @param hora Inicio de la hora (UTC)
+ * @param visitas Visitas a sumar
+ */
+public record VisitasRecetaHora(
+    long recetaId,
+    LocalDateTime hora,
+    int visitas
+) {
+}
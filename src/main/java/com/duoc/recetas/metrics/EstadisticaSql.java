@@ -0,0 +1,83 @@
+package com.duoc.recetas.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estadísticas acumuladas de una sentencia SQL normalizada (huella).
+ * 
+ * Los contadores son LongAdder / AtomicLong para poder actualizarse desde
+ * muchos hilos sin bloqueos.
+ */
+public class EstadisticaSql {
+
+    private final String huella;
+
+    private final LongAdder ejecuciones = new LongAdder();
+
+    private final LongAdder errores = new LongAdder();
+
+    private final LongAdder lentas = new LongAdder();
+
+    private final LongAdder tiempoTotalMs = new LongAdder();
+
+    private final AtomicLong tiempoMaximoMs = new AtomicLong();
+
+    public EstadisticaSql(String huella) {
+        this.huella = huella;
+    }
+
+    /**
+     * Registra una ejecución de la sentencia.
+     * 
+     * @param tiempoMs Tiempo de ejecución en milisegundos
+     * @param exito Si la ejecución terminó sin error
+     * @param lenta Si superó el umbral de consulta lenta
+     */
+    void registrar(long tiempoMs, boolean exito, boolean lenta) {
+        ejecuciones.increment();
+        tiempoTotalMs.add(tiempoMs);
+        tiempoMaximoMs.accumulateAndGet(tiempoMs, Math::max);
+        if (!exito) {
+            errores.increment();
+        }
+        if (lenta) {
+            lentas.increment();
+        }
+    }
+
+    public String getHuella() {
+        return huella;
+    }
+
+    public long getEjecuciones() {
+        return ejecuciones.sum();
+    }
+
+    public long getErrores() {
+        return errores.sum();
+    }
+
+    public long getLentas() {
+        return lentas.sum();
+    }
+
+    public long getTiempoTotalMs() {
+        return tiempoTotalMs.sum();
+    }
+
+    public long getTiempoMaximoMs() {
+        return tiempoMaximoMs.get();
+    }
+
+    public double getTiempoPromedioMs() {
+        long n = getEjecuciones();
+        return n == 0 ? 0 : (double) getTiempoTotalMs() / n;
+    }
+
+    @Override
+    public String toString() {
+        return huella + " [n=" + getEjecuciones() + ", total=" + getTiempoTotalMs()
+                + "ms]";
+    }
+}
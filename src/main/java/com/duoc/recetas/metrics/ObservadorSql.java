@@ -0,0 +1,156 @@
+package com.duoc.recetas.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Observador de sentencias SQL a nivel JDBC (datasource-proxy).
+ * 
+ * Reemplaza spring.jpa.show-sql, que formatea e imprime de forma síncrona
+ * cada sentencia. Este observador:
+ * - Registra en log solo una muestra de las sentencias normales
+ *   (recetas.sql.muestreo, por defecto 1%).
+ * - Registra siempre las sentencias que superan recetas.sql.umbral-lenta,
+ *   junto con la "forma" de sus parámetros (tipo y longitud, sin valores).
+ * - Acumula estadísticas por huella (SQL normalizado), consultables en
+ *   /actuator/sql (ver SqlEndpoint).
+ * 
+ * Los logs pasan por el appender asíncrono de logback-spring.xml, por lo
+ * que el hilo de la petición no espera a la consola.
+ */
+@Component
+public class ObservadorSql implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger("recetas.sql");
+
+    /**
+     * Número máximo de huellas distintas; el resto se agrupa en "otras".
+     */
+    private static final int MAX_HUELLAS = 500;
+
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+    private static final Pattern LITERALES = Pattern.compile("'(?:[^']|'')*'|\\b\\d+\\b");
+    private static final Pattern LISTAS_IN = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private final ConcurrentHashMap<String, EstadisticaSql> estadisticas = new ConcurrentHashMap<>();
+
+    private final long umbralLentaMs;
+
+    private final double muestreo;
+
+    public ObservadorSql(@Value("${recetas.sql.umbral-lenta-ms:200}") long umbralLentaMs,
+                         @Value("${recetas.sql.muestreo:0.01}") double muestreo) {
+        this.umbralLentaMs = umbralLentaMs;
+        this.muestreo = muestreo;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // Sin trabajo antes de la ejecución
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long tiempoMs = execInfo.getElapsedTime();
+        boolean lenta = tiempoMs >= umbralLentaMs;
+
+        for (QueryInfo query : queryInfoList) {
+            String huella = huella(query.getQuery());
+            obtenerEstadistica(huella).registrar(tiempoMs, execInfo.isSuccess(), lenta);
+
+            if (lenta) {
+                log.warn("SQL lenta ({} ms, lote={}): {} parámetros={}",
+                    tiempoMs, execInfo.getBatchSize(), query.getQuery(), formaParametros(query));
+            } else if (!execInfo.isSuccess()) {
+                log.warn("SQL con error ({} ms): {} - {}", tiempoMs, huella,
+                    execInfo.getThrowable() != null ? execInfo.getThrowable().getMessage() : "");
+            } else if (log.isInfoEnabled() && ThreadLocalRandom.current().nextDouble() < muestreo) {
+                log.info("SQL muestreada ({} ms): {}", tiempoMs, huella);
+            }
+        }
+    }
+
+    /**
+     * Devuelve las huellas ordenadas por tiempo total descendente.
+     * 
+     * @param limite Número máximo de resultados
+     * @return Estadísticas de las sentencias más costosas
+     */
+    public List<EstadisticaSql> obtenerMasCostosas(int limite) {
+        return estadisticas.values().stream()
+            .sorted(Comparator.comparingLong(EstadisticaSql::getTiempoTotalMs).reversed())
+            .limit(limite)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Reinicia todas las estadísticas.
+     */
+    public void reiniciar() {
+        estadisticas.clear();
+    }
+
+    public long getUmbralLentaMs() {
+        return umbralLentaMs;
+    }
+
+    public double getMuestreo() {
+        return muestreo;
+    }
+
+    private EstadisticaSql obtenerEstadistica(String huella) {
+        EstadisticaSql estadistica = estadisticas.get(huella);
+        if (estadistica != null) {
+            return estadistica;
+        }
+        String clave = estadisticas.size() < MAX_HUELLAS ? huella : "otras";
+        return estadisticas.computeIfAbsent(clave, EstadisticaSql::new);
+    }
+
+    /**
+     * Normaliza el SQL: literales y números a ?, listas IN colapsadas y
+     * espacios unificados, para agrupar sentencias equivalentes.
+     */
+    static String huella(String sql) {
+        String normalizado = LITERALES.matcher(sql).replaceAll("?");
+        normalizado = LISTAS_IN.matcher(normalizado).replaceAll("(?...)");
+        return ESPACIOS.matcher(normalizado).replaceAll(" ").trim();
+    }
+
+    /**
+     * Describe los parámetros de enlace sin exponer sus valores:
+     * tipo y, para textos, su longitud.
+     */
+    private String formaParametros(QueryInfo query) {
+        return query.getParametersList().stream()
+            .map(parametros -> parametros.stream()
+                .map(this::formaParametro)
+                .collect(Collectors.joining(", ", "[", "]")))
+            .collect(Collectors.joining(" "));
+    }
+
+    private String formaParametro(ParameterSetOperation operacion) {
+        Object[] args = operacion.getArgs();
+        Object valor = args.length > 1 ? args[1] : null;
+        if (valor == null || ParameterSetOperation.isSetNullParameterOperation(operacion)) {
+            return "null";
+        }
+        if (valor instanceof CharSequence texto) {
+            return "String(" + texto.length() + ")";
+        }
+        return valor.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,58 @@
+package com.duoc.recetas.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el tiempo de renderizado de las vistas Thymeleaf.
+ * 
+ * postHandle se ejecuta justo antes de renderizar la vista y
+ * afterCompletion justo después, por lo que la diferencia es el tiempo de
+ * renderizado (sin contar el controlador).
+ */
+public class RenderizadoMetricasInterceptor implements HandlerInterceptor {
+
+    /**
+     * Nombre de la métrica de renderizado de vistas.
+     */
+    public static final String METRICA = "recetas.vista.render";
+
+    private static final String ATRIBUTO_INICIO = RenderizadoMetricasInterceptor.class.getName() + ".inicio";
+    private static final String ATRIBUTO_VISTA = RenderizadoMetricasInterceptor.class.getName() + ".vista";
+
+    private final MeterRegistry meterRegistry;
+
+    public RenderizadoMetricasInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response,
+                           Object handler, ModelAndView modelAndView) {
+        if (modelAndView != null && modelAndView.getViewName() != null
+                && !modelAndView.getViewName().startsWith("redirect:")) {
+            request.setAttribute(ATRIBUTO_VISTA, modelAndView.getViewName());
+            request.setAttribute(ATRIBUTO_INICIO, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        Object inicio = request.getAttribute(ATRIBUTO_INICIO);
+        if (inicio instanceof Long nanos) {
+            Timer.builder(METRICA)
+                .description("Tiempo de renderizado de plantillas Thymeleaf")
+                .tag("vista", (String) request.getAttribute(ATRIBUTO_VISTA))
+                .tag("modo", "completo")
+                .register(meterRegistry)
+                .record(System.nanoTime() - nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
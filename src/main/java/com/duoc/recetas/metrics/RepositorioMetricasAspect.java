@@ -0,0 +1,79 @@
+package com.duoc.recetas.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registra cuántas filas devuelve cada método de repositorio.
+ * 
+ * La latencia por método ya la mide Spring Boot
+ * (spring.data.repository.invocations); este aspecto completa esa
+ * información con recetas.repositorio.filas, útil para detectar consultas
+ * que devuelven demasiados resultados.
+ */
+@Aspect
+@Component
+public class RepositorioMetricasAspect {
+
+    /**
+     * Nombre de la métrica de filas devueltas.
+     */
+    public static final String METRICA = "recetas.repositorio.filas";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<String, DistributionSummary> resumenes = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<Class<?>, String> nombres = new ConcurrentHashMap<>();
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object medirFilas(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object resultado = joinPoint.proceed();
+
+        int filas;
+        if (resultado instanceof Collection<?> coleccion) {
+            filas = coleccion.size();
+        } else if (resultado instanceof Optional<?> opcional) {
+            filas = opcional.isPresent() ? 1 : 0;
+        } else {
+            // Streams, conteos y modificaciones no se miden aquí
+            return resultado;
+        }
+
+        String repositorio = nombreRepositorio(joinPoint.getThis());
+        String metodo = joinPoint.getSignature().getName();
+        resumenes.computeIfAbsent(repositorio + "." + metodo, clave -> DistributionSummary.builder(METRICA)
+                .description("Filas devueltas por consulta de repositorio")
+                .baseUnit("filas")
+                .tag("repositorio", repositorio)
+                .tag("metodo", metodo)
+                .register(meterRegistry))
+            .record(filas);
+
+        return resultado;
+    }
+
+    /**
+     * Nombre de la interfaz de repositorio de la aplicación que implementa el proxy.
+     */
+    private String nombreRepositorio(Object proxy) {
+        return nombres.computeIfAbsent(proxy.getClass(), clase ->
+            Arrays.stream(ClassUtils.getAllInterfacesForClass(clase))
+                .filter(i -> i.getPackageName().startsWith("com.duoc.recetas"))
+                .map(Class::getSimpleName)
+                .findFirst()
+                .orElse(clase.getSimpleName()));
+    }
+}
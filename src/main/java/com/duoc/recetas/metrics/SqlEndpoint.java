@@ -0,0 +1,54 @@
+package com.duoc.recetas.metrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Endpoint de administración con las estadísticas SQL por huella.
+ * 
+ * GET /actuator/sql?limite=20  → sentencias más costosas
+ * DELETE /actuator/sql          → reinicia las estadísticas
+ * 
+ * Requiere ROLE_ADMIN (ver SecurityConfig).
+ */
+@Component
+@Endpoint(id = "sql")
+public class SqlEndpoint {
+
+    @Autowired
+    private ObservadorSql observadorSql;
+
+    @ReadOperation
+    public Map<String, Object> estadisticas(@Nullable Integer limite) {
+        List<EstadisticaSql> sentencias = observadorSql.obtenerMasCostosas(limite != null ? limite : 20);
+
+        Map<String, Object> respuesta = new LinkedHashMap<>();
+        respuesta.put("umbralLentaMs", observadorSql.getUmbralLentaMs());
+        respuesta.put("muestreo", observadorSql.getMuestreo());
+        respuesta.put("sentencias", sentencias.stream().map(e -> {
+            Map<String, Object> fila = new LinkedHashMap<>();
+            fila.put("huella", e.getHuella());
+            fila.put("ejecuciones", e.getEjecuciones());
+            fila.put("errores", e.getErrores());
+            fila.put("lentas", e.getLentas());
+            fila.put("tiempoTotalMs", e.getTiempoTotalMs());
+            fila.put("tiempoPromedioMs", e.getTiempoPromedioMs());
+            fila.put("tiempoMaximoMs", e.getTiempoMaximoMs());
+            return fila;
+        }).toList());
+        return respuesta;
+    }
+
+    @DeleteOperation
+    public void reiniciar() {
+        observadorSql.reiniciar();
+    }
+}
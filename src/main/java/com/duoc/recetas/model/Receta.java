@@ -62,15 +62,23 @@ public class Receta {
     private Integer tiempoCoccion;
 
     /**
-     * Lista de ingredientes necesarios (texto largo).
+     * Lista de ingredientes necesarios (texto largo, comprimido al
+     * almacenarse si recetas.compresion.habilitado=true y la columna ya es
+     * binaria, ver MigracionCompresionService).
+     * 
+     * columnDefinition solo aplica al esquema que genera Hibernate (H2); en
+     * MySQL la columna es TEXT hasta aplicar migracion-compresion.sql.
      */
-    @Column(columnDefinition = "TEXT")
+    @Convert(converter = TextoComprimidoConverter.class)
+    @Column(columnDefinition = "MEDIUMBLOB")
     private String ingredientes;
 
     /**
-     * Instrucciones de preparación paso a paso (texto largo).
+     * Instrucciones de preparación paso a paso (texto largo, comprimido
+     * igual que ingredientes).
      */
-    @Column(columnDefinition = "TEXT")
+    @Convert(converter = TextoComprimidoConverter.class)
+    @Column(columnDefinition = "MEDIUMBLOB")
     private String instrucciones;
 
     /**
@@ -115,6 +123,35 @@ public class Receta {
     @Column
     private Integer visualizaciones = 0;
 
+    /**
+     * Fecha de la última modificación (mantenida por la base de datos).
+     * Se usa como versión de la receta para ETag / Last-Modified.
+     */
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime ultimaModificacion;
+
+    /**
+     * Versión de la fotografía, usada en la URL de las imágenes derivadas
+     * (/images/recetas/{id}/{tamano}?v=...) para poder cachearlas sin
+     * revalidar: si cambia fotoUrl, cambia la URL.
+     * 
+     * @return Hash corto de fotoUrl
+     */
+    public String getFotoVersion() {
+        return versionFoto(fotoUrl);
+    }
+
+    /**
+     * Versión de una URL de fotografía (ver getFotoVersion), para quien
+     * tiene la URL pero no la entidad.
+     * 
+     * @param fotoUrl URL de la fotografía (puede ser null)
+     * @return Hash corto de la URL
+     */
+    public static String versionFoto(String fotoUrl) {
+        return fotoUrl != null ? Integer.toHexString(fotoUrl.hashCode()) : "0";
+    }
+
     /**
      * Inicializa la fecha de creación antes de persistir.
      */
@@ -0,0 +1,34 @@
+package com.duoc.recetas.model;
+
+import com.duoc.recetas.service.CompresionTextoService;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Convierte ingredientes e instrucciones de Receta a su formato de
+ * almacenamiento (BLOB, comprimido o no) y viceversa.
+ *
+ * Hibernate obtiene el converter del contenedor de Spring, por lo que
+ * admite inyección; por constructor, porque con Spring AOT las instancias
+ * que crea Hibernate no reciben los campos @Autowired. Se aplica también a las consultas JPQL que seleccionan
+ * estos atributos (por ejemplo FilaIngredientes).
+ */
+@Converter
+public class TextoComprimidoConverter implements AttributeConverter<String, byte[]> {
+
+    private final CompresionTextoService compresionTextoService;
+
+    public TextoComprimidoConverter(CompresionTextoService compresionTextoService) {
+        this.compresionTextoService = compresionTextoService;
+    }
+
+    @Override
+    public byte[] convertToDatabaseColumn(String texto) {
+        return compresionTextoService.codificar(texto);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] datos) {
+        return compresionTextoService.decodificar(datos);
+    }
+}
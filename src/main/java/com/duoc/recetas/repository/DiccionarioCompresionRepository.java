@@ -0,0 +1,65 @@
+package com.duoc.recetas.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acceso con JDBC a diccionarios_compresion (diccionarios de CompresorTexto).
+ *
+ * Los diccionarios no se modifican ni se eliminan: los valores comprimidos
+ * guardan el ID del diccionario con que se comprimieron.
+ */
+@Repository
+public class DiccionarioCompresionRepository {
+
+    private static final String SQL_BUSCAR = "SELECT contenido FROM diccionarios_compresion WHERE id = ?";
+
+    private static final String SQL_ULTIMO =
+        "SELECT id, contenido FROM diccionarios_compresion ORDER BY id DESC LIMIT 1";
+
+    private static final String SQL_MAXIMO_ID = "SELECT COALESCE(MAX(id), 0) FROM diccionarios_compresion";
+
+    private static final String SQL_INSERTAR =
+        "INSERT INTO diccionarios_compresion (id, contenido, muestras, creado_en) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param id ID del diccionario
+     * @return Contenido del diccionario, o null si no existe
+     */
+    public byte[] buscar(int id) {
+        List<byte[]> contenido = jdbcTemplate.query(SQL_BUSCAR, (rs, fila) -> rs.getBytes(1), id);
+        return contenido.isEmpty() ? null : contenido.get(0);
+    }
+
+    /**
+     * @return Diccionario más reciente (ID → contenido), vacío si no hay
+     */
+    public Map<Integer, byte[]> buscarUltimo() {
+        List<Map<Integer, byte[]>> ultimo = jdbcTemplate.query(SQL_ULTIMO,
+            (rs, fila) -> Map.of(rs.getInt(1), rs.getBytes(2)));
+        return ultimo.isEmpty() ? Map.of() : ultimo.get(0);
+    }
+
+    /**
+     * Inserta un diccionario con el siguiente ID libre.
+     *
+     * @param contenido Contenido del diccionario
+     * @param muestras Textos usados para entrenarlo
+     * @return ID asignado
+     */
+    public int insertar(byte[] contenido, int muestras) {
+        Integer maximo = jdbcTemplate.queryForObject(SQL_MAXIMO_ID, Integer.class);
+        int id = (maximo != null ? maximo : 0) + 1;
+        // Si otra instancia inserta el mismo ID a la vez, la clave primaria lo rechaza
+        jdbcTemplate.update(SQL_INSERTAR, id, contenido, muestras, LocalDateTime.now());
+        return id;
+    }
+}
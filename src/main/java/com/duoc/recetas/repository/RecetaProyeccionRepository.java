@@ -0,0 +1,122 @@
+package com.duoc.recetas.repository;
+
+import com.duoc.recetas.dto.CampoReceta;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Consultas JPQL de recetas que seleccionan solo los campos pedidos por la
+ * API JSON (proyecciones dinámicas, sin cargar entidades).
+ *
+ * Cada fila es un Object[] con los valores en el orden de los campos
+ * (orden del enum CampoReceta). Ingredientes e instrucciones pasan por
+ * TextoComprimidoConverter igual que en la entidad.
+ */
+@Repository
+public class RecetaProyeccionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Busca recetas con los criterios de RecetaRepository.buscarRecetas, en
+     * orden de ID y a partir de un ID (paginación por clave).
+     *
+     * Solo se agregan al WHERE los criterios presentes. Debe consumirse
+     * dentro de una transacción y cerrarse al terminar.
+     *
+     * @param campos Campos a seleccionar
+     * @param nombre Nombre de la receta (opcional)
+     * @param tipoCocina Tipo de cocina (opcional)
+     * @param paisOrigen País de origen (opcional)
+     * @param dificultad Dificultad (opcional)
+     * @param desdeId ID a partir del cual buscar (exclusivo)
+     * @param limite Filas máximas
+     * @return Stream de filas
+     */
+    public Stream<Object[]> buscar(Set<CampoReceta> campos, String nombre, String tipoCocina,
+                                   String paisOrigen, String dificultad, long desdeId, int limite) {
+        StringBuilder jpql = new StringBuilder(seleccion(campos)).append(" WHERE r.id > :desdeId");
+        List<String> parametros = new ArrayList<>();
+        List<String> valores = new ArrayList<>();
+        if (nombre != null) {
+            jpql.append(" AND LOWER(r.nombre) LIKE LOWER(CONCAT('%', :nombre, '%'))");
+            parametros.add("nombre");
+            valores.add(nombre);
+        }
+        if (tipoCocina != null) {
+            jpql.append(" AND LOWER(r.tipoCocina) LIKE LOWER(CONCAT('%', :tipoCocina, '%'))");
+            parametros.add("tipoCocina");
+            valores.add(tipoCocina);
+        }
+        if (paisOrigen != null) {
+            jpql.append(" AND LOWER(r.paisOrigen) LIKE LOWER(CONCAT('%', :paisOrigen, '%'))");
+            parametros.add("paisOrigen");
+            valores.add(paisOrigen);
+        }
+        if (dificultad != null) {
+            jpql.append(" AND LOWER(r.dificultad) = LOWER(:dificultad)");
+            parametros.add("dificultad");
+            valores.add(dificultad);
+        }
+        jpql.append(" ORDER BY r.id");
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class)
+            .setParameter("desdeId", desdeId)
+            .setMaxResults(limite)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, Math.min(limite, 100))
+            .setHint(HibernateHints.HINT_READ_ONLY, true);
+        for (int i = 0; i < parametros.size(); i++) {
+            query.setParameter(parametros.get(i), valores.get(i));
+        }
+        return query.getResultStream();
+    }
+
+    /**
+     * @param campos Campos a seleccionar
+     * @param id ID de la receta
+     * @return Fila de la receta si existe
+     */
+    public Optional<Object[]> buscarPorId(Set<CampoReceta> campos, Long id) {
+        return entityManager.createQuery(seleccion(campos) + " WHERE r.id = :id", Object[].class)
+            .setParameter("id", id)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream()
+            .findFirst();
+    }
+
+    /**
+     * Versión del catálogo para los ETags de la búsqueda: última
+     * modificación, mayor ID y cantidad de recetas. Los máximos no cambian
+     * al eliminar una receta que no es la última; la cantidad sí.
+     *
+     * @return [ultimaModificacion, id, cantidad] (máximos null si no hay recetas)
+     */
+    public Object[] obtenerVersionCatalogo() {
+        return entityManager.createQuery(
+            "SELECT MAX(r.ultimaModificacion), MAX(r.id), COUNT(r) FROM Receta r",
+            Object[].class).getSingleResult();
+    }
+
+    private static String seleccion(Set<CampoReceta> campos) {
+        StringBuilder jpql = new StringBuilder("SELECT ");
+        boolean primero = true;
+        for (CampoReceta campo : campos) {
+            if (!primero) {
+                jpql.append(", ");
+            }
+            jpql.append(campo.getAtributo());
+            primero = false;
+        }
+        return jpql.append(" FROM Receta r").toString();
+    }
+}
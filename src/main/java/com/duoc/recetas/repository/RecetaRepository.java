@@ -1,12 +1,26 @@
 package com.duoc.recetas.repository;
 
+import com.duoc.recetas.dto.FilaCatalogo;
+import com.duoc.recetas.dto.FilaIngredientes;
+import com.duoc.recetas.dto.RecetaDetalle;
+import com.duoc.recetas.dto.RecetaVersion;
+import com.duoc.recetas.dto.TarjetaReceta;
 import com.duoc.recetas.model.Receta;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para operaciones de base de datos relacionadas con Receta.
@@ -78,5 +92,123 @@ public interface RecetaRepository extends JpaRepository<Receta, Long> {
                                 @Param("tipoCocina") String tipoCocina,
                                 @Param("paisOrigen") String paisOrigen,
                                 @Param("dificultad") String dificultad);
-}
 
+    /**
+     * Igual que {@link #buscarRecetas} pero lee solo las columnas de las
+     * tarjetas, en orden de ID y por bloques (keyset): cada llamada devuelve
+     * hasta limite recetas con ID mayor que desdeId.
+     * 
+     * @param nombre Nombre de la receta
+     * @param tipoCocina Tipo de cocina
+     * @param paisOrigen País de origen
+     * @param dificultad Dificultad
+     * @param desdeId Último ID del bloque anterior (0 para el primero)
+     * @param limite Filas máximas del bloque
+     * @return Tarjetas del bloque, en orden de ID
+     */
+    @Query("SELECT new com.duoc.recetas.dto.TarjetaReceta(r.id, r.nombre, r.descripcion, r.tipoCocina, " +
+           "r.paisOrigen, r.dificultad, r.tiempoCoccion, r.porciones, r.fotoUrl, " +
+           "COALESCE(r.ultimaModificacion, r.fechaCreacion)) FROM Receta r WHERE r.id > :desdeId AND " +
+           "(:nombre IS NULL OR LOWER(r.nombre) LIKE LOWER(CONCAT('%', :nombre, '%'))) AND " +
+           "(:tipoCocina IS NULL OR LOWER(r.tipoCocina) LIKE LOWER(CONCAT('%', :tipoCocina, '%'))) AND " +
+           "(:paisOrigen IS NULL OR LOWER(r.paisOrigen) LIKE LOWER(CONCAT('%', :paisOrigen, '%'))) AND " +
+           "(:dificultad IS NULL OR LOWER(r.dificultad) = LOWER(:dificultad)) ORDER BY r.id")
+    List<TarjetaReceta> buscarTarjetas(@Param("nombre") String nombre,
+                                       @Param("tipoCocina") String tipoCocina,
+                                       @Param("paisOrigen") String paisOrigen,
+                                       @Param("dificultad") String dificultad,
+                                       @Param("desdeId") long desdeId,
+                                       Limit limite);
+
+    /**
+     * Lee las columnas de las tarjetas de una lista de IDs (en cualquier orden).
+     * 
+     * @param ids IDs de las recetas
+     * @return Tarjetas de las recetas que existen
+     */
+    @Query("SELECT new com.duoc.recetas.dto.TarjetaReceta(r.id, r.nombre, r.descripcion, r.tipoCocina, " +
+           "r.paisOrigen, r.dificultad, r.tiempoCoccion, r.porciones, r.fotoUrl, " +
+           "COALESCE(r.ultimaModificacion, r.fechaCreacion)) FROM Receta r WHERE r.id IN :ids")
+    List<TarjetaReceta> findTarjetasByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Recorre las columnas del catálogo columnar (sin columnas TEXT), en
+     * orden de ID, con un cursor JDBC.
+     * 
+     * @return Stream de filas del catálogo
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.duoc.recetas.dto.FilaCatalogo(r.id, r.nombre, r.tipoCocina, r.paisOrigen, " +
+           "r.dificultad, r.tiempoCoccion, r.porciones, r.visualizaciones) FROM Receta r ORDER BY r.id")
+    Stream<FilaCatalogo> streamFilasCatalogo();
+
+    /**
+     * Recorre los ingredientes de todas las recetas con un cursor JDBC, para
+     * construir el índice de recetas similares.
+     *
+     * @return Stream de ingredientes por receta
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.duoc.recetas.dto.FilaIngredientes(r.id, r.ingredientes, r.ultimaModificacion) " +
+           "FROM Receta r")
+    Stream<FilaIngredientes> streamIngredientes();
+
+    /**
+     * Obtiene los ingredientes de las recetas modificadas desde una fecha
+     * (inclusive), usando idx_ultima_modificacion.
+     *
+     * @param desde Fecha de la última modificación ya procesada
+     * @return Ingredientes de las recetas modificadas
+     */
+    @Query("SELECT new com.duoc.recetas.dto.FilaIngredientes(r.id, r.ingredientes, r.ultimaModificacion) " +
+           "FROM Receta r WHERE r.ultimaModificacion >= :desde")
+    List<FilaIngredientes> findIngredientesModificadosDesde(@Param("desde") LocalDateTime desde);
+
+    /**
+     * Obtiene las columnas de la página de detalle de una receta en una
+     * sola consulta, sin cargar la entidad.
+     * 
+     * @param id ID de la receta
+     * @return Optional con el detalle si la receta existe
+     */
+    @Query("SELECT new com.duoc.recetas.dto.RecetaDetalle(r.id, r.nombre, r.descripcion, r.tipoCocina, " +
+           "r.paisOrigen, r.dificultad, r.tiempoCoccion, r.porciones, r.ingredientes, r.instrucciones, " +
+           "r.fotoUrl, r.visualizaciones, r.ultimaModificacion) FROM Receta r WHERE r.id = :id")
+    Optional<RecetaDetalle> findDetalleById(@Param("id") Long id);
+
+    /**
+     * Obtiene solo la versión (ID y última modificación) de una receta.
+     * 
+     * Consulta liviana usada para responder peticiones condicionales (304)
+     * sin cargar las columnas TEXT de la receta.
+     * 
+     * @param id ID de la receta
+     * @return Optional con la versión si la receta existe
+     */
+    @Query("SELECT r.id AS id, r.ultimaModificacion AS ultimaModificacion FROM Receta r WHERE r.id = :id")
+    Optional<RecetaVersion> findVersionById(@Param("id") Long id);
+
+    /**
+     * Obtiene solo la URL de la fotografía de una receta.
+     * 
+     * @param id ID de la receta
+     * @return Optional con la URL si la receta existe y tiene fotografía
+     */
+    @Query("SELECT r.fotoUrl FROM Receta r WHERE r.id = :id")
+    Optional<String> findFotoUrlById(@Param("id") Long id);
+
+    /**
+     * Incrementa el contador de visualizaciones con un único UPDATE.
+     * 
+     * Asigna explícitamente ultimaModificacion a su propio valor para que
+     * MySQL no aplique ON UPDATE CURRENT_TIMESTAMP: una visita no es una
+     * modificación de la receta y no debe invalidar su ETag.
+     * 
+     * @param id ID de la receta
+     * @return Número de filas actualizadas
+     */
+    @Modifying
+    @Query("UPDATE Receta r SET r.visualizaciones = COALESCE(r.visualizaciones, 0) + 1, " +
+           "r.ultimaModificacion = r.ultimaModificacion WHERE r.id = :id")
+    int incrementarVisualizaciones(@Param("id") Long id);
+}
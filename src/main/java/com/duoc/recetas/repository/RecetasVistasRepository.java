@@ -0,0 +1,76 @@
+package com.duoc.recetas.repository;
+
+import com.duoc.recetas.dto.RecetaVista;
+import com.duoc.recetas.model.Receta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acceso con JDBC a usuarios_recetas_vistas (recetas vistas recientemente
+ * por cada usuario).
+ *
+ * La lista en memoria de RecientesService es la fuente de verdad: al
+ * guardar se reemplazan todas las filas del usuario por su lista actual,
+ * con lo que la tabla nunca supera el máximo por usuario.
+ */
+@Repository
+public class RecetasVistasRepository {
+
+    private static final String SQL_BORRAR = "DELETE FROM usuarios_recetas_vistas WHERE username = ?";
+
+    private static final String SQL_INSERTAR =
+        "INSERT INTO usuarios_recetas_vistas (username, receta_id, vista_en) VALUES (?, ?, ?)";
+
+    private static final String SQL_LISTAR =
+        "SELECT v.receta_id, r.nombre, r.foto_url, v.vista_en FROM usuarios_recetas_vistas v " +
+        "JOIN recetas r ON r.id = v.receta_id " +
+        "WHERE v.username = ? ORDER BY v.vista_en DESC LIMIT ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reemplaza las recetas vistas de varios usuarios, con dos lotes JDBC
+     * (borrado e inserción). Debe llamarse dentro de una transacción.
+     *
+     * @param listas Recetas vistas por usuario
+     * @param tamanoLote Filas por lote JDBC
+     */
+    public void reemplazar(Map<String, List<RecetaVista>> listas, int tamanoLote) {
+        List<Object[]> usuarios = new ArrayList<>(listas.size());
+        List<Object[]> filas = new ArrayList<>();
+        listas.forEach((username, vistas) -> {
+            usuarios.add(new Object[] {username});
+            for (RecetaVista vista : vistas) {
+                filas.add(new Object[] {username, vista.recetaId(), vista.vistaEn()});
+            }
+        });
+        jdbcTemplate.batchUpdate(SQL_BORRAR, usuarios);
+        jdbcTemplate.batchUpdate(SQL_INSERTAR, filas, tamanoLote, (ps, fila) -> {
+            ps.setString(1, (String) fila[0]);
+            ps.setLong(2, (Long) fila[1]);
+            ps.setObject(3, fila[2]);
+        });
+    }
+
+    /**
+     * Recetas vistas por un usuario, de la más a la menos reciente. Omite
+     * las recetas que ya no existen.
+     *
+     * @param username Usuario
+     * @param limite Recetas máximas
+     * @return Recetas vistas
+     */
+    public List<RecetaVista> listar(String username, int limite) {
+        return jdbcTemplate.query(SQL_LISTAR,
+            (rs, fila) -> new RecetaVista(rs.getLong("receta_id"), rs.getString("nombre"),
+                Receta.versionFoto(rs.getString("foto_url")), rs.getObject("vista_en", LocalDateTime.class)),
+            username, limite);
+    }
+}
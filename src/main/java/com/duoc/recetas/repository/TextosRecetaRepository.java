@@ -0,0 +1,141 @@
+package com.duoc.recetas.repository;
+
+import com.duoc.recetas.dto.TextosReceta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Acceso con JDBC a las columnas ingredientes e instrucciones de recetas
+ * tal como están almacenadas, sin pasar por TextoComprimidoConverter.
+ *
+ * Lo usa la migración a formato comprimido y de vuelta a UTF-8
+ * (MigracionCompresionService). Un valor sin comprimir es el que no empieza
+ * con el byte 0x00 de la cabecera de CompresorTexto.
+ */
+@Repository
+public class TextosRecetaRepository {
+
+    private static final String SQL_MUESTRA =
+        "SELECT id, ingredientes, instrucciones FROM recetas ORDER BY id DESC LIMIT ?";
+
+    private static final String SQL_SIN_COMPRIMIR =
+        "SELECT id, ingredientes, instrucciones FROM recetas WHERE id > ? " +
+        "AND (SUBSTRING(ingredientes, 1, 1) <> X'00' OR SUBSTRING(instrucciones, 1, 1) <> X'00') " +
+        "ORDER BY id LIMIT ?";
+
+    private static final String SQL_COMPRIMIDAS =
+        "SELECT id, ingredientes, instrucciones FROM recetas WHERE id > ? " +
+        "AND (SUBSTRING(ingredientes, 1, 1) = X'00' OR SUBSTRING(instrucciones, 1, 1) = X'00') " +
+        "ORDER BY id LIMIT ?";
+
+    // Solo si las columnas no cambiaron desde la lectura: no pisa una edición concurrente.
+    // No modifica ultima_modificacion (el contenido es el mismo)
+    private static final String SQL_REEMPLAZAR =
+        "UPDATE recetas SET ingredientes = ?, instrucciones = ?, ultima_modificacion = ultima_modificacion " +
+        "WHERE id = ? AND (ingredientes = ? OR (ingredientes IS NULL AND ? IS NULL)) " +
+        "AND (instrucciones = ? OR (instrucciones IS NULL AND ? IS NULL))";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param limite Recetas máximas
+     * @return Textos de las recetas más recientes
+     */
+    public List<TextosReceta> muestra(int limite) {
+        return jdbcTemplate.query(SQL_MUESTRA, (rs, fila) -> new TextosReceta(rs.getLong("id"),
+            rs.getBytes("ingredientes"), rs.getBytes("instrucciones")), limite);
+    }
+
+    /**
+     * Recetas con alguna de las dos columnas sin comprimir, en orden de ID.
+     *
+     * @param desdeId ID a partir del cual buscar (exclusivo)
+     * @param limite Recetas máximas
+     * @return Textos almacenados
+     */
+    public List<TextosReceta> buscarSinComprimir(long desdeId, int limite) {
+        return jdbcTemplate.query(SQL_SIN_COMPRIMIR, (rs, fila) -> new TextosReceta(rs.getLong("id"),
+            rs.getBytes("ingredientes"), rs.getBytes("instrucciones")), desdeId, limite);
+    }
+
+    /**
+     * Recetas con alguna de las dos columnas comprimida, en orden de ID.
+     *
+     * @param desdeId ID a partir del cual buscar (exclusivo)
+     * @param limite Recetas máximas
+     * @return Textos almacenados
+     */
+    public List<TextosReceta> buscarComprimidas(long desdeId, int limite) {
+        return jdbcTemplate.query(SQL_COMPRIMIDAS, (rs, fila) -> new TextosReceta(rs.getLong("id"),
+            rs.getBytes("ingredientes"), rs.getBytes("instrucciones")), desdeId, limite);
+    }
+
+    /**
+     * Indica si ingredientes e instrucciones son columnas binarias (BLOB).
+     * Un valor comprimido no es UTF-8 válido y no se puede guardar en una
+     * columna TEXT.
+     *
+     * @return true si ambas columnas son binarias
+     */
+    public boolean columnasBinarias() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) conexion -> {
+            DatabaseMetaData metaData = conexion.getMetaData();
+            return esBinaria(metaData, conexion.getCatalog(), "ingredientes")
+                && esBinaria(metaData, conexion.getCatalog(), "instrucciones");
+        }));
+    }
+
+    /**
+     * Reemplaza los textos de varias recetas en lotes JDBC, solo donde
+     * siguen iguales a los leídos.
+     *
+     * @param anteriores Textos leídos
+     * @param nuevos Textos a guardar (misma posición que anteriores)
+     * @param tamanoLote Filas por lote JDBC
+     */
+    public void reemplazar(List<TextosReceta> anteriores, List<TextosReceta> nuevos, int tamanoLote) {
+        List<TextosReceta[]> filas = new ArrayList<>(nuevos.size());
+        for (int i = 0; i < nuevos.size(); i++) {
+            filas.add(new TextosReceta[] {anteriores.get(i), nuevos.get(i)});
+        }
+        jdbcTemplate.batchUpdate(SQL_REEMPLAZAR, filas, tamanoLote, (ps, fila) -> {
+            TextosReceta anterior = fila[0];
+            TextosReceta nuevo = fila[1];
+            ps.setBytes(1, nuevo.ingredientes());
+            ps.setBytes(2, nuevo.instrucciones());
+            ps.setLong(3, nuevo.id());
+            ps.setBytes(4, anterior.ingredientes());
+            ps.setBytes(5, anterior.ingredientes());
+            ps.setBytes(6, anterior.instrucciones());
+            ps.setBytes(7, anterior.instrucciones());
+        });
+    }
+
+    private static boolean esBinaria(DatabaseMetaData metaData, String catalogo, String columna)
+            throws SQLException {
+        String tabla = "recetas";
+        if (metaData.storesUpperCaseIdentifiers()) {
+            tabla = tabla.toUpperCase(Locale.ROOT);
+            columna = columna.toUpperCase(Locale.ROOT);
+        }
+        try (ResultSet rs = metaData.getColumns(catalogo, null, tabla, columna)) {
+            if (!rs.next()) {
+                return false;
+            }
+            int tipo = rs.getInt("DATA_TYPE");
+            return tipo == Types.BLOB || tipo == Types.LONGVARBINARY
+                || tipo == Types.VARBINARY || tipo == Types.BINARY;
+        }
+    }
+}
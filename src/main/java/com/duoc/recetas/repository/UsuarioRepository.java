@@ -2,6 +2,8 @@ package com.duoc.recetas.repository;
 
 import com.duoc.recetas.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -22,6 +24,16 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
      */
     Optional<Usuario> findByUsername(String username);
 
+    /**
+     * Busca un usuario por su nombre de usuario junto con sus roles, en una
+     * sola consulta (findByUsername carga los roles con otra consulta).
+     * 
+     * @param username Nombre de usuario a buscar
+     * @return Optional con el usuario y sus roles si existe
+     */
+    @Query("SELECT DISTINCT u FROM Usuario u LEFT JOIN FETCH u.roles WHERE u.username = :username")
+    Optional<Usuario> findConRolesByUsername(@Param("username") String username);
+
     /**
      * Verifica si existe un usuario con el username dado.
      * 
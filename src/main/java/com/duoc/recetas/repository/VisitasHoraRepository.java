@@ -0,0 +1,93 @@
+package com.duoc.recetas.repository;
+
+import com.duoc.recetas.dto.RecetaVisitas;
+import com.duoc.recetas.dto.VisitasHora;
+import com.duoc.recetas.dto.VisitasRecetaHora;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Acceso con JDBC a recetas_visitas_hora (visitas por receta y hora).
+ *
+ * No es un repositorio JPA: la escritura es un upsert por lotes
+ * (INSERT ... ON DUPLICATE KEY UPDATE, válido en MySQL y en H2 en modo
+ * MySQL) que suma a la fila existente sin leerla antes.
+ */
+@Repository
+public class VisitasHoraRepository {
+
+    private static final String SQL_SUMAR =
+        "INSERT INTO recetas_visitas_hora (receta_id, hora, visitas) VALUES (?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE visitas = visitas + VALUES(visitas)";
+
+    private static final String SQL_SERIE =
+        "SELECT hora, visitas FROM recetas_visitas_hora " +
+        "WHERE receta_id = ? AND hora >= ? AND hora < ? ORDER BY hora";
+
+    private static final String SQL_MAS_VISITADAS =
+        "SELECT v.receta_id, r.nombre, SUM(v.visitas) AS total FROM recetas_visitas_hora v " +
+        "JOIN recetas r ON r.id = v.receta_id " +
+        "WHERE v.hora >= ? AND v.hora < ? " +
+        "GROUP BY v.receta_id, r.nombre ORDER BY total DESC LIMIT ?";
+
+    private static final String SQL_PURGAR = "DELETE FROM recetas_visitas_hora WHERE hora < ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Suma visitas a sus filas (receta, hora), creándolas si no existen.
+     *
+     * @param visitas Visitas agregadas
+     * @param tamanoLote Filas por lote JDBC
+     */
+    public void sumarVisitas(List<VisitasRecetaHora> visitas, int tamanoLote) {
+        jdbcTemplate.batchUpdate(SQL_SUMAR, visitas, tamanoLote, (ps, v) -> {
+            ps.setLong(1, v.recetaId());
+            ps.setObject(2, v.hora());
+            ps.setInt(3, v.visitas());
+        });
+    }
+
+    /**
+     * Visitas por hora de una receta (solo las horas con visitas).
+     *
+     * @param recetaId ID de la receta
+     * @param desde Inicio de la ventana (inclusive, UTC)
+     * @param hasta Fin de la ventana (exclusive, UTC)
+     * @return Horas con visitas, en orden cronológico
+     */
+    public List<VisitasHora> obtenerSerie(Long recetaId, LocalDateTime desde, LocalDateTime hasta) {
+        return jdbcTemplate.query(SQL_SERIE,
+            (rs, fila) -> new VisitasHora(rs.getObject("hora", LocalDateTime.class), rs.getLong("visitas")),
+            recetaId, desde, hasta);
+    }
+
+    /**
+     * Recetas con más visitas en una ventana.
+     *
+     * @param desde Inicio de la ventana (inclusive, UTC)
+     * @param hasta Fin de la ventana (exclusive, UTC)
+     * @param limite Recetas máximas
+     * @return Recetas de la más a la menos visitada
+     */
+    public List<RecetaVisitas> obtenerMasVisitadas(LocalDateTime desde, LocalDateTime hasta, int limite) {
+        return jdbcTemplate.query(SQL_MAS_VISITADAS,
+            (rs, fila) -> new RecetaVisitas(rs.getLong("receta_id"), rs.getString("nombre"), rs.getLong("total")),
+            desde, hasta, limite);
+    }
+
+    /**
+     * Elimina las horas anteriores a una fecha.
+     *
+     * @param antesDe Primera hora que se conserva (UTC)
+     * @return Filas eliminadas
+     */
+    public int purgar(LocalDateTime antesDe) {
+        return jdbcTemplate.update(SQL_PURGAR, antesDe);
+    }
+}
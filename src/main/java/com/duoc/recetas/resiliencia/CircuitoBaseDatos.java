@@ -0,0 +1,216 @@
+package com.duoc.recetas.resiliencia;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Circuit breaker de las lecturas a la base de datos.
+ *
+ * - CERRADO: las lecturas van a la base de datos. Se guarda el resultado de
+ *   las últimas N llamadas (ventana); si hay al menos minimo-llamadas y el
+ *   porcentaje de fallos (errores y timeouts) alcanza el umbral, pasa a
+ *   ABIERTO. Las lecturas rechazadas por el pool (descarte de carga) solo
+ *   se cuentan en las métricas: no dicen nada del estado de la base de datos.
+ * - ABIERTO: no se consulta la base de datos durante espera-abierto; se
+ *   responde con la caché de respaldo.
+ * - SEMI_ABIERTO: pasado ese tiempo se permite una sola lectura de prueba.
+ *   Si funciona vuelve a CERRADO; si falla, a ABIERTO.
+ *
+ * Métricas: recetas.circuito.estado (1 en el estado actual),
+ * recetas.circuito.llamadas (por resultado) y recetas.circuito.transiciones.
+ */
+@Component
+public class CircuitoBaseDatos {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitoBaseDatos.class);
+
+    /**
+     * Estados del circuito.
+     */
+    public enum Estado {
+        CERRADO, ABIERTO, SEMI_ABIERTO
+    }
+
+    /**
+     * Qué hacer con una lectura.
+     */
+    public enum Permiso {
+        /** Consultar la base de datos. */
+        PERMITIDO,
+        /** Consultar la base de datos como lectura de prueba (SEMI_ABIERTO). */
+        PRUEBA,
+        /** No consultar: usar la caché de respaldo. */
+        DENEGADO
+    }
+
+    /**
+     * Resultado de una llamada, para métricas.
+     */
+    public enum Resultado {
+        EXITO, FALLO, TIMEOUT,
+        /** No llegó a la base de datos (pool lleno o descartada en la cola). */
+        RECHAZADA
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${recetas.resiliencia.circuito.ventana:20}")
+    private int ventana;
+
+    @Value("${recetas.resiliencia.circuito.minimo-llamadas:10}")
+    private int minimoLlamadas;
+
+    @Value("${recetas.resiliencia.circuito.umbral-fallos:50}")
+    private int umbralFallos;
+
+    @Value("${recetas.resiliencia.circuito.espera-abierto:10s}")
+    private Duration esperaAbierto;
+
+    private Estado estado = Estado.CERRADO;
+
+    private boolean[] fallos;
+
+    private int posicion;
+
+    private int llamadas;
+
+    private int totalFallos;
+
+    private long abiertoHasta;
+
+    private boolean pruebaEnCurso;
+
+    private final Map<Resultado, Counter> contadores = new EnumMap<>(Resultado.class);
+
+    private final Map<Estado, Counter> transiciones = new EnumMap<>(Estado.class);
+
+    @PostConstruct
+    void inicializar() {
+        fallos = new boolean[Math.max(1, ventana)];
+        for (Estado e : Estado.values()) {
+            Gauge.builder("recetas.circuito.estado", this, c -> c.getEstado() == e ? 1 : 0)
+                .description("Estado del circuit breaker de lecturas (1 = estado actual)")
+                .tag("estado", e.name().toLowerCase())
+                .register(meterRegistry);
+            transiciones.put(e, Counter.builder("recetas.circuito.transiciones")
+                .description("Cambios de estado del circuit breaker de lecturas")
+                .tag("hacia", e.name().toLowerCase())
+                .register(meterRegistry));
+        }
+        for (Resultado r : Resultado.values()) {
+            contadores.put(r, Counter.builder("recetas.circuito.llamadas")
+                .description("Lecturas a la base de datos por resultado")
+                .tag("resultado", r.name().toLowerCase())
+                .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Decide si una lectura puede ir a la base de datos.
+     *
+     * @return PERMITIDO, PRUEBA (única lectura en SEMI_ABIERTO) o DENEGADO
+     */
+    public synchronized Permiso solicitarPermiso() {
+        if (estado == Estado.ABIERTO && System.nanoTime() - abiertoHasta >= 0) {
+            cambiarEstado(Estado.SEMI_ABIERTO);
+        }
+        return switch (estado) {
+            case CERRADO -> Permiso.PERMITIDO;
+            case ABIERTO -> Permiso.DENEGADO;
+            case SEMI_ABIERTO -> {
+                if (pruebaEnCurso) {
+                    yield Permiso.DENEGADO;
+                }
+                pruebaEnCurso = true;
+                yield Permiso.PRUEBA;
+            }
+        };
+    }
+
+    /**
+     * Registra el resultado de una lectura autorizada.
+     *
+     * @param permiso Permiso con el que se hizo la lectura
+     * @param resultado Resultado de la lectura
+     */
+    public synchronized void registrar(Permiso permiso, Resultado resultado) {
+        contadores.get(resultado).increment();
+        if (resultado == Resultado.RECHAZADA) {
+            // Sin resultado: en SEMI_ABIERTO se permite otra lectura de prueba
+            if (permiso == Permiso.PRUEBA) {
+                pruebaEnCurso = false;
+            }
+            return;
+        }
+        boolean fallo = resultado != Resultado.EXITO;
+
+        if (permiso == Permiso.PRUEBA) {
+            pruebaEnCurso = false;
+            if (fallo) {
+                abrir();
+            } else {
+                reiniciarVentana();
+                cambiarEstado(Estado.CERRADO);
+            }
+            return;
+        }
+        if (estado != Estado.CERRADO) {
+            // Llamadas iniciadas antes de abrir el circuito
+            return;
+        }
+
+        if (llamadas == fallos.length) {
+            totalFallos -= fallos[posicion] ? 1 : 0;
+        } else {
+            llamadas++;
+        }
+        fallos[posicion] = fallo;
+        totalFallos += fallo ? 1 : 0;
+        posicion = (posicion + 1) % fallos.length;
+
+        if (llamadas >= minimoLlamadas && totalFallos * 100 >= umbralFallos * llamadas) {
+            abrir();
+        }
+    }
+
+    public synchronized Estado getEstado() {
+        return estado;
+    }
+
+    private void abrir() {
+        abiertoHasta = System.nanoTime() + esperaAbierto.toNanos();
+        reiniciarVentana();
+        cambiarEstado(Estado.ABIERTO);
+    }
+
+    private void reiniciarVentana() {
+        posicion = 0;
+        llamadas = 0;
+        totalFallos = 0;
+    }
+
+    private void cambiarEstado(Estado nuevo) {
+        if (estado == nuevo && nuevo != Estado.ABIERTO) {
+            return;
+        }
+        if (nuevo == Estado.CERRADO) {
+            log.info("Circuito de lecturas: {} -> {}", estado, nuevo);
+        } else {
+            log.warn("Circuito de lecturas: {} -> {}", estado, nuevo);
+        }
+        estado = nuevo;
+        transiciones.get(nuevo).increment();
+    }
+}
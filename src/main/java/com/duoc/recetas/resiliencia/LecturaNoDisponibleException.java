@@ -0,0 +1,15 @@
+package com.duoc.recetas.resiliencia;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * La base de datos no respondió y no hay un resultado anterior para servir.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class LecturaNoDisponibleException extends RuntimeException {
+
+    public LecturaNoDisponibleException(String lectura, Throwable causa) {
+        super("Lectura no disponible: " + lectura, causa);
+    }
+}
@@ -0,0 +1,26 @@
+package com.duoc.recetas.resiliencia;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca un método de lectura para ejecutarlo con timeout y circuit breaker,
+ * respondiendo con el último resultado correcto si la base de datos falla.
+ *
+ * Ver LecturaResilienteAspect.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface LecturaResiliente {
+
+    /**
+     * Nombre de la lectura en la clave de la caché de respaldo. Dos métodos
+     * con el mismo nombre y los mismos argumentos comparten la entrada.
+     * Por defecto, el nombre del método.
+     */
+    String value() default "";
+}
@@ -0,0 +1,364 @@
+package com.duoc.recetas.resiliencia;
+
+import com.duoc.recetas.cache.RespaldoLecturasCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Lecturas de RecetaService con timeout, circuit breaker y respaldo obsoleto
+ * (stale-while-revalidate).
+ *
+ * Para cada método anotado con @LecturaResiliente:
+ * 1. Si el circuito está CERRADO, la lectura se ejecuta en un pool acotado
+ *    (recetas.resiliencia.hilos) y el hilo de la petición espera como
+ *    máximo recetas.resiliencia.timeout. Si el pool está lleno la lectura
+ *    se rechaza de inmediato: un MySQL detenido no acapara los hilos de
+ *    Tomcat.
+ * 2. El resultado correcto se guarda en RespaldoLecturasCache. Ante un
+ *    error, timeout o rechazo se responde con esa copia; si no hay copia se
+ *    lanza LecturaNoDisponibleException (503).
+ *
+ * Al circuito solo llega lo que dice algo de la base de datos: la propia
+ * tarea registra éxito, error o TIMEOUT (si tardó más que el timeout,
+ * medido desde que empezó a ejecutarse, no desde que se encoló). Un pool
+ * lleno, o una lectura que seguía en la cola cuando venció la espera (se
+ * descarta sin ejecutarla), se registran como RECHAZADA: es descarte de
+ * carga y no abre el circuito.
+ *
+ * 3. Con el circuito ABIERTO se responde con la copia sin tocar la base de
+ *    datos.
+ * 4. En SEMI_ABIERTO, la primera petición recibe la copia y lanza la
+ *    lectura de prueba en segundo plano; si funciona, actualiza la copia y
+ *    cierra el circuito.
+ *
+ * Las lecturas en streaming (con un Consumer como argumento) se ejecutan en
+ * el hilo de la petición, porque el consumidor escribe la respuesta. Su
+ * tiempo lo acotan los timeouts de conexión (Hikari), de consulta
+ * (recetas.resiliencia.timeout-consulta, ver TimeoutConsultas) y de socket
+ * (socketTimeout en la URL de MySQL).
+ * Si fallan antes de emitir la primera fila se recorre la copia; si ya se
+ * emitieron filas, el error se propaga. De los recorridos largos (listado
+ * completo, búsqueda sin criterios) la copia guarda las primeras filas
+ * (recetas.resiliencia.respaldo.max-filas).
+ *
+ * Se ejecuta antes que @Transactional y @Timed, de modo que la transacción
+ * completa (incluida la espera por una conexión) queda dentro del timeout.
+ */
+@Aspect
+@Component
+@Order(0)
+public class LecturaResilienteAspect {
+
+    @Autowired
+    private CircuitoBaseDatos circuito;
+
+    @Autowired
+    private RespaldoLecturasCache respaldo;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TimeoutConsultas timeoutConsultas;
+
+    @Value("${recetas.resiliencia.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${recetas.resiliencia.timeout:1s}")
+    private Duration timeout;
+
+    @Value("${recetas.resiliencia.hilos:8}")
+    private int hilos;
+
+    @Value("${recetas.resiliencia.cola:32}")
+    private int cola;
+
+    private ThreadPoolExecutor ejecutor;
+
+    private Counter respaldoServido;
+
+    private Counter respaldoAusente;
+
+    @PostConstruct
+    void inicializar() {
+        AtomicInteger contador = new AtomicInteger();
+        ejecutor = new ThreadPoolExecutor(hilos, hilos, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, cola)), tarea -> {
+                Thread hilo = new Thread(tarea, "lectura-bd-" + contador.incrementAndGet());
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        ejecutor.allowCoreThreadTimeOut(true);
+
+        respaldoServido = Counter.builder("recetas.resiliencia.respaldo")
+            .description("Lecturas respondidas con la caché de respaldo")
+            .tag("resultado", "obsoleto")
+            .register(meterRegistry);
+        respaldoAusente = Counter.builder("recetas.resiliencia.respaldo")
+            .description("Lecturas respondidas con la caché de respaldo")
+            .tag("resultado", "sin_datos")
+            .register(meterRegistry);
+        Gauge.builder("recetas.resiliencia.respaldo.entradas", respaldo, RespaldoLecturasCache::getTamano)
+            .description("Entradas en la caché de respaldo")
+            .register(meterRegistry);
+        Gauge.builder("recetas.resiliencia.lecturas.en.curso", ejecutor, ThreadPoolExecutor::getActiveCount)
+            .description("Lecturas ejecutándose en el pool de lecturas")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void detener() {
+        ejecutor.shutdownNow();
+    }
+
+    @Around("@annotation(lectura)")
+    public Object leer(ProceedingJoinPoint joinPoint, LecturaResiliente lectura) throws Throwable {
+        if (!habilitado) {
+            return joinPoint.proceed();
+        }
+        Object[] args = joinPoint.getArgs();
+        int consumidor = indiceConsumidor(args);
+        String clave = clave(lectura.value().isEmpty() ? joinPoint.getSignature().getName() : lectura.value(),
+            args, consumidor);
+        return consumidor < 0
+            ? leerValor(joinPoint, clave)
+            : recorrer(joinPoint, clave, args, consumidor);
+    }
+
+    private Object leerValor(ProceedingJoinPoint joinPoint, String clave) {
+        CircuitoBaseDatos.Permiso permiso = circuito.solicitarPermiso();
+        if (permiso == CircuitoBaseDatos.Permiso.DENEGADO) {
+            return desdeRespaldo(clave, null);
+        }
+
+        Consulta consulta = joinPoint::proceed;
+        Optional<RespaldoLecturasCache.Entrada> entrada = respaldo.obtener(clave);
+        if (permiso == CircuitoBaseDatos.Permiso.PRUEBA && entrada.isPresent()) {
+            lanzar(consulta, permiso, clave);
+            respaldoServido.increment();
+            return entrada.get().valor();
+        }
+
+        Lectura pendiente = lanzar(consulta, permiso, clave);
+        try {
+            return pendiente.resultado.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Si seguía en la cola se descarta; si ya se ejecuta, termina en el
+            // pool (la corta TimeoutConsultas) y registra su resultado
+            pendiente.descartar();
+            return desdeRespaldo(clave, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return desdeRespaldo(clave, e);
+        } catch (ExecutionException e) {
+            return desdeRespaldo(clave, e.getCause());
+        }
+    }
+
+    /**
+     * Encola la lectura en el pool. Si el pool está lleno, la lectura queda
+     * fallida (RejectedExecutionException) y se registra como RECHAZADA.
+     */
+    private Lectura lanzar(Consulta consulta, CircuitoBaseDatos.Permiso permiso, String clave) {
+        Lectura lectura = new Lectura(consulta, permiso, clave);
+        try {
+            ejecutor.execute(lectura);
+        } catch (RejectedExecutionException e) {
+            circuito.registrar(permiso, CircuitoBaseDatos.Resultado.RECHAZADA);
+            lectura.resultado.completeExceptionally(e);
+        }
+        return lectura;
+    }
+
+    /**
+     * Lectura encolada en el pool. Registra su resultado en el circuito y
+     * guarda el valor en la caché de respaldo al terminar, aunque quien la
+     * pidió ya haya dejado de esperar.
+     */
+    private final class Lectura implements Runnable {
+
+        private final Consulta consulta;
+
+        private final CircuitoBaseDatos.Permiso permiso;
+
+        private final String clave;
+
+        /**
+         * Se toma al empezar a ejecutarla o al descartarla (lo primero que ocurra).
+         */
+        private final AtomicBoolean tomada = new AtomicBoolean();
+
+        private final CompletableFuture<Object> resultado = new CompletableFuture<>();
+
+        Lectura(Consulta consulta, CircuitoBaseDatos.Permiso permiso, String clave) {
+            this.consulta = consulta;
+            this.permiso = permiso;
+            this.clave = clave;
+        }
+
+        @Override
+        public void run() {
+            if (!tomada.compareAndSet(false, true)) {
+                return;
+            }
+            long inicio = System.nanoTime();
+            try {
+                Object valor = timeoutConsultas.ejecutar(consulta::ejecutar);
+                respaldo.guardar(clave, valor);
+                circuito.registrar(permiso, System.nanoTime() - inicio > timeout.toNanos()
+                    ? CircuitoBaseDatos.Resultado.TIMEOUT : CircuitoBaseDatos.Resultado.EXITO);
+                resultado.complete(valor);
+            } catch (Throwable e) {
+                circuito.registrar(permiso, CircuitoBaseDatos.Resultado.FALLO);
+                resultado.completeExceptionally(e);
+            }
+        }
+
+        /**
+         * Descarta la lectura si todavía está en la cola.
+         */
+        void descartar() {
+            if (tomada.compareAndSet(false, true)) {
+                ejecutor.remove(this);
+                circuito.registrar(permiso, CircuitoBaseDatos.Resultado.RECHAZADA);
+                resultado.cancel(false);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object recorrer(ProceedingJoinPoint joinPoint, String clave, Object[] args, int indice)
+            throws Throwable {
+        Consumer<Object> consumidor = (Consumer<Object>) args[indice];
+        CircuitoBaseDatos.Permiso permiso = circuito.solicitarPermiso();
+        if (permiso == CircuitoBaseDatos.Permiso.DENEGADO) {
+            return recorrerRespaldo(clave, consumidor, null);
+        }
+
+        if (permiso == CircuitoBaseDatos.Permiso.PRUEBA && respaldo.obtener(clave).isPresent()) {
+            // Revalidar en segundo plano recolectando las filas sin escribir la respuesta
+            int maxFilas = respaldo.getMaxFilas();
+            lanzar(() -> {
+                List<Object> filas = new ArrayList<>();
+                Object[] prueba = args.clone();
+                prueba[indice] = (Consumer<Object>) fila -> {
+                    if (filas.size() < maxFilas) {
+                        filas.add(fila);
+                    }
+                };
+                joinPoint.proceed(prueba);
+                return filas;
+            }, permiso, clave);
+            return recorrerRespaldo(clave, consumidor, null);
+        }
+
+        int maxFilas = respaldo.getMaxFilas();
+        List<Object> capturadas = new ArrayList<>();
+        int[] emitidas = {0};
+        Object[] nuevos = args.clone();
+        nuevos[indice] = (Consumer<Object>) fila -> {
+            consumidor.accept(fila);
+            emitidas[0]++;
+            if (capturadas.size() < maxFilas) {
+                capturadas.add(fila);
+            }
+        };
+
+        Object total;
+        try {
+            total = timeoutConsultas.ejecutar(() -> joinPoint.proceed(nuevos));
+        } catch (Throwable e) {
+            if (emitidas[0] > 0) {
+                // La base de datos ya entregó filas: el error suele ser del
+                // cliente (conexión cerrada) y la respuesta está comprometida
+                circuito.registrar(permiso, CircuitoBaseDatos.Resultado.EXITO);
+                throw e;
+            }
+            circuito.registrar(permiso, CircuitoBaseDatos.Resultado.FALLO);
+            return recorrerRespaldo(clave, consumidor, e);
+        }
+        circuito.registrar(permiso, CircuitoBaseDatos.Resultado.EXITO);
+        // Solo las primeras max-filas: respaldo acotado de los listados grandes
+        respaldo.guardar(clave, capturadas);
+        return total;
+    }
+
+    private int recorrerRespaldo(String clave, Consumer<Object> consumidor, Throwable causa) {
+        List<?> filas = (List<?>) desdeRespaldo(clave, causa);
+        filas.forEach(consumidor);
+        return filas.size();
+    }
+
+    private Object desdeRespaldo(String clave, Throwable causa) {
+        Optional<RespaldoLecturasCache.Entrada> entrada = respaldo.obtener(clave);
+        if (entrada.isPresent()) {
+            respaldoServido.increment();
+            return entrada.get().valor();
+        }
+        respaldoAusente.increment();
+        throw new LecturaNoDisponibleException(clave, causa != null ? causa(causa) : null);
+    }
+
+    /**
+     * Lectura a ejecutar en el pool (JoinPoint.proceed lanza Throwable).
+     */
+    @FunctionalInterface
+    private interface Consulta {
+        Object ejecutar() throws Throwable;
+    }
+
+    private static Throwable causa(Throwable error) {
+        Throwable actual = error;
+        while ((actual instanceof CompletionException || actual instanceof ExecutionException)
+                && actual.getCause() != null) {
+            actual = actual.getCause();
+        }
+        return actual;
+    }
+
+    private static int indiceConsumidor(Object[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof Consumer<?>) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String clave(String nombre, Object[] args, int excluir) {
+        StringJoiner clave = new StringJoiner("|", nombre + "(", ")");
+        for (int i = 0; i < args.length; i++) {
+            if (i != excluir) {
+                clave.add(String.valueOf(args[i]));
+            }
+        }
+        return clave.toString();
+    }
+}
@@ -0,0 +1,80 @@
+package com.duoc.recetas.resiliencia;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Timeout de consulta JDBC solo para las lecturas resilientes.
+ *
+ * LecturaResilienteAspect ejecuta cada lectura con ejecutar(), que marca el
+ * hilo que la corre; este listener de datasource-proxy fija entonces
+ * recetas.resiliencia.timeout-consulta en cada sentencia de ese hilo. Así
+ * una lectura que siguió en el pool tras vencer la espera no retiene su hilo
+ * ni su conexión más de ese tiempo.
+ *
+ * Las demás sentencias no tienen timeout de consulta: los recorridos largos
+ * en segundo plano (CatalogoSnapshotService, RecetasSimilaresService,
+ * MigracionCompresionService) no deben cortarse en un catálogo grande.
+ */
+@Component
+public class TimeoutConsultas implements QueryExecutionListener {
+
+    private static final ThreadLocal<Boolean> ACTIVO = new ThreadLocal<>();
+
+    private final int segundos;
+
+    public TimeoutConsultas(@Value("${recetas.resiliencia.timeout-consulta:5s}") Duration timeoutConsulta) {
+        // JDBC acepta segundos enteros; 0 sería sin límite
+        this.segundos = (int) Math.max(1, (timeoutConsulta.toMillis() + 999) / 1000);
+    }
+
+    /**
+     * Ejecuta una lectura con el timeout de consulta en el hilo actual.
+     *
+     * @param lectura Lectura a ejecutar
+     * @return Resultado de la lectura
+     * @throws Throwable Lo que lance la lectura
+     */
+    public Object ejecutar(Lectura lectura) throws Throwable {
+        if (ACTIVO.get() != null) {
+            return lectura.ejecutar();
+        }
+        ACTIVO.set(Boolean.TRUE);
+        try {
+            return lectura.ejecutar();
+        } finally {
+            ACTIVO.remove();
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (ACTIVO.get() != null) {
+            try {
+                execInfo.getStatement().setQueryTimeout(segundos);
+            } catch (SQLException e) {
+                throw new IllegalStateException("No se pudo fijar el timeout de consulta", e);
+            }
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // Sin trabajo después de la ejecución
+    }
+
+    /**
+     * Lectura a ejecutar (JoinPoint.proceed lanza Throwable).
+     */
+    @FunctionalInterface
+    public interface Lectura {
+        Object ejecutar() throws Throwable;
+    }
+}
@@ -0,0 +1,169 @@
+package com.duoc.recetas.service;
+
+import com.duoc.recetas.cache.CatalogoColumnar;
+import com.duoc.recetas.cache.TarjetaRecetaCache;
+import com.duoc.recetas.dto.FilaCatalogo;
+import com.duoc.recetas.dto.FiltroCatalogo;
+import com.duoc.recetas.repository.RecetaRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Mantiene la copia columnar del catálogo (CatalogoColumnar) para las
+ * búsquedas por rango (tiempo de cocción, porciones) y con orden
+ * (visualizaciones, tiempo, porciones).
+ *
+ * Esas columnas no tienen índices: filtrarlas u ordenarlas en SQL recorre
+ * la tabla completa en cada búsqueda. En su lugar, cada
+ * recetas.catalogo.snapshot.intervalo se leen solo las columnas necesarias
+ * con un cursor, se construye una copia nueva y se reemplaza la anterior de
+ * forma atómica; las búsquedas en curso terminan sobre la copia que tenían.
+ *
+ * Los resultados pueden tener hasta un intervalo de antigüedad (por ejemplo,
+ * en el número de visualizaciones). Si un refresco falla se mantiene la
+ * copia anterior.
+ *
+ * Cada refresco ajusta además la capacidad de TarjetaRecetaCache al número
+ * de recetas.
+ */
+@Service
+public class CatalogoSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogoSnapshotService.class);
+
+    @Autowired
+    private RecetaRepository recetaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private TarjetaRecetaCache tarjetaRecetaCache;
+
+    @Value("${recetas.catalogo.snapshot.intervalo:60s}")
+    private Duration intervalo;
+
+    /**
+     * Filas desde las que el filtro y el orden se ejecutan en paralelo.
+     */
+    @Value("${recetas.catalogo.snapshot.umbral-paralelo:50000}")
+    private int umbralParalelo;
+
+    private final AtomicReference<CatalogoColumnar> actual = new AtomicReference<>();
+
+    private final ReentrantLock refrescando = new ReentrantLock();
+
+    private TransactionTemplate lectura;
+
+    private Timer duracionRefresco;
+
+    @PostConstruct
+    void inicializar() {
+        lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+
+        duracionRefresco = Timer.builder("recetas.catalogo.refresco")
+            .description("Tiempo de construcción del catálogo columnar")
+            .register(meterRegistry);
+        Gauge.builder("recetas.catalogo.filas", actual, a -> a.get() != null ? a.get().getFilas() : 0)
+            .description("Recetas en el catálogo columnar")
+            .register(meterRegistry);
+        Gauge.builder("recetas.catalogo.edad", actual, a -> a.get() != null
+                ? Duration.between(a.get().getCreadoEn(), Instant.now()).toMillis() / 1000.0 : 0)
+            .description("Antigüedad del catálogo columnar")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Programa el refresco: ahora y luego cada recetas.catalogo.snapshot.intervalo.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void programarRefresco() {
+        taskScheduler.scheduleWithFixedDelay(this::refrescar, Instant.now(), intervalo);
+    }
+
+    /**
+     * Reconstruye el catálogo columnar y reemplaza el actual.
+     */
+    public void refrescar() {
+        refrescando.lock();
+        try {
+            long inicio = System.nanoTime();
+            CatalogoColumnar nuevo = lectura.execute(estado -> {
+                CatalogoColumnar.Constructor constructor = CatalogoColumnar.constructor(
+                    actual.get() != null ? actual.get().getFilas() : 1024);
+                try (Stream<FilaCatalogo> filas = recetaRepository.streamFilasCatalogo()) {
+                    filas.forEach(constructor::agregar);
+                }
+                return constructor.construir();
+            });
+            actual.set(nuevo);
+            tarjetaRecetaCache.ajustarCapacidad(nuevo.getFilas());
+            long nanos = System.nanoTime() - inicio;
+            duracionRefresco.record(nanos, TimeUnit.NANOSECONDS);
+            log.debug("Catálogo columnar: {} recetas en {} ms", nuevo.getFilas(),
+                TimeUnit.NANOSECONDS.toMillis(nanos));
+        } catch (RuntimeException e) {
+            log.warn("No se pudo refrescar el catálogo columnar (se mantiene el anterior): {}", e.toString());
+        } finally {
+            refrescando.unlock();
+        }
+    }
+
+    /**
+     * Catálogo columnar actual (null si todavía no se construyó).
+     *
+     * @return Copia vigente del catálogo
+     */
+    public CatalogoColumnar getCatalogo() {
+        return actual.get();
+    }
+
+    /**
+     * Busca recetas en el catálogo columnar.
+     *
+     * Si todavía no se construyó (primera búsqueda antes del primer
+     * refresco), se construye en esta llamada.
+     *
+     * @param filtro Criterios, rangos y orden
+     * @return IDs de las recetas en el orden pedido
+     * @throws IllegalStateException Si no hay catálogo y no se pudo construir
+     */
+    public long[] buscar(FiltroCatalogo filtro) {
+        CatalogoColumnar catalogo = actual.get();
+        if (catalogo == null) {
+            refrescar();
+            catalogo = actual.get();
+            if (catalogo == null) {
+                throw new IllegalStateException("Catálogo columnar no disponible");
+            }
+        }
+        return catalogo.buscar(filtro, umbralParalelo);
+    }
+}
@@ -0,0 +1,165 @@
+package com.duoc.recetas.service;
+
+import com.duoc.recetas.repository.DiccionarioCompresionRepository;
+import com.duoc.recetas.util.CompresorTexto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Codificación de ingredientes e instrucciones para su almacenamiento
+ * (lo usa TextoComprimidoConverter).
+ *
+ * - Con recetas.compresion.habilitado=true se escriben con el formato de
+ *   CompresorTexto y el diccionario actual, una vez que
+ *   MigracionCompresionService comprueba que las columnas son binarias y
+ *   llama a activar(). Mientras tanto, o si no, como UTF-8 sin cabecera,
+ *   igual que antes (válido también en columnas TEXT).
+ * - La lectura acepta siempre ambos formatos, de modo que las filas aún no
+ *   migradas y las ya comprimidas conviven. Los diccionarios se cargan de
+ *   diccionarios_compresion la primera vez que se necesitan y se mantienen
+ *   en memoria (no cambian).
+ *
+ * El diccionario actual lo fija MigracionCompresionService al arrancar;
+ * mientras no hay uno se comprime sin diccionario.
+ */
+@Service
+public class CompresionTextoService {
+
+    @Autowired
+    private DiccionarioCompresionRepository diccionarioRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${recetas.compresion.habilitado:false}")
+    private boolean habilitado;
+
+    /**
+     * Nivel de deflate (1 = más rápido, 9 = más compacto).
+     */
+    @Value("${recetas.compresion.nivel:6}")
+    private int nivel;
+
+    private final Map<Integer, byte[]> diccionarios = new ConcurrentHashMap<>();
+
+    /**
+     * Si los textos nuevos se comprimen (habilitado y columnas binarias).
+     */
+    private volatile boolean activa;
+
+    /**
+     * ID del diccionario con que se comprime (0 = sin diccionario).
+     */
+    private volatile int diccionarioActual;
+
+    private Timer duracionLectura;
+
+    @PostConstruct
+    void inicializar() {
+        duracionLectura = Timer.builder("recetas.compresion.lectura")
+            .description("Tiempo de descompresión de un texto de receta")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @return true si la compresión está configurada
+     *         (recetas.compresion.habilitado)
+     */
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * @return true si los textos nuevos se escriben comprimidos
+     */
+    public boolean isActiva() {
+        return activa;
+    }
+
+    /**
+     * Empieza a comprimir los textos nuevos; solo debe llamarse con las
+     * columnas ya binarias (MigracionCompresionService).
+     */
+    public void activar() {
+        activa = habilitado;
+    }
+
+    /**
+     * @return ID del diccionario actual (0 = ninguno)
+     */
+    public int getDiccionarioActual() {
+        return diccionarioActual;
+    }
+
+    /**
+     * Convierte un texto al valor que se almacena.
+     *
+     * @param texto Texto (puede ser null)
+     * @return Valor a almacenar
+     */
+    public byte[] codificar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        if (!activa) {
+            return texto.getBytes(StandardCharsets.UTF_8);
+        }
+        int id = diccionarioActual;
+        return CompresorTexto.comprimir(texto, id, id != 0 ? diccionarios.get(id) : null, nivel);
+    }
+
+    /**
+     * Convierte un valor almacenado (con o sin compresión) en texto.
+     *
+     * @param datos Valor almacenado (puede ser null)
+     * @return Texto
+     */
+    public String decodificar(byte[] datos) {
+        if (datos == null) {
+            return null;
+        }
+        if (!CompresorTexto.tieneCabecera(datos)) {
+            return new String(datos, StandardCharsets.UTF_8);
+        }
+        long inicio = System.nanoTime();
+        String texto = CompresorTexto.descomprimir(datos, this::diccionario);
+        duracionLectura.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        return texto;
+    }
+
+    /**
+     * Fija el diccionario con que se comprimen los textos nuevos.
+     *
+     * @param id ID del diccionario
+     * @param contenido Contenido del diccionario
+     */
+    public void usarDiccionario(int id, byte[] contenido) {
+        diccionarios.put(id, contenido);
+        diccionarioActual = id;
+    }
+
+    /**
+     * Usa el diccionario más reciente de la base de datos, si hay alguno.
+     *
+     * @return true si se encontró un diccionario
+     */
+    public boolean cargarUltimoDiccionario() {
+        Map<Integer, byte[]> ultimo = diccionarioRepository.buscarUltimo();
+        ultimo.forEach(this::usarDiccionario);
+        return !ultimo.isEmpty();
+    }
+
+    private byte[] diccionario(int id) {
+        // Si no existe no se guarda nada y la lectura falla con IllegalArgumentException
+        return diccionarios.computeIfAbsent(id, diccionarioRepository::buscar);
+    }
+}
@@ -0,0 +1,394 @@
+package com.duoc.recetas.service;
+
+import com.duoc.recetas.model.Receta;
+import com.duoc.recetas.repository.RecetaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Almacén local de imágenes derivadas de las recetas.
+ * 
+ * La fotografía original (Receta.fotoUrl) se descarga una sola vez a un
+ * directorio local y a partir de ella se generan versiones de tamaño fijo
+ * (miniatura y mediana). Las páginas usan esas derivadas en lugar de la
+ * imagen completa externa, lo que reduce el peso de la página y elimina la
+ * latencia del servidor remoto.
+ * 
+ * Estructura en disco:
+ * <pre>
+ * {directorio}/{id}/origen.txt     URL de la que se obtuvo la imagen
+ * {directorio}/{id}/original       bytes originales
+ * {directorio}/{id}/miniatura.jpg
+ * {directorio}/{id}/mediana.jpg
+ * </pre>
+ * 
+ * Si fotoUrl cambia, las derivadas se regeneran. Además de http(s) se
+ * aceptan URLs file: solo dentro de recetas.imagenes.origen-local (útil
+ * para pruebas con un directorio local); fuera de él se rechazan.
+ * 
+ * La descarga y el redimensionado se hacen en segundo plano (taskExecutor),
+ * una sola vez por receta aunque lleguen varias peticiones: mientras tanto
+ * obtenerDerivada devuelve vacío y ImagenController redirige a la foto
+ * original, sin ocupar el hilo de la petición. La URL de origen de cada
+ * receta se mantiene en memoria para no leer origen.txt en cada petición.
+ * 
+ * Las URLs de las páginas llevan la versión de la foto (?v=, hash de
+ * fotoUrl): si las derivadas en disco son de una URL con esa versión se
+ * sirven sin consultar la base de datos.
+ */
+@Service
+public class ImagenRecetaService {
+
+    /**
+     * Tamaños de imagen derivada disponibles.
+     */
+    public enum TamanoImagen {
+        MINIATURA("miniatura", 400, 300),
+        MEDIANA("mediana", 800, 600);
+
+        private final String nombre;
+        private final int ancho;
+        private final int alto;
+
+        TamanoImagen(String nombre, int ancho, int alto) {
+            this.nombre = nombre;
+            this.ancho = ancho;
+            this.alto = alto;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        /**
+         * Busca un tamaño por su nombre en la URL.
+         * 
+         * @param nombre Nombre del tamaño (miniatura, mediana)
+         * @return Optional con el tamaño si existe
+         */
+        public static Optional<TamanoImagen> desdeNombre(String nombre) {
+            return Arrays.stream(values()).filter(t -> t.nombre.equals(nombre)).findFirst();
+        }
+    }
+
+    /**
+     * Tamaño máximo de la imagen original descargada.
+     */
+    private static final int MAX_BYTES_ORIGINAL = 10 * 1024 * 1024;
+
+    private static final Logger log = LoggerFactory.getLogger(ImagenRecetaService.class);
+
+    @Autowired
+    private RecetaRepository recetaRepository;
+
+    @Autowired
+    private AsyncTaskExecutor taskExecutor;
+
+    private final Path directorio;
+
+    private final HttpClient httpClient;
+
+    private final Duration timeout;
+
+    private final Path origenLocal;
+
+    /**
+     * Ingestas en curso por receta.
+     */
+    private final ConcurrentHashMap<Long, CompletableFuture<Boolean>> enCurso = new ConcurrentHashMap<>();
+
+    /**
+     * URL de la que se generaron las derivadas en disco, por receta (copia en
+     * memoria de origen.txt).
+     */
+    private final ConcurrentHashMap<Long, String> origenes = new ConcurrentHashMap<>();
+
+    /**
+     * Momento (ms) del último fallo de descarga por receta, para no
+     * reintentar contra un servidor remoto caído en cada petición.
+     */
+    private final ConcurrentHashMap<Long, Long> ultimoFallo = new ConcurrentHashMap<>();
+
+    private static final long ESPERA_REINTENTO_MS = Duration.ofMinutes(5).toMillis();
+
+    public ImagenRecetaService(
+            @Value("${recetas.imagenes.directorio:${java.io.tmpdir}/recetas/imagenes}") String directorio,
+            @Value("${recetas.imagenes.timeout:5s}") Duration timeout,
+            @Value("${recetas.imagenes.origen-local:}") String origenLocal) {
+        this.directorio = Paths.get(directorio);
+        this.origenLocal = origenLocal.isBlank() ? null : Paths.get(origenLocal).toAbsolutePath().normalize();
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(timeout)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    }
+
+    /**
+     * Obtiene el archivo de una imagen derivada.
+     * 
+     * Si las derivadas aún no existen (o son de otra fotoUrl) se programa su
+     * generación en segundo plano y se devuelve vacío.
+     * 
+     * @param recetaId ID de la receta
+     * @param tamano Tamaño solicitado
+     * @return Optional con la ruta del archivo, vacío si la receta no tiene
+     *         foto o la imagen todavía no está disponible
+     */
+    public Optional<Path> obtenerDerivada(Long recetaId, TamanoImagen tamano) {
+        return obtenerDerivada(recetaId, tamano, null);
+    }
+
+    /**
+     * Obtiene el archivo de una imagen derivada para una versión de la foto.
+     * 
+     * Si las derivadas en disco se generaron de una URL con esa versión
+     * (Receta.versionFoto) se devuelven sin consultar fotoUrl en la base de
+     * datos; si no, se procede como en obtenerDerivada(recetaId, tamano).
+     * 
+     * @param recetaId ID de la receta
+     * @param tamano Tamaño solicitado
+     * @param version Versión de la foto de la URL (?v=), o null
+     * @return Optional con la ruta del archivo, vacío si la receta no tiene
+     *         foto o la imagen todavía no está disponible
+     */
+    public Optional<Path> obtenerDerivada(Long recetaId, TamanoImagen tamano, String version) {
+        if (version != null) {
+            Path derivada = derivada(recetaId, tamano);
+            String origen = origenes.computeIfAbsent(recetaId, id -> leerOrigen(derivada.getParent()));
+            if (origen != null && version.equals(Receta.versionFoto(origen)) && Files.exists(derivada)) {
+                return Optional.of(derivada);
+            }
+        }
+        Optional<String> fotoUrl = obtenerFotoOriginal(recetaId);
+        if (fotoUrl.isEmpty()) {
+            return Optional.empty();
+        }
+        Path derivada = derivada(recetaId, tamano);
+        if (vigente(recetaId, fotoUrl.get(), derivada)) {
+            return Optional.of(derivada);
+        }
+        programarIngesta(recetaId, fotoUrl.get());
+        return Optional.empty();
+    }
+
+    /**
+     * Genera las derivadas de una receta si faltan (por ejemplo, al calentar
+     * la aplicación).
+     * 
+     * @param recetaId ID de la receta
+     * @return Futuro que se completa con true si las derivadas quedaron
+     *         disponibles
+     */
+    public CompletableFuture<Boolean> prepararDerivadas(Long recetaId) {
+        Optional<String> fotoUrl = obtenerFotoOriginal(recetaId);
+        if (fotoUrl.isEmpty()) {
+            return CompletableFuture.completedFuture(false);
+        }
+        if (vigente(recetaId, fotoUrl.get(), derivada(recetaId, TamanoImagen.MINIATURA))) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return programarIngesta(recetaId, fotoUrl.get());
+    }
+
+    /**
+     * Obtiene la URL original de la foto de una receta.
+     * 
+     * @param recetaId ID de la receta
+     * @return Optional con la URL si existe
+     */
+    public Optional<String> obtenerFotoOriginal(Long recetaId) {
+        return recetaRepository.findFotoUrlById(recetaId).filter(url -> !url.isBlank());
+    }
+
+    /**
+     * Programa la ingesta de una receta, salvo que ya esté en curso o haya
+     * fallado hace menos de ESPERA_REINTENTO_MS.
+     */
+    private CompletableFuture<Boolean> programarIngesta(Long recetaId, String fotoUrl) {
+        Long fallo = ultimoFallo.get(recetaId);
+        if (fallo != null && System.currentTimeMillis() - fallo < ESPERA_REINTENTO_MS) {
+            return CompletableFuture.completedFuture(false);
+        }
+        CompletableFuture<Boolean> nueva = new CompletableFuture<>();
+        CompletableFuture<Boolean> existente = enCurso.putIfAbsent(recetaId, nueva);
+        if (existente != null) {
+            return existente;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                boolean listo = ingerir(recetaId, fotoUrl);
+                enCurso.remove(recetaId, nueva);
+                nueva.complete(listo);
+            });
+        } catch (RejectedExecutionException e) {
+            // Ejecutor saturado: se reintentará en la siguiente petición
+            enCurso.remove(recetaId, nueva);
+            nueva.complete(false);
+        }
+        return nueva;
+    }
+
+    /**
+     * Descarga la imagen original y genera todas las derivadas.
+     * 
+     * @return true si las derivadas quedaron disponibles
+     */
+    private boolean ingerir(Long recetaId, String fotoUrl) {
+        Path carpeta = directorio.resolve(String.valueOf(recetaId));
+        try {
+            if (vigente(recetaId, fotoUrl, derivada(recetaId, TamanoImagen.MINIATURA))) {
+                return true;
+            }
+            Files.createDirectories(carpeta);
+
+            byte[] original = descargar(fotoUrl);
+            BufferedImage imagen = ImageIO.read(new ByteArrayInputStream(original));
+            if (imagen == null) {
+                throw new IOException("Formato de imagen no soportado: " + fotoUrl);
+            }
+
+            escribirAtomico(carpeta.resolve("original"), original);
+            for (TamanoImagen tamano : TamanoImagen.values()) {
+                BufferedImage redimensionada = redimensionar(imagen, tamano.ancho, tamano.alto);
+                Path temporal = Files.createTempFile(carpeta, tamano.getNombre(), ".tmp");
+                try {
+                    ImageIO.write(redimensionada, "jpg", temporal.toFile());
+                    Files.move(temporal, carpeta.resolve(tamano.getNombre() + ".jpg"),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(temporal);
+                }
+            }
+            // origen.txt se escribe al final: marca las derivadas como completas
+            escribirAtomico(carpeta.resolve("origen.txt"), fotoUrl.getBytes(StandardCharsets.UTF_8));
+            origenes.put(recetaId, fotoUrl);
+            ultimoFallo.remove(recetaId);
+            return true;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            // RuntimeException: p. ej. IllegalArgumentException de URI.create
+            // con una fotoUrl mal formada
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            ultimoFallo.put(recetaId, System.currentTimeMillis());
+            log.warn("No se pudo procesar la imagen de la receta {}: {}", recetaId, e.toString());
+            return false;
+        }
+    }
+
+    private byte[] descargar(String fotoUrl) throws IOException, InterruptedException {
+        URI uri = URI.create(fotoUrl);
+        if ("file".equalsIgnoreCase(uri.getScheme())) {
+            Path archivo = Paths.get(uri).toAbsolutePath().normalize();
+            if (origenLocal == null || !archivo.startsWith(origenLocal)) {
+                throw new IOException("Origen local no permitido: " + fotoUrl);
+            }
+            return Files.readAllBytes(archivo);
+        }
+        if (!"http".equalsIgnoreCase(uri.getScheme()) && !"https".equalsIgnoreCase(uri.getScheme())) {
+            throw new IOException("Esquema no soportado: " + fotoUrl);
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(timeout).GET().build();
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream cuerpo = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IOException("HTTP " + response.statusCode() + " al descargar " + fotoUrl);
+            }
+            byte[] bytes = cuerpo.readNBytes(MAX_BYTES_ORIGINAL + 1);
+            if (bytes.length > MAX_BYTES_ORIGINAL) {
+                throw new IOException("Imagen demasiado grande: " + fotoUrl);
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * Redimensiona recortando al centro para llenar exactamente ancho x alto.
+     */
+    private BufferedImage redimensionar(BufferedImage origen, int ancho, int alto) {
+        double escala = Math.max((double) ancho / origen.getWidth(), (double) alto / origen.getHeight());
+        int anchoEscalado = (int) Math.ceil(origen.getWidth() * escala);
+        int altoEscalado = (int) Math.ceil(origen.getHeight() * escala);
+
+        BufferedImage destino = new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = destino.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(origen, (ancho - anchoEscalado) / 2, (alto - altoEscalado) / 2,
+                anchoEscalado, altoEscalado, null);
+        } finally {
+            g.dispose();
+        }
+        return destino;
+    }
+
+    private Path derivada(Long recetaId, TamanoImagen tamano) {
+        return directorio.resolve(String.valueOf(recetaId)).resolve(tamano.getNombre() + ".jpg");
+    }
+
+    /**
+     * Indica si la derivada existe y se generó a partir de fotoUrl. El
+     * origen se lee de disco solo la primera vez (p. ej. tras un reinicio).
+     */
+    private boolean vigente(Long recetaId, String fotoUrl, Path derivada) {
+        String origen = origenes.computeIfAbsent(recetaId, id -> leerOrigen(derivada.getParent()));
+        if (!fotoUrl.equals(origen)) {
+            return false;
+        }
+        if (!Files.exists(derivada)) {
+            // Borrada fuera de la aplicación (p. ej. limpieza del directorio temporal)
+            origenes.remove(recetaId, origen);
+            return false;
+        }
+        return true;
+    }
+
+    private String leerOrigen(Path carpeta) {
+        try {
+            Path origen = carpeta.resolve("origen.txt");
+            return Files.exists(origen) ? Files.readString(origen) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void escribirAtomico(Path destino, byte[] contenido) throws IOException {
+        Path temporal = Files.createTempFile(destino.getParent(), destino.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporal, contenido);
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+}
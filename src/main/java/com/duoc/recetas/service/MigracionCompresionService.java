@@ -0,0 +1,291 @@
+package com.duoc.recetas.service;
+
+import com.duoc.recetas.dto.TextosReceta;
+import com.duoc.recetas.repository.DiccionarioCompresionRepository;
+import com.duoc.recetas.repository.TextosRecetaRepository;
+import com.duoc.recetas.util.CompresorTexto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Migración en segundo plano de ingredientes e instrucciones al formato
+ * comprimido (con recetas.compresion.habilitado=true) y de vuelta a UTF-8
+ * (con false).
+ *
+ * Es el único camino para activar la compresión: al arrancar comprueba que
+ * las columnas son binarias (database/migracion-compresion.sql). Si siguen
+ * siendo TEXT, los textos se guardan sin comprimir y se registra un aviso.
+ *
+ * - Con las columnas binarias carga el diccionario más reciente; si no hay
+ *   ninguno, lo entrena con las últimas recetas.compresion.muestras recetas
+ *   y lo guarda en diccionarios_compresion. Luego activa la compresión de
+ *   los textos nuevos (CompresionTextoService.activar).
+ * - Después recorre las recetas con alguna columna sin comprimir en lotes
+ *   de recetas.compresion.tamano-lote, por ID y con una pausa entre lotes
+ *   para no competir con las peticiones. Cada lote se reescribe con un
+ *   UPDATE por receta que solo se aplica si las columnas siguen iguales a
+ *   las leídas (no pisa ediciones concurrentes; esas ya se guardan
+ *   comprimidas).
+ * - Al terminar registra el tamaño antes y después de las columnas
+ *   migradas; recetas.compresion.bytes{estado=original|comprimido} y
+ *   recetas.compresion.lectura permiten seguir el ahorro y el costo de
+ *   lectura en producción.
+ *
+ * Si un lote falla la migración se detiene y continúa en el siguiente
+ * arranque (las recetas migradas ya no se vuelven a leer).
+ *
+ * ROLLBACK: con recetas.compresion.habilitado=false y las columnas binarias,
+ * los lotes recorren en cambio las recetas comprimidas y las devuelven a
+ * UTF-8 sin cabecera. Al terminar, las columnas se pueden volver a TEXT
+ * (ver migracion-compresion.sql).
+ */
+@Service
+public class MigracionCompresionService {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracionCompresionService.class);
+
+    @Autowired
+    private CompresionTextoService compresionTextoService;
+
+    @Autowired
+    private DiccionarioCompresionRepository diccionarioRepository;
+
+    @Autowired
+    private TextosRecetaRepository textosRecetaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Value("${recetas.compresion.migracion.habilitado:true}")
+    private boolean migracionHabilitada;
+
+    @Value("${recetas.compresion.tamano-lote:200}")
+    private int tamanoLote;
+
+    @Value("${recetas.compresion.pausa:200ms}")
+    private Duration pausa;
+
+    /**
+     * Recetas con que se entrena el diccionario.
+     */
+    @Value("${recetas.compresion.muestras:2000}")
+    private int muestras;
+
+    @Value("${recetas.compresion.tamano-diccionario:16384}")
+    private int tamanoDiccionario;
+
+    private TransactionTemplate transaccion;
+
+    private Counter migradas;
+
+    private Counter bytesOriginales;
+
+    private Counter bytesComprimidos;
+
+    private Timer duracionLote;
+
+    /**
+     * Totales de la migración en curso; solo los usa la tarea de migración,
+     * que procesa un lote a la vez.
+     */
+    private boolean revertir;
+
+    private long inicio;
+
+    private long filas;
+
+    private long originales;
+
+    private long comprimidos;
+
+    @PostConstruct
+    void inicializar() {
+        transaccion = new TransactionTemplate(transactionManager);
+
+        migradas = Counter.builder("recetas.compresion.filas")
+            .description("Recetas migradas a texto comprimido")
+            .register(meterRegistry);
+        bytesOriginales = Counter.builder("recetas.compresion.bytes")
+            .description("Bytes de las columnas migradas a texto comprimido")
+            .baseUnit("bytes")
+            .tag("estado", "original")
+            .register(meterRegistry);
+        bytesComprimidos = Counter.builder("recetas.compresion.bytes")
+            .description("Bytes de las columnas migradas a texto comprimido")
+            .baseUnit("bytes")
+            .tag("estado", "comprimido")
+            .register(meterRegistry);
+        duracionLote = Timer.builder("recetas.compresion.lote")
+            .description("Tiempo de migración de un lote de recetas a texto comprimido")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Programa la comprobación de las columnas, la carga del diccionario y
+     * la migración (o su reversión).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void programarMigracion() {
+        if (compresionTextoService.isHabilitado() || migracionHabilitada) {
+            taskScheduler.schedule(this::iniciar, Instant.now());
+        }
+    }
+
+    /**
+     * Entrena un diccionario nuevo con las recetas más recientes, lo guarda
+     * y lo usa para comprimir desde ahora.
+     *
+     * @return ID del diccionario (0 si la muestra no tiene nada repetido)
+     */
+    public int entrenarDiccionario() {
+        List<TextosReceta> muestra = textosRecetaRepository.muestra(muestras);
+        List<String> textos = new ArrayList<>(muestra.size() * 2);
+        for (TextosReceta fila : muestra) {
+            textos.add(compresionTextoService.decodificar(fila.ingredientes()));
+            textos.add(compresionTextoService.decodificar(fila.instrucciones()));
+        }
+        byte[] contenido = CompresorTexto.entrenarDiccionario(textos, tamanoDiccionario);
+        if (contenido.length == 0) {
+            log.debug("Compresión de textos: la muestra de {} recetas no alcanza para un diccionario",
+                muestra.size());
+            return 0;
+        }
+        int id = diccionarioRepository.insertar(contenido, muestra.size());
+        compresionTextoService.usarDiccionario(id, contenido);
+        log.info("Compresión de textos: diccionario {} entrenado con {} recetas ({} bytes)",
+            id, muestra.size(), contenido.length);
+        return id;
+    }
+
+    private void iniciar() {
+        boolean binarias;
+        try {
+            binarias = textosRecetaRepository.columnasBinarias();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo consultar el tipo de las columnas de texto (no se comprime): {}", e.toString());
+            return;
+        }
+        if (!compresionTextoService.isHabilitado()) {
+            if (binarias && migracionHabilitada) {
+                revertir = true;
+                inicio = System.nanoTime();
+                migrarLote(0);
+            }
+            return;
+        }
+        if (!binarias) {
+            log.warn("recetas.compresion.habilitado=true, pero ingredientes e instrucciones no son columnas "
+                + "binarias: se guardan sin comprimir hasta aplicar database/migracion-compresion.sql");
+            return;
+        }
+        try {
+            if (!compresionTextoService.cargarUltimoDiccionario()) {
+                entrenarDiccionario();
+            }
+        } catch (RuntimeException e) {
+            log.warn("No se pudo cargar ni entrenar el diccionario de compresión (se comprime sin diccionario): {}",
+                e.toString());
+        }
+        compresionTextoService.activar();
+        if (migracionHabilitada) {
+            inicio = System.nanoTime();
+            migrarLote(0);
+        }
+    }
+
+    private void migrarLote(long desdeId) {
+        try {
+            long inicioLote = System.nanoTime();
+            List<TextosReceta> anteriores = revertir
+                ? textosRecetaRepository.buscarComprimidas(desdeId, tamanoLote)
+                : textosRecetaRepository.buscarSinComprimir(desdeId, tamanoLote);
+            if (anteriores.isEmpty()) {
+                terminar();
+                return;
+            }
+            List<TextosReceta> nuevos = new ArrayList<>(anteriores.size());
+            for (TextosReceta fila : anteriores) {
+                nuevos.add(revertir
+                    ? new TextosReceta(fila.id(), descomprimir(fila.ingredientes()),
+                        descomprimir(fila.instrucciones()))
+                    : new TextosReceta(fila.id(), comprimir(fila.ingredientes()),
+                        comprimir(fila.instrucciones())));
+            }
+            transaccion.executeWithoutResult(
+                estado -> textosRecetaRepository.reemplazar(anteriores, nuevos, tamanoLote));
+            filas += anteriores.size();
+            if (!revertir) {
+                migradas.increment(anteriores.size());
+                duracionLote.record(System.nanoTime() - inicioLote, TimeUnit.NANOSECONDS);
+            }
+
+            long ultimoId = anteriores.get(anteriores.size() - 1).id();
+            taskScheduler.schedule(() -> migrarLote(ultimoId), Instant.now().plus(pausa));
+        } catch (RuntimeException e) {
+            log.warn("Migración {} detenida después de la receta {} (continúa al reiniciar): {}",
+                revertir ? "a texto sin comprimir" : "a texto comprimido", desdeId, e.toString());
+        }
+    }
+
+    private byte[] comprimir(byte[] datos) {
+        if (datos == null || CompresorTexto.tieneCabecera(datos)) {
+            return datos;
+        }
+        byte[] comprimido = compresionTextoService.codificar(new String(datos, StandardCharsets.UTF_8));
+        originales += datos.length;
+        comprimidos += comprimido.length;
+        bytesOriginales.increment(datos.length);
+        bytesComprimidos.increment(comprimido.length);
+        return comprimido;
+    }
+
+    private byte[] descomprimir(byte[] datos) {
+        if (datos == null || !CompresorTexto.tieneCabecera(datos)) {
+            return datos;
+        }
+        byte[] utf8 = compresionTextoService.decodificar(datos).getBytes(StandardCharsets.UTF_8);
+        originales += utf8.length;
+        comprimidos += datos.length;
+        return utf8;
+    }
+
+    private void terminar() {
+        if (filas == 0) {
+            log.debug("Compresión de textos: no hay recetas por migrar");
+        } else if (revertir) {
+            log.info("Compresión de textos desactivada: {} recetas devueltas a UTF-8, {} KB -> {} KB en {} ms",
+                filas, comprimidos / 1024, originales / 1024,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        } else {
+            log.info("Compresión de textos: {} recetas migradas, {} KB -> {} KB ({}%) en {} ms",
+                filas, originales / 1024, comprimidos / 1024,
+                originales > 0 ? Math.round(100.0 * comprimidos / originales) : 100,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        }
+    }
+}
@@ -1,31 +1,78 @@
 package com.duoc.recetas.service;
 
+import com.duoc.recetas.analitica.RegistroVisitas;
+import com.duoc.recetas.cache.TarjetaRecetaCache;
+import com.duoc.recetas.dto.CampoReceta;
+import com.duoc.recetas.dto.RecetaDetalle;
+import com.duoc.recetas.dto.RecetaVersion;
+import com.duoc.recetas.dto.TarjetaReceta;
 import com.duoc.recetas.model.Receta;
+import com.duoc.recetas.repository.RecetaProyeccionRepository;
 import com.duoc.recetas.repository.RecetaRepository;
+import com.duoc.recetas.resiliencia.LecturaResiliente;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Servicio para la lógica de negocio de Recetas.
  * 
  * Proporciona métodos para buscar, crear y gestionar recetas.
+ * 
+ * Las lecturas de las páginas públicas (@LecturaResiliente) tienen timeout
+ * y circuit breaker: si la base de datos falla se responde con el último
+ * resultado correcto (ver LecturaResilienteAspect).
  */
 @Service
 @Transactional
+@Timed(value = "recetas.servicio", description = "Latencia de los métodos de RecetaService")
 public class RecetaService {
 
+    /**
+     * IDs por consulta al cargar recetas en un orden dado.
+     */
+    private static final int BLOQUE_IDS = 200;
+
     @Autowired
     private RecetaRepository recetaRepository;
 
+    /**
+     * Filas por consulta al recorrer tarjetas en streaming.
+     */
+    @Value("${recetas.busqueda.streaming.filas-por-lectura:200}")
+    private int filasPorLectura;
+
+    @Autowired
+    private RecetaProyeccionRepository recetaProyeccionRepository;
+
+    @Autowired
+    private TarjetaRecetaCache tarjetaRecetaCache;
+
+    @Autowired
+    private RecetasSimilaresService recetasSimilaresService;
+
+    @Autowired
+    private RegistroVisitas registroVisitas;
+
     /**
      * Obtiene todas las recetas.
      * 
      * @return Lista de todas las recetas
      */
+    @LecturaResiliente
     public List<Receta> obtenerTodasLasRecetas() {
         return recetaRepository.findAll();
     }
@@ -40,11 +87,35 @@ public class RecetaService {
         return recetaRepository.findById(id);
     }
 
+    /**
+     * Obtiene lo que muestra la página de detalle de una receta, con una
+     * sola consulta.
+     * 
+     * @param id ID de la receta
+     * @return Optional con el detalle si la receta existe
+     */
+    @Transactional(readOnly = true)
+    public Optional<RecetaDetalle> obtenerDetalle(Long id) {
+        return recetaRepository.findDetalleById(id);
+    }
+
+    /**
+     * Obtiene la versión de una receta (ID y última modificación).
+     * 
+     * @param id ID de la receta
+     * @return Optional con la versión si la receta existe
+     */
+    @Transactional(readOnly = true)
+    public Optional<RecetaVersion> obtenerVersionReceta(Long id) {
+        return recetaRepository.findVersionById(id);
+    }
+
     /**
      * Obtiene las recetas populares.
      * 
      * @return Lista de recetas populares
      */
+    @LecturaResiliente
     public List<Receta> obtenerRecetasPopulares() {
         return recetaRepository.findByPopularTrue();
     }
@@ -54,6 +125,7 @@ public class RecetaService {
      * 
      * @return Lista de recetas recientes
      */
+    @LecturaResiliente
     public List<Receta> obtenerRecetasRecientes() {
         return recetaRepository.findByRecienteTrue();
     }
@@ -67,11 +139,186 @@ public class RecetaService {
      * @param dificultad Dificultad (opcional)
      * @return Lista de recetas que coinciden con los criterios
      */
+    @LecturaResiliente("busqueda")
     public List<Receta> buscarRecetas(String nombre, String tipoCocina, 
                                        String paisOrigen, String dificultad) {
         return recetaRepository.buscarRecetas(nombre, tipoCocina, paisOrigen, dificultad);
     }
 
+    /**
+     * Recorre las tarjetas de las recetas que coinciden con los criterios
+     * sin materializar la lista completa.
+     * 
+     * Las filas se leen en bloques de recetas.busqueda.streaming.filas-por-lectura
+     * en orden de ID (keyset: cada bloque continúa desde el último ID del
+     * anterior), cada uno en su propia transacción corta, y solo con las
+     * columnas de las tarjetas. El consumidor (que escribe la respuesta) se
+     * ejecuta fuera de las transacciones: un cliente lento no retiene una
+     * conexión del pool. Si no hay criterios se recorren todas las recetas.
+     * 
+     * @param nombre Nombre de la receta (opcional)
+     * @param tipoCocina Tipo de cocina (opcional)
+     * @param paisOrigen País de origen (opcional)
+     * @param dificultad Dificultad (opcional)
+     * @param consumidor Acción a ejecutar por cada receta
+     * @return Número de recetas recorridas
+     */
+    @LecturaResiliente("tarjetas")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int recorrerTarjetas(String nombre, String tipoCocina, String paisOrigen,
+                                String dificultad, Consumer<TarjetaReceta> consumidor) {
+        int total = 0;
+        long desdeId = 0;
+        List<TarjetaReceta> bloque;
+        do {
+            bloque = recetaRepository.buscarTarjetas(nombre, tipoCocina, paisOrigen, dificultad,
+                    desdeId, Limit.of(filasPorLectura));
+            for (TarjetaReceta tarjeta : bloque) {
+                consumidor.accept(tarjeta);
+                total++;
+            }
+            if (!bloque.isEmpty()) {
+                desdeId = bloque.get(bloque.size() - 1).id();
+            }
+        } while (bloque.size() == filasPorLectura);
+        return total;
+    }
+
+    /**
+     * Recorre las tarjetas de una lista de IDs en ese mismo orden.
+     * 
+     * Se usa con los resultados del catálogo columnar: como en
+     * recorrerTarjetas, las tarjetas se leen en bloques de IDs, cada uno en
+     * su propia transacción, y el consumidor se ejecuta sin conexión
+     * retenida. Los IDs que ya no existen se omiten.
+     * 
+     * @param ids IDs de las recetas, en el orden deseado
+     * @param consumidor Acción a ejecutar por cada receta
+     * @return Número de recetas recorridas
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int recorrerTarjetasPorIds(long[] ids, Consumer<TarjetaReceta> consumidor) {
+        int total = 0;
+        for (int desde = 0; desde < ids.length; desde += BLOQUE_IDS) {
+            List<Long> bloque = bloqueIds(ids, desde);
+            Map<Long, TarjetaReceta> porId = new HashMap<>();
+            for (TarjetaReceta tarjeta : recetaRepository.findTarjetasByIdIn(bloque)) {
+                porId.put(tarjeta.id(), tarjeta);
+            }
+            for (Long id : bloque) {
+                TarjetaReceta tarjeta = porId.get(id);
+                if (tarjeta != null) {
+                    consumidor.accept(tarjeta);
+                    total++;
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Obtiene las tarjetas de una lista de IDs en ese mismo orden (por
+     * ejemplo, las recomendaciones de la página de detalle), sin cargar las
+     * entidades ni descomprimir sus columnas de texto largo.
+     * 
+     * @param ids IDs de las recetas, en el orden deseado
+     * @return Lista de tarjetas
+     */
+    @Transactional(readOnly = true)
+    public List<TarjetaReceta> obtenerTarjetasPorIds(long[] ids) {
+        List<TarjetaReceta> tarjetas = new ArrayList<>(ids.length);
+        recorrerTarjetasPorIds(ids, tarjetas::add);
+        return tarjetas;
+    }
+
+    /**
+     * Obtiene las recetas de una lista de IDs en ese mismo orden.
+     * 
+     * Las recetas se cargan en bloques de IDs; los IDs que ya no existen se
+     * omiten.
+     * 
+     * @param ids IDs de las recetas, en el orden deseado
+     * @return Lista de recetas
+     */
+    @Transactional(readOnly = true)
+    public List<Receta> obtenerRecetasPorIds(long[] ids) {
+        List<Receta> recetas = new ArrayList<>(ids.length);
+        for (int desde = 0; desde < ids.length; desde += BLOQUE_IDS) {
+            List<Long> bloque = bloqueIds(ids, desde);
+            Map<Long, Receta> porId = new HashMap<>();
+            for (Receta receta : recetaRepository.findAllById(bloque)) {
+                porId.put(receta.getId(), receta);
+            }
+            for (Long id : bloque) {
+                Receta receta = porId.get(id);
+                if (receta != null) {
+                    recetas.add(receta);
+                }
+            }
+        }
+        return recetas;
+    }
+
+    private static List<Long> bloqueIds(long[] ids, int desde) {
+        List<Long> bloque = new ArrayList<>(BLOQUE_IDS);
+        for (int i = desde; i < Math.min(ids.length, desde + BLOQUE_IDS); i++) {
+            bloque.add(ids[i]);
+        }
+        return bloque;
+    }
+
+    /**
+     * Recorre una página de la búsqueda de la API JSON leyendo solo los
+     * campos pedidos, con un cursor JDBC.
+     * 
+     * @param campos Campos a leer (el ID primero)
+     * @param nombre Nombre de la receta (opcional)
+     * @param tipoCocina Tipo de cocina (opcional)
+     * @param paisOrigen País de origen (opcional)
+     * @param dificultad Dificultad (opcional)
+     * @param desdeId ID a partir del cual buscar (exclusivo)
+     * @param limite Filas máximas
+     * @param consumidor Acción a ejecutar por cada fila
+     * @return Número de filas recorridas
+     */
+    @Transactional(readOnly = true)
+    public int recorrerProyecciones(Set<CampoReceta> campos, String nombre, String tipoCocina,
+                                    String paisOrigen, String dificultad, long desdeId, int limite,
+                                    Consumer<Object[]> consumidor) {
+        int total = 0;
+        try (Stream<Object[]> filas = recetaProyeccionRepository.buscar(
+                campos, nombre, tipoCocina, paisOrigen, dificultad, desdeId, limite)) {
+            for (Object[] fila : (Iterable<Object[]>) filas::iterator) {
+                consumidor.accept(fila);
+                total++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Obtiene solo los campos pedidos de una receta.
+     * 
+     * @param campos Campos a leer (el ID primero)
+     * @param id ID de la receta
+     * @return Optional con los valores si la receta existe
+     */
+    @Transactional(readOnly = true)
+    public Optional<Object[]> obtenerProyeccion(Set<CampoReceta> campos, Long id) {
+        return recetaProyeccionRepository.buscarPorId(campos, id);
+    }
+
+    /**
+     * Obtiene la versión del catálogo (última modificación, mayor ID y
+     * cantidad de recetas).
+     * 
+     * @return [ultimaModificacion, id, cantidad]
+     */
+    @Transactional(readOnly = true)
+    public Object[] obtenerVersionCatalogo() {
+        return recetaProyeccionRepository.obtenerVersionCatalogo();
+    }
+
     /**
      * Guarda o actualiza una receta.
      * 
@@ -79,20 +326,21 @@ public class RecetaService {
      * @return Receta guardada
      */
     public Receta guardarReceta(Receta receta) {
-        return recetaRepository.save(receta);
+        Receta guardada = recetaRepository.save(receta);
+        tarjetaRecetaCache.invalidar(guardada.getId());
+        recetasSimilaresService.notificarCambio(guardada.getId(), guardada.getIngredientes());
+        return guardada;
     }
 
     /**
-     * Incrementa el contador de visualizaciones de una receta.
+     * Incrementa el contador de visualizaciones de una receta y registra la
+     * visita en las estadísticas por hora (RegistroVisitas, sin bloquear).
      * 
      * @param id ID de la receta
      */
     public void incrementarVisualizaciones(Long id) {
-        Optional<Receta> recetaOpt = recetaRepository.findById(id);
-        recetaOpt.ifPresent(receta -> {
-            receta.setVisualizaciones(receta.getVisualizaciones() + 1);
-            recetaRepository.save(receta);
-        });
+        recetaRepository.incrementarVisualizaciones(id);
+        registroVisitas.registrar(id);
     }
 }
 
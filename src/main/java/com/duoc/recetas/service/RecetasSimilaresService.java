@@ -0,0 +1,319 @@
+package com.duoc.recetas.service;
+
+import com.duoc.recetas.cache.IndiceSimilitud;
+import com.duoc.recetas.dto.FilaIngredientes;
+import com.duoc.recetas.repository.RecetaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Recomendaciones "te puede interesar" de la página de detalle: recetas con
+ * ingredientes parecidos, precalculadas en un IndiceSimilitud (MinHash + LSH).
+ *
+ * - Al arrancar se construye el índice completo en segundo plano, leyendo
+ *   solo ID, ingredientes y última modificación con un cursor.
+ * - Cada recetas.similares.intervalo se aplican de forma incremental las
+ *   recetas con ultima_modificacion posterior a la última procesada; las
+ *   que guarda RecetaService se aplican apenas se confirma la transacción.
+ * - Cada recetas.similares.reconstruccion se reconstruye el índice completo
+ *   (recoge recetas eliminadas y corrige la deriva de las actualizaciones).
+ *
+ * La página de detalle solo consulta similares(id), que no accede a la base
+ * de datos. Mientras el índice no existe no hay recomendaciones. getVersion()
+ * cambia cada vez que pueden cambiar las recomendaciones (índice nuevo,
+ * recetas recalculadas o una receta guardada, cuya tarjeta puede aparecer
+ * entre las recomendaciones de otras); forma parte del ETag del detalle.
+ */
+@Service
+public class RecetasSimilaresService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecetasSimilaresService.class);
+
+    private static final long[] VACIO = new long[0];
+
+    @Autowired
+    private RecetaRepository recetaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Value("${recetas.similares.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${recetas.similares.k:4}")
+    private int k;
+
+    @Value("${recetas.similares.bandas:16}")
+    private int bandas;
+
+    @Value("${recetas.similares.filas-por-banda:4}")
+    private int filasPorBanda;
+
+    /**
+     * Similitud de Jaccard mínima estimada (0 a 1).
+     */
+    @Value("${recetas.similares.umbral:0.3}")
+    private double umbral;
+
+    /**
+     * Candidatos máximos por cubeta LSH.
+     */
+    @Value("${recetas.similares.max-candidatos:50}")
+    private int maxCandidatos;
+
+    @Value("${recetas.similares.intervalo:5m}")
+    private Duration intervalo;
+
+    @Value("${recetas.similares.reconstruccion:24h}")
+    private Duration reconstruccion;
+
+    private final AtomicReference<IndiceSimilitud> actual = new AtomicReference<>();
+
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Recetas guardadas pendientes de aplicar (ID → ingredientes).
+     */
+    private final Map<Long, String> pendientes = new ConcurrentHashMap<>();
+
+    private final ReentrantLock escribiendo = new ReentrantLock();
+
+    private volatile LocalDateTime ultimaModificacionProcesada;
+
+    private volatile Instant construidoEn;
+
+    private TransactionTemplate lectura;
+
+    private Timer duracionReconstruccion;
+
+    private Counter recalculadas;
+
+    @PostConstruct
+    void inicializar() {
+        lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+
+        duracionReconstruccion = Timer.builder("recetas.similares.reconstruccion")
+            .description("Tiempo de construcción del índice de recetas similares")
+            .register(meterRegistry);
+        recalculadas = Counter.builder("recetas.similares.recalculadas")
+            .description("Recetas cuyas recomendaciones se recalcularon de forma incremental")
+            .register(meterRegistry);
+        Gauge.builder("recetas.similares.recetas", actual, a -> a.get() != null ? a.get().getRecetas() : 0)
+            .description("Recetas en el índice de recetas similares")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Programa la construcción inicial y las actualizaciones periódicas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void programarActualizacion() {
+        if (habilitado) {
+            taskScheduler.scheduleWithFixedDelay(this::actualizar, Instant.now(), intervalo);
+        }
+    }
+
+    /**
+     * Reconstruye el índice si no existe o ya cumplió
+     * recetas.similares.reconstruccion; si no, aplica las recetas modificadas.
+     */
+    public void actualizar() {
+        Instant construido = construidoEn;
+        if (construido == null || Instant.now().isAfter(construido.plus(reconstruccion))) {
+            reconstruir();
+        } else {
+            aplicarModificadas();
+        }
+    }
+
+    /**
+     * Construye un índice nuevo con todas las recetas y reemplaza el actual.
+     */
+    public void reconstruir() {
+        escribiendo.lock();
+        try {
+            long inicio = System.nanoTime();
+            IndiceSimilitud nuevo = new IndiceSimilitud(bandas, filasPorBanda, k, umbral, maxCandidatos);
+            LocalDateTime maxima = lectura.execute(estado -> {
+                LocalDateTime ultima = null;
+                try (Stream<FilaIngredientes> filas = recetaRepository.streamIngredientes()) {
+                    for (FilaIngredientes fila : (Iterable<FilaIngredientes>) filas::iterator) {
+                        nuevo.agregar(fila.id(), fila.ingredientes());
+                        ultima = posterior(ultima, fila.ultimaModificacion());
+                    }
+                }
+                return ultima;
+            });
+            nuevo.recalcularTodas();
+            // Las guardadas durante la lectura pueden no estar en el cursor
+            aplicarPendientes(nuevo);
+            actual.set(nuevo);
+            version.incrementAndGet();
+            ultimaModificacionProcesada = maxima;
+            construidoEn = Instant.now();
+            long nanos = System.nanoTime() - inicio;
+            duracionReconstruccion.record(nanos, TimeUnit.NANOSECONDS);
+            log.debug("Recetas similares: {} recetas ({} con recomendaciones) en {} ms", nuevo.getRecetas(),
+                nuevo.getConSimilares(), TimeUnit.NANOSECONDS.toMillis(nanos));
+        } catch (RuntimeException e) {
+            log.warn("No se pudo construir el índice de recetas similares (se mantiene el anterior): {}",
+                e.toString());
+        } finally {
+            escribiendo.unlock();
+        }
+    }
+
+    /**
+     * Aplica las recetas con ultima_modificacion igual o posterior a la
+     * última procesada (volver a aplicar una receta sin cambios no tiene costo).
+     */
+    public void aplicarModificadas() {
+        escribiendo.lock();
+        try {
+            IndiceSimilitud indice = actual.get();
+            LocalDateTime desde = ultimaModificacionProcesada;
+            if (indice == null || desde == null) {
+                return;
+            }
+            List<FilaIngredientes> modificadas = lectura.execute(
+                estado -> recetaRepository.findIngredientesModificadosDesde(desde));
+            LocalDateTime maxima = desde;
+            for (FilaIngredientes fila : modificadas) {
+                aplicar(indice, fila.id(), fila.ingredientes());
+                maxima = posterior(maxima, fila.ultimaModificacion());
+            }
+            aplicarPendientes(indice);
+            ultimaModificacionProcesada = maxima;
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron aplicar las recetas modificadas al índice de similares: {}", e.toString());
+        } finally {
+            escribiendo.unlock();
+        }
+    }
+
+    /**
+     * Registra una receta guardada para actualizar sus recomendaciones.
+     *
+     * Si hay una transacción activa, se aplica después de confirmarla; la
+     * actualización del índice se hace en el TaskScheduler, fuera de la
+     * petición.
+     *
+     * @param id ID de la receta
+     * @param ingredientes Ingredientes guardados
+     */
+    public void notificarCambio(Long id, String ingredientes) {
+        if (!habilitado || id == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    encolar(id, ingredientes);
+                }
+            });
+        } else {
+            encolar(id, ingredientes);
+        }
+    }
+
+    /**
+     * Recetas similares a una receta, de la más a la menos parecida.
+     *
+     * @param id ID de la receta
+     * @return IDs de hasta recetas.similares.k recetas (vacío si no hay o el
+     *         índice todavía no se construyó)
+     */
+    public long[] similares(Long id) {
+        IndiceSimilitud indice = actual.get();
+        return indice != null && id != null ? indice.similares(id) : VACIO;
+    }
+
+    /**
+     * @return Versión de las recomendaciones; cambia cuando pueden cambiar
+     *         las de cualquier receta
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    private void encolar(Long id, String ingredientes) {
+        // Nombre o foto de la receta pueden haber cambiado aunque el índice no
+        version.incrementAndGet();
+        pendientes.put(id, ingredientes != null ? ingredientes : "");
+        if (actual.get() != null) {
+            taskScheduler.schedule(this::aplicarPendientes, Instant.now());
+        }
+    }
+
+    private void aplicarPendientes() {
+        escribiendo.lock();
+        try {
+            IndiceSimilitud indice = actual.get();
+            if (indice != null) {
+                aplicarPendientes(indice);
+            }
+        } finally {
+            escribiendo.unlock();
+        }
+    }
+
+    private void aplicarPendientes(IndiceSimilitud indice) {
+        for (Long id : pendientes.keySet()) {
+            // remove(id) devuelve el último valor encolado, aunque llegue durante el recorrido
+            String ingredientes = pendientes.remove(id);
+            if (ingredientes != null) {
+                aplicar(indice, id, ingredientes);
+            }
+        }
+    }
+
+    private void aplicar(IndiceSimilitud indice, Long id, String ingredientes) {
+        int cambios = indice.actualizar(id, ingredientes);
+        if (cambios > 0) {
+            recalculadas.increment(cambios);
+            version.incrementAndGet();
+        }
+    }
+
+    private static LocalDateTime posterior(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b != null && b.isAfter(a) ? b : a;
+    }
+}
@@ -0,0 +1,397 @@
+package com.duoc.recetas.service;
+
+import com.duoc.recetas.dto.RecetaDetalle;
+import com.duoc.recetas.dto.RecetaVista;
+import com.duoc.recetas.repository.RecetasVistasRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recetas vistas recientemente por cada usuario autenticado, para la
+ * página de inicio.
+ *
+ * - En memoria: una lista pequeña por usuario (recetas.recientes.por-usuario,
+ *   la más reciente primero) en un LRU de usuarios con un máximo global
+ *   (recetas.recientes.max-usuarios). Las listas sin uso durante
+ *   recetas.recientes.inactividad se liberan.
+ * - Lectura: obtenerRecientes() solo lee memoria. Si el usuario no está
+ *   cargado, su lista se lee de usuarios_recetas_vistas en segundo plano
+ *   (también al iniciar sesión) y aparece en la siguiente visita.
+ * - Escritura: la página de detalle actualiza la lista en memoria; cada
+ *   recetas.recientes.intervalo las listas modificadas se guardan juntas,
+ *   en una transacción con lotes JDBC, para conservarlas entre reinicios.
+ *
+ * Las vistas registradas antes de terminar la carga se combinan con las
+ * guardadas; una lista no se guarda hasta estar cargada, para no
+ * reemplazar el historial guardado por uno parcial.
+ */
+@Service
+public class RecientesService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecientesService.class);
+
+    /**
+     * Espera antes de reintentar una carga fallida.
+     */
+    private static final long REINTENTO_CARGA_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    @Autowired
+    private RecetasVistasRepository recetasVistasRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private AsyncTaskExecutor taskExecutor;
+
+    @Value("${recetas.recientes.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${recetas.recientes.por-usuario:8}")
+    private int porUsuario;
+
+    @Value("${recetas.recientes.max-usuarios:10000}")
+    private int maxUsuarios;
+
+    @Value("${recetas.recientes.inactividad:30m}")
+    private Duration inactividad;
+
+    @Value("${recetas.recientes.intervalo:10s}")
+    private Duration intervalo;
+
+    @Value("${recetas.recientes.tamano-lote:500}")
+    private int tamanoLote;
+
+    /**
+     * Listas por usuario en orden de acceso; se expulsa la de acceso más
+     * antiguo al superar maxUsuarios. Acceso sincronizado sobre el mapa.
+     */
+    private final Map<String, Lista> usuarios = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Lista> mayor) {
+            return size() > maxUsuarios;
+        }
+    };
+
+    /**
+     * Última versión de cada lista modificada y aún no guardada.
+     */
+    private final Map<String, List<RecetaVista>> porGuardar = new ConcurrentHashMap<>();
+
+    private TransactionTemplate transaccion;
+
+    private Timer duracionEscritura;
+
+    @PostConstruct
+    void inicializar() {
+        transaccion = new TransactionTemplate(transactionManager);
+
+        duracionEscritura = Timer.builder("recetas.recientes.escritura")
+            .description("Tiempo de escritura de las recetas vistas recientemente")
+            .register(meterRegistry);
+        Gauge.builder("recetas.recientes.usuarios", usuarios, u -> {
+                synchronized (u) {
+                    return u.size();
+                }
+            })
+            .description("Usuarios con recetas vistas recientemente en memoria")
+            .register(meterRegistry);
+        Gauge.builder("recetas.recientes.pendientes", porGuardar, Map::size)
+            .description("Listas de recetas vistas pendientes de guardar")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Programa el guardado y la expulsión de listas inactivas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void programarMantenimiento() {
+        if (habilitado) {
+            taskScheduler.scheduleWithFixedDelay(this::mantener, Instant.now().plus(intervalo), intervalo);
+        }
+    }
+
+    /**
+     * Precarga la lista del usuario al iniciar sesión, para que esté en
+     * memoria al llegar a la página de inicio.
+     *
+     * @param evento Autenticación correcta
+     */
+    @EventListener
+    public void alIniciarSesion(AuthenticationSuccessEvent evento) {
+        if (habilitado) {
+            lista(evento.getAuthentication().getName());
+        }
+    }
+
+    /**
+     * Registra que el usuario vio una receta.
+     *
+     * @param username Usuario autenticado
+     * @param receta Receta vista
+     */
+    public void registrarVista(String username, RecetaDetalle receta) {
+        if (!habilitado || username == null || receta == null || receta.id() == null) {
+            return;
+        }
+        RecetaVista vista = new RecetaVista(receta.id(), receta.nombre(), receta.fotoVersion(),
+            LocalDateTime.now());
+        Lista lista = lista(username);
+        // Con el bloqueo de la lista: porGuardar nunca recibe una copia más vieja que la anterior
+        synchronized (lista) {
+            if (lista.agregar(vista, porUsuario)) {
+                porGuardar.put(username, lista.copia());
+            }
+        }
+    }
+
+    /**
+     * Registra una nueva visita a una receta que ya está en la lista del
+     * usuario (respuesta 304, sin la receta cargada); si no está, no hace nada.
+     *
+     * @param username Usuario autenticado
+     * @param recetaId ID de la receta
+     */
+    public void registrarVista(String username, Long recetaId) {
+        if (!habilitado || username == null || recetaId == null) {
+            return;
+        }
+        Lista lista = lista(username);
+        synchronized (lista) {
+            if (lista.mover(recetaId, LocalDateTime.now())) {
+                porGuardar.put(username, lista.copia());
+            }
+        }
+    }
+
+    /**
+     * Recetas vistas recientemente, solo desde memoria.
+     *
+     * @param username Usuario autenticado (null si es anónimo)
+     * @return Recetas de la más a la menos reciente (vacío si no hay o aún
+     *         se están cargando)
+     */
+    public List<RecetaVista> obtenerRecientes(String username) {
+        if (!habilitado || username == null) {
+            return List.of();
+        }
+        return lista(username).copia();
+    }
+
+    /**
+     * Guarda las listas modificadas y libera las inactivas.
+     */
+    public void mantener() {
+        guardar();
+        expulsarInactivas();
+    }
+
+    /**
+     * Guarda las listas pendientes al detener la aplicación.
+     */
+    @PreDestroy
+    void detener() {
+        if (habilitado) {
+            guardar();
+        }
+    }
+
+    private void guardar() {
+        if (porGuardar.isEmpty()) {
+            return;
+        }
+        Map<String, List<RecetaVista>> lote = new HashMap<>();
+        for (String username : porGuardar.keySet()) {
+            List<RecetaVista> vistas = porGuardar.remove(username);
+            if (vistas != null) {
+                lote.put(username, vistas);
+            }
+        }
+        try {
+            duracionEscritura.record(() -> transaccion.executeWithoutResult(
+                estado -> recetasVistasRepository.reemplazar(lote, tamanoLote)));
+        } catch (RuntimeException e) {
+            // Se reintentan, salvo que llegara una versión más nueva mientras tanto
+            lote.forEach(porGuardar::putIfAbsent);
+            log.warn("No se pudieron guardar las recetas vistas de {} usuarios (se reintentará): {}",
+                lote.size(), e.toString());
+        }
+    }
+
+    private void expulsarInactivas() {
+        long limite = System.nanoTime() - inactividad.toNanos();
+        synchronized (usuarios) {
+            Iterator<Lista> it = usuarios.values().iterator();
+            // Orden de acceso: la primera lista activa marca el fin de las inactivas
+            while (it.hasNext()) {
+                if (it.next().ultimoAcceso - limite >= 0) {
+                    break;
+                }
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Lista del usuario; si no está en memoria se crea vacía y se carga en
+     * segundo plano.
+     */
+    private Lista lista(String username) {
+        Lista lista;
+        synchronized (usuarios) {
+            lista = usuarios.computeIfAbsent(username, u -> new Lista());
+        }
+        lista.ultimoAcceso = System.nanoTime();
+        if (lista.iniciarCarga()) {
+            Lista destino = lista;
+            taskExecutor.execute(() -> cargar(username, destino));
+        }
+        return lista;
+    }
+
+    private void cargar(String username, Lista lista) {
+        try {
+            List<RecetaVista> guardadas = recetasVistasRepository.listar(username, porUsuario);
+            synchronized (lista) {
+                if (lista.terminarCarga(guardadas, porUsuario)) {
+                    porGuardar.put(username, lista.copia());
+                }
+            }
+        } catch (RuntimeException e) {
+            lista.fallarCarga();
+            log.warn("No se pudieron cargar las recetas vistas de '{}': {}", username, e.toString());
+        }
+    }
+
+    /**
+     * Recetas vistas por un usuario, la más reciente primero.
+     */
+    private static final class Lista {
+
+        private final List<RecetaVista> vistas = new ArrayList<>();
+
+        private boolean cargada;
+
+        private boolean cargando;
+
+        /**
+         * Hubo visitas antes de terminar la carga.
+         */
+        private boolean modificadaSinCargar;
+
+        private long reintentarDesde = System.nanoTime();
+
+        private volatile long ultimoAcceso = System.nanoTime();
+
+        /**
+         * @return true si el llamador debe cargar la lista
+         */
+        synchronized boolean iniciarCarga() {
+            if (cargada || cargando || System.nanoTime() - reintentarDesde < 0) {
+                return false;
+            }
+            cargando = true;
+            return true;
+        }
+
+        /**
+         * Agrega las recetas guardadas después de las vistas en memoria
+         * (estas son más nuevas).
+         *
+         * @return true si hay que guardar la lista combinada
+         */
+        synchronized boolean terminarCarga(List<RecetaVista> guardadas, int maximo) {
+            for (RecetaVista guardada : guardadas) {
+                if (vistas.size() < maximo && indice(guardada.recetaId()) < 0) {
+                    vistas.add(guardada);
+                }
+            }
+            cargada = true;
+            cargando = false;
+            return modificadaSinCargar;
+        }
+
+        synchronized void fallarCarga() {
+            cargando = false;
+            reintentarDesde = System.nanoTime() + REINTENTO_CARGA_NANOS;
+        }
+
+        /**
+         * @return true si la lista está cargada y hay que guardarla
+         */
+        synchronized boolean agregar(RecetaVista vista, int maximo) {
+            int indice = indice(vista.recetaId());
+            if (indice >= 0) {
+                vistas.remove(indice);
+            }
+            vistas.add(0, vista);
+            while (vistas.size() > maximo) {
+                vistas.remove(vistas.size() - 1);
+            }
+            modificadaSinCargar |= !cargada;
+            return cargada;
+        }
+
+        /**
+         * @return true si la receta estaba, la lista está cargada y hay que guardarla
+         */
+        synchronized boolean mover(Long recetaId, LocalDateTime vistaEn) {
+            int indice = indice(recetaId);
+            if (indice < 0) {
+                return false;
+            }
+            vistas.add(0, vistas.remove(indice).vistaEn(vistaEn));
+            modificadaSinCargar |= !cargada;
+            return cargada;
+        }
+
+        synchronized List<RecetaVista> copia() {
+            return List.copyOf(vistas);
+        }
+
+        private int indice(Long recetaId) {
+            for (int i = 0; i < vistas.size(); i++) {
+                if (vistas.get(i).recetaId().equals(recetaId)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
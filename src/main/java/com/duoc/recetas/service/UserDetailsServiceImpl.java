@@ -1,7 +1,9 @@
 package com.duoc.recetas.service;
 
+import com.duoc.recetas.cache.UsuarioSeguridadCache;
 import com.duoc.recetas.model.Usuario;
 import com.duoc.recetas.repository.UsuarioRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -10,7 +12,6 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -20,6 +21,10 @@ import java.util.stream.Collectors;
  * 
  * Este servicio se encarga de cargar los datos del usuario desde la base de datos
  * para el proceso de autenticación de Spring Security.
+ * 
+ * El usuario y sus roles se leen con una sola consulta, y sus datos de
+ * seguridad quedan en UsuarioSeguridadCache: mientras estén vigentes, cargar
+ * el usuario no accede a la base de datos.
  */
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
@@ -27,6 +32,9 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Autowired
+    private UsuarioSeguridadCache usuarioSeguridadCache;
+
     /**
      * Carga un usuario por su nombre de usuario.
      * 
@@ -38,29 +46,38 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      * @throws UsernameNotFoundException Si el usuario no existe
      */
     @Override
-    @Transactional(readOnly = true)
+    @Timed(value = "recetas.seguridad.cargar.usuario", description = "Latencia de loadUserByUsername")
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         
-        // Buscar el usuario en la base de datos
-        Usuario usuario = usuarioRepository.findByUsername(username)
-            .orElseThrow(() -> new UsernameNotFoundException(
-                "Usuario no encontrado: " + username));
+        UsuarioSeguridadCache.Entrada entrada = usuarioSeguridadCache.obtener(username);
+        if (entrada == null) {
+            // Leer la generación antes de la consulta (ver UsuarioSeguridadCache)
+            long generacion = usuarioSeguridadCache.getGeneracion();
 
-        // Convertir los roles del usuario a GrantedAuthority
-        Set<GrantedAuthority> authorities = usuario.getRoles().stream()
-            .map(rol -> new SimpleGrantedAuthority(rol.getNombre()))
-            .collect(Collectors.toSet());
+            // Buscar el usuario y sus roles en la base de datos
+            Usuario usuario = usuarioRepository.findConRolesByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException(
+                    "Usuario no encontrado: " + username));
 
-        // Retornar un UserDetails con la información del usuario
+            // Convertir los roles del usuario a GrantedAuthority
+            Set<GrantedAuthority> authorities = usuario.getRoles().stream()
+                .map(rol -> new SimpleGrantedAuthority(rol.getNombre()))
+                .collect(Collectors.toSet());
+
+            entrada = new UsuarioSeguridadCache.Entrada(usuario.getId(), usuario.getUsername(),
+                usuario.getPassword(), Boolean.TRUE.equals(usuario.getEnabled()), authorities);
+            usuarioSeguridadCache.guardar(username, entrada, generacion);
+        }
+
+        // Retornar un UserDetails nuevo con la información del usuario
         return User.builder()
-            .username(usuario.getUsername())
-            .password(usuario.getPassword())
-            .authorities(authorities)
+            .username(entrada.username())
+            .password(entrada.password())
+            .authorities(entrada.autoridades())
             .accountExpired(false)
             .accountLocked(false)
             .credentialsExpired(false)
-            .disabled(!usuario.getEnabled())
+            .disabled(!entrada.habilitado())
             .build();
     }
 }
-
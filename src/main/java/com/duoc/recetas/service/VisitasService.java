@@ -0,0 +1,75 @@
+package com.duoc.recetas.service;
+
+import com.duoc.recetas.dto.RecetaVisitas;
+import com.duoc.recetas.dto.VisitasHora;
+import com.duoc.recetas.repository.VisitasHoraRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consultas sobre las visitas por hora que guarda RegistroVisitas.
+ *
+ * Las ventanas son las últimas N horas en UTC, incluida la hora en curso.
+ */
+@Service
+public class VisitasService {
+
+    /**
+     * Ventana máxima: 90 días.
+     */
+    public static final int MAX_HORAS = 24 * 90;
+
+    public static final int MAX_LIMITE = 100;
+
+    @Autowired
+    private VisitasHoraRepository visitasHoraRepository;
+
+    /**
+     * Serie horaria de visitas de una receta, con las horas sin visitas en 0.
+     *
+     * @param recetaId ID de la receta
+     * @param horas Tamaño de la ventana en horas (1 a MAX_HORAS)
+     * @return Una entrada por hora, en orden cronológico
+     */
+    public List<VisitasHora> obtenerSerie(Long recetaId, int horas) {
+        int ventana = Math.max(1, Math.min(horas, MAX_HORAS));
+        LocalDateTime hasta = inicioHoraActual().plusHours(1);
+        LocalDateTime desde = hasta.minusHours(ventana);
+
+        Map<LocalDateTime, Long> porHora = new HashMap<>();
+        for (VisitasHora visitas : visitasHoraRepository.obtenerSerie(recetaId, desde, hasta)) {
+            porHora.put(visitas.hora(), visitas.visitas());
+        }
+        List<VisitasHora> serie = new ArrayList<>(ventana);
+        for (LocalDateTime hora = desde; hora.isBefore(hasta); hora = hora.plusHours(1)) {
+            serie.add(new VisitasHora(hora, porHora.getOrDefault(hora, 0L)));
+        }
+        return serie;
+    }
+
+    /**
+     * Recetas más visitadas en la ventana.
+     *
+     * @param horas Tamaño de la ventana en horas (1 a MAX_HORAS)
+     * @param limite Recetas máximas (1 a MAX_LIMITE)
+     * @return Recetas de la más a la menos visitada
+     */
+    public List<RecetaVisitas> obtenerMasVisitadas(int horas, int limite) {
+        int ventana = Math.max(1, Math.min(horas, MAX_HORAS));
+        LocalDateTime hasta = inicioHoraActual().plusHours(1);
+        return visitasHoraRepository.obtenerMasVisitadas(hasta.minusHours(ventana), hasta,
+            Math.max(1, Math.min(limite, MAX_LIMITE)));
+    }
+
+    private static LocalDateTime inicioHoraActual() {
+        return LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS);
+    }
+}
@@ -0,0 +1,247 @@
+package com.duoc.recetas.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Formato de almacenamiento comprimido para textos largos (ingredientes e
+ * instrucciones de las recetas).
+ *
+ * Un valor comprimido empieza con una cabecera de 9 bytes:
+ * - byte 0: marca 0x00 (un texto UTF-8 nunca empieza con NUL)
+ * - byte 1: versión del formato (VERSION)
+ * - byte 2: códec (CODEC_UTF8 o CODEC_DEFLATE)
+ * - bytes 3-4: ID del diccionario (0 = sin diccionario)
+ * - bytes 5-8: longitud del texto en bytes UTF-8
+ *
+ * y sigue el contenido: el texto en UTF-8 o un flujo deflate (sin envoltura
+ * zlib) con el diccionario como diccionario predefinido. Los valores sin
+ * cabecera son texto UTF-8 tal cual (filas anteriores a la compresión).
+ *
+ * Los textos de recetas son cortos y se comprimen mal por separado; el
+ * diccionario, entrenado sobre el catálogo con entrenarDiccionario(),
+ * aporta las líneas y frases que se repiten entre recetas.
+ */
+public final class CompresorTexto {
+
+    public static final byte VERSION = 1;
+
+    public static final byte CODEC_UTF8 = 0;
+
+    public static final byte CODEC_DEFLATE = 1;
+
+    public static final int CABECERA = 9;
+
+    /**
+     * Tamaño máximo útil de un diccionario (ventana de deflate).
+     */
+    public static final int MAX_DICCIONARIO = 32 * 1024;
+
+    public static final int MAX_ID_DICCIONARIO = 0xFFFF;
+
+    private static final int MIN_FRAGMENTO = 4;
+
+    private CompresorTexto() {
+    }
+
+    /**
+     * @param datos Valor almacenado
+     * @return true si el valor tiene cabecera de este formato
+     */
+    public static boolean tieneCabecera(byte[] datos) {
+        return datos != null && datos.length >= CABECERA && datos[0] == 0;
+    }
+
+    /**
+     * @param datos Valor almacenado con cabecera
+     * @return ID del diccionario con que se comprimió (0 = ninguno)
+     */
+    public static int diccionarioId(byte[] datos) {
+        return ((datos[3] & 0xFF) << 8) | (datos[4] & 0xFF);
+    }
+
+    /**
+     * Codifica un texto con cabecera. Si deflate no reduce el tamaño, se
+     * guarda el texto UTF-8 tras la cabecera.
+     *
+     * @param texto Texto a codificar
+     * @param diccionarioId ID del diccionario (0 = sin diccionario)
+     * @param diccionario Contenido del diccionario (null si diccionarioId es 0)
+     * @param nivel Nivel de deflate (1 a 9)
+     * @return Valor con cabecera
+     */
+    public static byte[] comprimir(String texto, int diccionarioId, byte[] diccionario, int nivel) {
+        byte[] utf8 = texto.getBytes(StandardCharsets.UTF_8);
+        byte[] salida = new byte[CABECERA + utf8.length];
+        Deflater deflater = new Deflater(nivel, true);
+        try {
+            if (diccionarioId != 0) {
+                deflater.setDictionary(diccionario);
+            }
+            deflater.setInput(utf8);
+            deflater.finish();
+            int escritos = 0;
+            // Si no cabe en el tamaño del texto original no vale la pena comprimir
+            while (!deflater.finished() && CABECERA + escritos < salida.length) {
+                escritos += deflater.deflate(salida, CABECERA + escritos, salida.length - CABECERA - escritos);
+            }
+            if (deflater.finished() && CABECERA + escritos < salida.length) {
+                escribirCabecera(salida, CODEC_DEFLATE, diccionarioId, utf8.length);
+                byte[] comprimido = new byte[CABECERA + escritos];
+                System.arraycopy(salida, 0, comprimido, 0, comprimido.length);
+                return comprimido;
+            }
+        } finally {
+            deflater.end();
+        }
+        escribirCabecera(salida, CODEC_UTF8, 0, utf8.length);
+        System.arraycopy(utf8, 0, salida, CABECERA, utf8.length);
+        return salida;
+    }
+
+    /**
+     * Decodifica un valor almacenado, con o sin cabecera.
+     *
+     * @param datos Valor almacenado
+     * @param diccionarios Contenido de un diccionario por ID
+     * @return Texto original
+     * @throws IllegalArgumentException si la versión es desconocida, falta
+     *         el diccionario o el contenido está dañado
+     */
+    public static String descomprimir(byte[] datos, IntFunction<byte[]> diccionarios) {
+        if (!tieneCabecera(datos)) {
+            return new String(datos, StandardCharsets.UTF_8);
+        }
+        if (datos[1] != VERSION) {
+            throw new IllegalArgumentException("Versión de texto comprimido desconocida: " + datos[1]);
+        }
+        int longitud = ((datos[5] & 0xFF) << 24) | ((datos[6] & 0xFF) << 16)
+            | ((datos[7] & 0xFF) << 8) | (datos[8] & 0xFF);
+        if (datos[2] == CODEC_UTF8) {
+            return new String(datos, CABECERA, longitud, StandardCharsets.UTF_8);
+        }
+        if (datos[2] != CODEC_DEFLATE) {
+            throw new IllegalArgumentException("Códec de texto comprimido desconocido: " + datos[2]);
+        }
+        int id = diccionarioId(datos);
+        Inflater inflater = new Inflater(true);
+        try {
+            if (id != 0) {
+                byte[] diccionario = diccionarios.apply(id);
+                if (diccionario == null) {
+                    throw new IllegalArgumentException("No existe el diccionario de compresión " + id);
+                }
+                inflater.setDictionary(diccionario);
+            }
+            inflater.setInput(datos, CABECERA, datos.length - CABECERA);
+            byte[] utf8 = new byte[longitud];
+            int leidos = 0;
+            while (leidos < longitud) {
+                int n = inflater.inflate(utf8, leidos, longitud - leidos);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                    break;
+                }
+                leidos += n;
+            }
+            if (leidos != longitud) {
+                throw new IllegalArgumentException("Texto comprimido incompleto");
+            }
+            return new String(utf8, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Texto comprimido dañado", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Entrena un diccionario con las líneas que más se repiten en una
+     * muestra de textos.
+     *
+     * Cada línea aporta la línea completa y la misma línea sin su primera y
+     * segunda palabra (para que "- 2 tazas de harina" y "- 1 taza de
+     * harina" compartan "de harina", y "3. Hornear..." valga en cualquier
+     * posición). Los fragmentos se ordenan por bytes ahorrados estimados
+     * (repeticiones × longitud) y los más valiosos quedan al final del
+     * diccionario, donde deflate los referencia con distancias más cortas.
+     *
+     * @param muestras Textos de ejemplo
+     * @param tamanoMaximo Bytes máximos del diccionario
+     * @return Contenido del diccionario (vacío si nada se repite)
+     */
+    public static byte[] entrenarDiccionario(Iterable<String> muestras, int tamanoMaximo) {
+        Map<String, Integer> frecuencias = new HashMap<>();
+        for (String texto : muestras) {
+            if (texto == null) {
+                continue;
+            }
+            for (String linea : texto.split("\n")) {
+                String fragmento = linea.strip();
+                for (int palabras = 0; palabras < 3 && fragmento.length() >= MIN_FRAGMENTO; palabras++) {
+                    frecuencias.merge(fragmento, 1, Integer::sum);
+                    int espacio = fragmento.indexOf(' ');
+                    if (espacio < 0) {
+                        break;
+                    }
+                    fragmento = fragmento.substring(espacio + 1);
+                }
+            }
+        }
+
+        List<Map.Entry<String, Integer>> candidatos = new ArrayList<>();
+        for (Map.Entry<String, Integer> entrada : frecuencias.entrySet()) {
+            if (entrada.getValue() > 1) {
+                candidatos.add(entrada);
+            }
+        }
+        candidatos.sort((a, b) -> Long.compare(ahorro(b), ahorro(a)));
+
+        int limite = Math.min(tamanoMaximo, MAX_DICCIONARIO);
+        List<String> elegidos = new ArrayList<>();
+        StringBuilder incluidos = new StringBuilder();
+        int bytes = 0;
+        for (Map.Entry<String, Integer> candidato : candidatos) {
+            String fragmento = candidato.getKey();
+            // Un fragmento contenido en otro ya elegido no aporta nada
+            if (incluidos.indexOf(fragmento) >= 0) {
+                continue;
+            }
+            int longitud = fragmento.getBytes(StandardCharsets.UTF_8).length + 1;
+            if (bytes + longitud > limite) {
+                continue;
+            }
+            elegidos.add(fragmento);
+            incluidos.append(fragmento).append('\n');
+            bytes += longitud;
+        }
+
+        StringBuilder diccionario = new StringBuilder(bytes);
+        for (int i = elegidos.size() - 1; i >= 0; i--) {
+            diccionario.append(elegidos.get(i)).append('\n');
+        }
+        return diccionario.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long ahorro(Map.Entry<String, Integer> entrada) {
+        return (long) (entrada.getValue() - 1) * entrada.getKey().length();
+    }
+
+    private static void escribirCabecera(byte[] salida, byte codec, int diccionarioId, int longitud) {
+        salida[0] = 0;
+        salida[1] = VERSION;
+        salida[2] = codec;
+        salida[3] = (byte) (diccionarioId >>> 8);
+        salida[4] = (byte) diccionarioId;
+        salida[5] = (byte) (longitud >>> 24);
+        salida[6] = (byte) (longitud >>> 16);
+        salida[7] = (byte) (longitud >>> 8);
+        salida[8] = (byte) longitud;
+    }
+}
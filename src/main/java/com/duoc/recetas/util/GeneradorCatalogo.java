@@ -0,0 +1,436 @@
+package com.duoc.recetas.util;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Generador de catálogos sintéticos para pruebas de escala.
+ *
+ * Escribe recetas, usuarios y roles directamente con JDBC por lotes (H2 o
+ * MySQL/MariaDB, sobre el esquema de database/schema.sql) con distribuciones
+ * realistas:
+ * - Tipos de cocina y países con distribución de Zipf (pocos muy frecuentes).
+ * - Visualizaciones con cola larga (Pareto, ~80/20).
+ * - Ingredientes e instrucciones tomados de un vocabulario.
+ * - Dificultad válida ('Fácil', 'Intermedio', 'Difícil').
+ *
+ * Es determinista: la misma semilla y los mismos tamaños producen
+ * exactamente los mismos datos. Lo usan los benchmarks y puede usarse desde
+ * pruebas o por línea de comandos:
+ * <pre>
+ * mvn exec:java -Dexec.mainClass=com.duoc.recetas.util.GeneradorCatalogo \
+ *   -Dexec.args="--url=jdbc:mysql://localhost:3306/recetas_db?rewriteBatchedStatements=true --usuario=root --password=root123 --recetas=1m"
+ * </pre>
+ * Tamaños aceptados: número exacto o con sufijo k/m (10k, 1m, 10m).
+ */
+public class GeneradorCatalogo {
+
+    public static final List<String> TIPOS_COCINA = List.of(
+        "Italiana", "Mexicana", "Española", "Japonesa", "Francesa", "Peruana",
+        "Chilena", "India", "Tailandesa", "China", "Griega", "Argentina");
+
+    public static final List<String> PAISES = List.of(
+        "Italia", "México", "España", "Japón", "Francia", "Perú",
+        "Chile", "India", "Tailandia", "China", "Grecia", "Argentina");
+
+    public static final List<String> DIFICULTADES = List.of("Fácil", "Intermedio", "Difícil");
+
+    /**
+     * Contraseña en texto plano de todos los usuarios sintéticos.
+     */
+    public static final String PASSWORD_USUARIOS = "sintetico123";
+
+    /**
+     * Prefijo de los usuarios sintéticos (sintetico1, sintetico2, ...).
+     */
+    public static final String PREFIJO_USUARIO = "sintetico";
+
+    private static final int UMBRAL_POPULAR = 1000;
+
+    private static final double[] PESOS_DIFICULTAD = {0.45, 0.40, 0.15};
+
+    private static final String[] PLATOS = {
+        "Arroz", "Pollo", "Pasta", "Sopa", "Ensalada", "Guiso", "Tarta", "Pescado",
+        "Cerdo", "Tacos", "Curry", "Risotto", "Empanadas", "Crema", "Salteado", "Pan"
+    };
+
+    private static final String[] ESTILOS = {
+        "de la abuela", "al horno", "picante", "con verduras", "a la plancha", "casero",
+        "tradicional", "express", "gratinado", "en salsa", "marinado", "de temporada"
+    };
+
+    private static final String[] INGREDIENTES = {
+        "arroz", "pollo", "carne de res", "cerdo", "salmón", "camarones", "tomate", "cebolla",
+        "ajo", "pimentón", "zanahoria", "papa", "zapallo", "espinaca", "champiñones", "choclo",
+        "porotos", "garbanzos", "lentejas", "queso", "crema", "leche", "mantequilla", "huevo",
+        "harina", "azúcar", "aceite de oliva", "limón", "cilantro", "perejil", "albahaca", "orégano",
+        "comino", "ají", "jengibre", "salsa de soya", "vino blanco", "caldo de verduras", "pasta", "pan"
+    };
+
+    private static final String[] CANTIDADES = {
+        "100g de", "200g de", "500g de", "1 taza de", "2 cucharadas de", "1 cucharadita de", "2", "3"
+    };
+
+    private static final String[] PASOS = {
+        "Lavar y picar los ingredientes", "Calentar aceite en una olla", "Sofreír la cebolla y el ajo",
+        "Agregar la proteína y dorar", "Incorporar las verduras", "Sazonar con sal y pimienta",
+        "Añadir el caldo y llevar a ebullición", "Cocinar a fuego lento", "Hornear a 180°C",
+        "Mezclar hasta integrar", "Dejar reposar unos minutos", "Servir caliente"
+    };
+
+    private static final String[] FOTOS = {
+        "https://images.unsplash.com/photo-1534080564583-6be75777b70a?w=500",
+        "https://images.unsplash.com/photo-1555507036-ab1f4038808a?w=500",
+        "https://images.unsplash.com/photo-1557872943-16a5ac26437e?w=500",
+        "https://images.unsplash.com/photo-1559314809-0d155014e29e?w=500",
+        "https://images.unsplash.com/photo-1565299585323-38d6b0865b47?w=500",
+        "https://images.unsplash.com/photo-1571877227200-a0d98ea607e9?w=500",
+        "https://images.unsplash.com/photo-1583623025817-d180a2221d0a?w=500",
+        "https://images.unsplash.com/photo-1612874742237-6526221588e3?w=500"
+    };
+
+    private static final String SQL_RECETA = "INSERT INTO recetas (nombre, tipo_cocina, pais_origen, "
+        + "dificultad, tiempo_coccion, ingredientes, instrucciones, foto_url, descripcion, porciones, "
+        + "popular, reciente, visualizaciones, fecha_creacion) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SQL_USUARIO = "INSERT INTO usuarios (username, password, nombre_completo, "
+        + "email, enabled) VALUES (?, ?, ?, ?, TRUE)";
+
+    private final long semilla;
+
+    private int tamanoLote = 1000;
+
+    private int costoBcrypt = 10;
+
+    private double exponenteZipf = 1.1;
+
+    private LocalDateTime referencia = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    /**
+     * @param semilla Semilla del generador (misma semilla = mismos datos)
+     */
+    public GeneradorCatalogo(long semilla) {
+        this.semilla = semilla;
+    }
+
+    /**
+     * Filas por lote (y por commit). Por defecto 1000.
+     */
+    public GeneradorCatalogo conTamanoLote(int tamanoLote) {
+        this.tamanoLote = tamanoLote;
+        return this;
+    }
+
+    /**
+     * Costo BCrypt del hash (único) de los usuarios sintéticos. Por defecto 10.
+     */
+    public GeneradorCatalogo conCostoBcrypt(int costoBcrypt) {
+        this.costoBcrypt = costoBcrypt;
+        return this;
+    }
+
+    /**
+     * Exponente de la distribución de Zipf de cocinas y países. Por defecto 1.1.
+     */
+    public GeneradorCatalogo conExponenteZipf(double exponenteZipf) {
+        this.exponenteZipf = exponenteZipf;
+        return this;
+    }
+
+    /**
+     * Fecha de referencia ("hoy") para fecha_creacion y el flag reciente.
+     */
+    public GeneradorCatalogo conReferencia(LocalDateTime referencia) {
+        this.referencia = referencia;
+        return this;
+    }
+
+    /**
+     * Genera el catálogo sobre la conexión indicada.
+     *
+     * Los roles ROLE_USER y ROLE_ADMIN se crean solo si no existen. La conexión
+     * se deja con el autocommit que tenía.
+     *
+     * @param conexion Conexión JDBC
+     * @param recetas Número de recetas a insertar
+     * @param usuarios Número de usuarios sintéticos a insertar
+     * @return Resumen de lo generado
+     */
+    public Resumen generar(Connection conexion, int recetas, int usuarios) throws SQLException {
+        long inicio = System.nanoTime();
+        boolean autoCommit = conexion.getAutoCommit();
+        conexion.setAutoCommit(false);
+        try {
+            long rolUsuario = asegurarRol(conexion, "ROLE_USER");
+            asegurarRol(conexion, "ROLE_ADMIN");
+            conexion.commit();
+
+            insertarUsuarios(conexion, usuarios, rolUsuario);
+            insertarRecetas(conexion, recetas);
+        } catch (SQLException e) {
+            conexion.rollback();
+            throw e;
+        } finally {
+            conexion.setAutoCommit(autoCommit);
+        }
+        return new Resumen(recetas, usuarios, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private long asegurarRol(Connection conexion, String nombre) throws SQLException {
+        try (PreparedStatement select = conexion.prepareStatement("SELECT id FROM roles WHERE nombre = ?")) {
+            select.setString(1, nombre);
+            try (ResultSet rs = select.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong(1);
+                }
+            }
+        }
+        try (PreparedStatement insert = conexion.prepareStatement(
+                "INSERT INTO roles (nombre) VALUES (?)", Statement.RETURN_GENERATED_KEYS)) {
+            insert.setString(1, nombre);
+            insert.executeUpdate();
+            try (ResultSet rs = insert.getGeneratedKeys()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private void insertarUsuarios(Connection conexion, int usuarios, long rolUsuario) throws SQLException {
+        if (usuarios <= 0) {
+            return;
+        }
+        // Un solo hash para todos: BCrypt por usuario haría la generación O(n) en CPU
+        String hash = new BCryptPasswordEncoder(costoBcrypt).encode(PASSWORD_USUARIOS);
+        SplittableRandom random = new SplittableRandom(semilla ^ 0x5DEECE66DL);
+
+        try (PreparedStatement ps = conexion.prepareStatement(SQL_USUARIO)) {
+            for (int i = 1; i <= usuarios; i++) {
+                ps.setString(1, PREFIJO_USUARIO + i);
+                ps.setString(2, hash);
+                ps.setString(3, "Usuario Sintético " + i);
+                ps.setString(4, PREFIJO_USUARIO + i + "@" + (random.nextBoolean() ? "email.com" : "recetas.com"));
+                ps.addBatch();
+                if (i % tamanoLote == 0) {
+                    ps.executeBatch();
+                    conexion.commit();
+                }
+            }
+            ps.executeBatch();
+        }
+
+        try (PreparedStatement ps = conexion.prepareStatement(
+                "INSERT INTO usuarios_roles (usuario_id, rol_id) SELECT u.id, ? FROM usuarios u "
+                + "WHERE u.username LIKE ? AND NOT EXISTS "
+                + "(SELECT 1 FROM usuarios_roles ur WHERE ur.usuario_id = u.id AND ur.rol_id = ?)")) {
+            ps.setLong(1, rolUsuario);
+            ps.setString(2, PREFIJO_USUARIO + "%");
+            ps.setLong(3, rolUsuario);
+            ps.executeUpdate();
+        }
+        conexion.commit();
+    }
+
+    private void insertarRecetas(Connection conexion, int recetas) throws SQLException {
+        SplittableRandom random = new SplittableRandom(semilla);
+        Zipf cocinas = new Zipf(TIPOS_COCINA.size(), exponenteZipf);
+        Zipf paises = new Zipf(PAISES.size(), exponenteZipf);
+        int minutosVentana = 3 * 365 * 24 * 60;
+        LocalDateTime limiteReciente = referencia.minusDays(30);
+        StringBuilder texto = new StringBuilder(512);
+
+        try (PreparedStatement ps = conexion.prepareStatement(SQL_RECETA)) {
+            for (int i = 1; i <= recetas; i++) {
+                int tipo = cocinas.muestra(random);
+                // La mayoría de las recetas son del país de su cocina
+                int pais = random.nextDouble() < 0.85 ? tipo : paises.muestra(random);
+                int visualizaciones = visualizaciones(random);
+                LocalDateTime fecha = referencia.minusMinutes(random.nextInt(minutosVentana));
+
+                ps.setString(1, PLATOS[random.nextInt(PLATOS.length)] + " "
+                    + ESTILOS[random.nextInt(ESTILOS.length)] + " " + i);
+                ps.setString(2, TIPOS_COCINA.get(tipo));
+                ps.setString(3, PAISES.get(pais));
+                ps.setString(4, DIFICULTADES.get(ponderado(random, PESOS_DIFICULTAD)));
+                ps.setInt(5, tiempoCoccion(random));
+                ps.setString(6, ingredientes(random, texto));
+                ps.setString(7, instrucciones(random, texto));
+                ps.setString(8, FOTOS[random.nextInt(FOTOS.length)]);
+                ps.setString(9, "Receta " + TIPOS_COCINA.get(tipo).toLowerCase() + " generada número " + i);
+                ps.setInt(10, random.nextInt(2, 9));
+                ps.setBoolean(11, visualizaciones >= UMBRAL_POPULAR);
+                ps.setBoolean(12, fecha.isAfter(limiteReciente));
+                ps.setInt(13, visualizaciones);
+                ps.setTimestamp(14, Timestamp.valueOf(fecha));
+                ps.addBatch();
+                if (i % tamanoLote == 0) {
+                    ps.executeBatch();
+                    conexion.commit();
+                }
+            }
+            ps.executeBatch();
+            conexion.commit();
+        }
+    }
+
+    /**
+     * Visualizaciones con distribución de Pareto (alfa 1.16, ~80/20).
+     */
+    private static int visualizaciones(SplittableRandom random) {
+        double pareto = 50 * Math.pow(1 - random.nextDouble(), -1 / 1.16) - 50;
+        return (int) Math.min(pareto, 5_000_000);
+    }
+
+    /**
+     * Tiempo de cocción log-normal (mediana ~30 minutos), entre 5 y 480.
+     */
+    private static int tiempoCoccion(SplittableRandom random) {
+        double minutos = Math.exp(3.4 + 0.6 * random.nextGaussian());
+        return (int) Math.max(5, Math.min(480, Math.round(minutos)));
+    }
+
+    private static String ingredientes(SplittableRandom random, StringBuilder sb) {
+        sb.setLength(0);
+        int cantidad = random.nextInt(4, 11);
+        int inicio = random.nextInt(INGREDIENTES.length);
+        int paso = 1 + random.nextInt(INGREDIENTES.length - 1);
+        // Paso coprimo con el tamaño del vocabulario: ingredientes sin repetir
+        while (gcd(paso, INGREDIENTES.length) != 1) {
+            paso++;
+        }
+        for (int i = 0; i < cantidad; i++) {
+            if (i > 0) {
+                sb.append('\n');
+            }
+            sb.append("- ").append(CANTIDADES[random.nextInt(CANTIDADES.length)]).append(' ')
+                .append(INGREDIENTES[(inicio + i * paso) % INGREDIENTES.length]);
+        }
+        return sb.toString();
+    }
+
+    private static String instrucciones(SplittableRandom random, StringBuilder sb) {
+        sb.setLength(0);
+        int cantidad = random.nextInt(3, 9);
+        int inicio = random.nextInt(PASOS.length - cantidad + 1);
+        for (int i = 0; i < cantidad; i++) {
+            if (i > 0) {
+                sb.append('\n');
+            }
+            sb.append(i + 1).append(". ").append(PASOS[inicio + i]);
+        }
+        return sb.toString();
+    }
+
+    private static int ponderado(SplittableRandom random, double[] pesos) {
+        double u = random.nextDouble();
+        for (int i = 0; i < pesos.length - 1; i++) {
+            u -= pesos[i];
+            if (u < 0) {
+                return i;
+            }
+        }
+        return pesos.length - 1;
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    /**
+     * Convierte "10k", "1m", "10m" o un número en cantidad de filas.
+     */
+    public static int parsearTamano(String valor) {
+        String v = valor.trim().toLowerCase();
+        if (v.endsWith("k")) {
+            return Math.multiplyExact(Integer.parseInt(v.substring(0, v.length() - 1)), 1_000);
+        }
+        if (v.endsWith("m")) {
+            return Math.multiplyExact(Integer.parseInt(v.substring(0, v.length() - 1)), 1_000_000);
+        }
+        return Integer.parseInt(v);
+    }
+
+    /**
+     * Muestreo de Zipf sobre n rangos mediante la CDF precalculada.
+     */
+    static final class Zipf {
+
+        private final double[] acumulada;
+
+        Zipf(int n, double exponente) {
+            acumulada = new double[n];
+            double total = 0;
+            for (int k = 1; k <= n; k++) {
+                total += 1 / Math.pow(k, exponente);
+                acumulada[k - 1] = total;
+            }
+            for (int k = 0; k < n; k++) {
+                acumulada[k] /= total;
+            }
+        }
+
+        int muestra(SplittableRandom random) {
+            double u = random.nextDouble();
+            int bajo = 0;
+            int alto = acumulada.length - 1;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (acumulada[medio] < u) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio;
+                }
+            }
+            return bajo;
+        }
+    }
+
+    /**
+     * Resumen de una generación.
+     */
+    public record Resumen(int recetas, int usuarios, long milisegundos) {
+    }
+
+    /**
+     * Uso: --url=... [--usuario=...] [--password=...] [--recetas=10k]
+     * [--usuarios=100] [--semilla=42] [--lote=1000]
+     */
+    public static void main(String[] args) throws SQLException {
+        Map<String, String> opciones = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                opciones.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        String url = opciones.get("url");
+        if (url == null) {
+            System.out.println("Uso: GeneradorCatalogo --url=<jdbc-url> [--usuario=root] [--password=] "
+                + "[--recetas=10k|1m|10m] [--usuarios=100] [--semilla=42] [--lote=1000]");
+            return;
+        }
+
+        GeneradorCatalogo generador = new GeneradorCatalogo(Long.parseLong(opciones.getOrDefault("semilla", "42")))
+            .conTamanoLote(Integer.parseInt(opciones.getOrDefault("lote", "1000")));
+        int recetas = parsearTamano(opciones.getOrDefault("recetas", "10k"));
+        int usuarios = parsearTamano(opciones.getOrDefault("usuarios", "100"));
+
+        try (Connection conexion = DriverManager.getConnection(url,
+                opciones.getOrDefault("usuario", "root"), opciones.getOrDefault("password", ""))) {
+            Resumen resumen = generador.generar(conexion, recetas, usuarios);
+            System.out.printf("[catalogo] %d recetas y %d usuarios generados en %d ms%n",
+                resumen.recetas(), resumen.usuarios(), resumen.milisegundos());
+        }
+    }
+}
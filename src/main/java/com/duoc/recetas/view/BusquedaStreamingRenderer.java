@@ -0,0 +1,234 @@
+package com.duoc.recetas.view;
+
+import com.duoc.recetas.cache.TarjetaRecetaCache;
+import com.duoc.recetas.metrics.RenderizadoMetricasInterceptor;
+import com.duoc.recetas.dto.TarjetaReceta;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import com.duoc.recetas.service.RecetaService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Renderizado en streaming de los resultados de búsqueda.
+ * 
+ * En lugar de materializar toda la List&lt;Receta&gt; y luego renderizar
+ * buscar.html, este componente:
+ * 
+ * 1. Renderiza buscar.html en modo streaming (sin resultados) y lo divide
+ *    en la marca de resultados.
+ * 2. Recorre las tarjetas en bloques (RecetaService.recorrerTarjetas, sin
+ *    retener una conexión mientras se escribe) y escribe su HTML (desde
+ *    TarjetaRecetaCache), haciendo flush cada N tarjetas. La cabecera de
+ *    la página se envía junto con la primera tarjeta.
+ * 3. Escribe el pie de la página con el total de resultados. Si no hubo
+ *    resultados, envía antes la cabecera y deja el estado vacío ("No se
+ *    encontraron recetas"), que la plantilla incluye entre las marcas de
+ *    vacío.
+ * 
+ * Así, el tiempo hasta el primer byte y la memoria por petición no
+ * dependen del número de resultados.
+ * 
+ * Hasta la primera tarjeta no se escribe nada en la respuesta: si la lectura
+ * falla antes (ver LecturaResilienteAspect) todavía se puede responder con
+ * la caché de respaldo o, si no la hay, con el 503 y la página de error.
+ */
+@Component
+public class BusquedaStreamingRenderer {
+
+    /**
+     * Marca donde se insertan las tarjetas de resultados.
+     */
+    public static final String MARCA_RESULTADOS = "<!--resultados-->";
+
+    /**
+     * Marca donde se escribe el total de resultados.
+     */
+    public static final String MARCA_TOTAL = "<!--total-->";
+
+    /**
+     * Marcas que encierran el estado vacío; se quita si hubo resultados.
+     */
+    public static final String MARCA_VACIO = "<!--vacio-->";
+
+    public static final String MARCA_FIN_VACIO = "<!--/vacio-->";
+
+    private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+
+    @Autowired
+    @Qualifier("thymeleafViewResolver")
+    private ViewResolver viewResolver;
+
+    @Autowired
+    private RecetaService recetaService;
+
+    @Autowired
+    private TarjetaRecetaCache tarjetaRecetaCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Número de tarjetas escritas entre cada flush.
+     */
+    @Value("${recetas.busqueda.streaming.tamano-bloque:25}")
+    private int tamanoBloque;
+
+    /**
+     * Renderiza la vista de búsqueda en streaming.
+     * 
+     * Si la base de datos falla después de enviar la primera tarjeta, la
+     * respuesta ya está comprometida y la conexión se corta (no se puede
+     * mostrar la página de error).
+     * 
+     * @param vista Nombre de la vista (buscar)
+     * @param modelo Modelo con los datos de la página (sin resultados)
+     * @param nombre Nombre de la receta (opcional)
+     * @param tipoCocina Tipo de cocina (opcional)
+     * @param paisOrigen País de origen (opcional)
+     * @param dificultad Dificultad (opcional)
+     * @param request Petición HTTP
+     * @param response Respuesta HTTP
+     * @throws Exception Si falla el renderizado de la vista
+     */
+    public void renderizar(String vista, Map<String, Object> modelo,
+                           String nombre, String tipoCocina, String paisOrigen, String dificultad,
+                           HttpServletRequest request, HttpServletResponse response) throws Exception {
+        renderizar(vista, modelo, consumidor -> recetaService.recorrerTarjetas(
+                nombre, tipoCocina, paisOrigen, dificultad, consumidor), request, response);
+    }
+
+    /**
+     * Renderiza la vista de búsqueda en streaming con otra fuente de recetas
+     * (por ejemplo, los IDs del catálogo columnar).
+     * 
+     * @param vista Nombre de la vista (buscar)
+     * @param modelo Modelo con los datos de la página (sin resultados)
+     * @param recorrido Recorre las recetas entregándolas al consumidor y devuelve el total
+     * @param request Petición HTTP
+     * @param response Respuesta HTTP
+     * @throws Exception Si falla el renderizado de la vista
+     */
+    public void renderizar(String vista, Map<String, Object> modelo,
+                           ToIntFunction<Consumer<TarjetaReceta>> recorrido,
+                           HttpServletRequest request, HttpServletResponse response) throws Exception {
+
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        modelo.put("streaming", true);
+        modelo.put("marcaResultados", MARCA_RESULTADOS);
+        modelo.put("marcaTotal", MARCA_TOTAL);
+        modelo.put("marcaVacio", MARCA_VACIO);
+        modelo.put("marcaFinVacio", MARCA_FIN_VACIO);
+
+        // Renderizar la página completa (sin tarjetas) y dividirla en la marca
+        View view = viewResolver.resolveViewName(vista, RequestContextUtils.getLocale(request));
+        CapturaResponse captura = new CapturaResponse(response);
+        view.render(modelo, request, captura);
+        String pagina = captura.getContenido();
+
+        int marca = pagina.indexOf(MARCA_RESULTADOS);
+        if (marca < 0) {
+            throw new IllegalStateException("La vista '" + vista + "' no contiene la marca de resultados "
+                    + MARCA_RESULTADOS + " (modelo: marcaResultados)");
+        }
+        String cabecera = pagina.substring(0, marca);
+        String pie = pagina.substring(marca + MARCA_RESULTADOS.length());
+
+        // La cabecera se retiene hasta la primera tarjeta (o hasta el final)
+        PrintWriter out = response.getWriter();
+        boolean[] cabeceraEnviada = {false};
+
+        boolean autenticado = trustResolver.isAuthenticated(
+                SecurityContextHolder.getContext().getAuthentication());
+
+        // Escribir las tarjetas a medida que llegan las filas
+        int[] pendientes = {0};
+        int total = recorrido.applyAsInt(receta -> {
+            boolean primera = !cabeceraEnviada[0];
+            if (primera) {
+                out.write(cabecera);
+                cabeceraEnviada[0] = true;
+            }
+            out.write(tarjetaRecetaCache.renderizar("busqueda", receta, autenticado));
+            if (++pendientes[0] >= tamanoBloque || primera) {
+                out.flush();
+                pendientes[0] = 0;
+            }
+        });
+
+        if (!cabeceraEnviada[0]) {
+            out.write(cabecera);
+        }
+        out.write(completarPie(pie, total));
+        out.flush();
+
+        muestra.stop(Timer.builder(RenderizadoMetricasInterceptor.METRICA)
+                .description("Tiempo de renderizado de plantillas Thymeleaf")
+                .tag("vista", vista)
+                .tag("modo", "streaming")
+                .register(meterRegistry));
+    }
+
+    /**
+     * Completa el total y quita el estado vacío si hubo resultados.
+     */
+    private static String completarPie(String pie, int total) {
+        String completo = pie.replace(MARCA_TOTAL, String.valueOf(total));
+        int inicio = completo.indexOf(MARCA_VACIO);
+        int fin = completo.indexOf(MARCA_FIN_VACIO);
+        if (inicio < 0 || fin < inicio) {
+            return completo;
+        }
+        if (total > 0) {
+            return completo.substring(0, inicio) + completo.substring(fin + MARCA_FIN_VACIO.length());
+        }
+        return completo;
+    }
+
+    /**
+     * Respuesta que captura en memoria lo que escribe la vista, manteniendo
+     * cabeceras y content type en la respuesta real.
+     */
+    private static class CapturaResponse extends HttpServletResponseWrapper {
+
+        private final StringWriter buffer = new StringWriter(8192);
+
+        private final PrintWriter writer = new PrintWriter(buffer);
+
+        CapturaResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() {
+            writer.flush();
+        }
+
+        String getContenido() {
+            writer.flush();
+            return buffer.toString();
+        }
+    }
+}
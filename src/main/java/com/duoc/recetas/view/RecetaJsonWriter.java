@@ -0,0 +1,154 @@
+package com.duoc.recetas.view;
+
+import com.duoc.recetas.dto.CampoReceta;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Escritura en streaming de las respuestas JSON de la API de recetas.
+ *
+ * Escribe con un JsonGenerator de Jackson directamente en la respuesta:
+ * cada fila (Object[] de RecetaProyeccionRepository) se escribe a medida que
+ * llega del cursor JDBC, con flush cada recetas.api.tamano-bloque recetas,
+ * sin armar objetos ni la lista completa en memoria.
+ *
+ * Formato de la búsqueda: {"data": [...], "next": "cursor" | null}.
+ */
+@Component
+public class RecetaJsonWriter {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Recetas escritas entre cada flush.
+     */
+    @Value("${recetas.api.tamano-bloque:25}")
+    private int tamanoBloque;
+
+    /**
+     * Escribe una página de la búsqueda.
+     *
+     * El recorrido debe entregar hasta limite + 1 filas: la fila extra no se
+     * escribe, solo indica que hay una página siguiente.
+     *
+     * Si el recorrido falla (base de datos caída, timeout) el error se
+     * propaga sin cerrar el generador, que al cerrarse escribiría "]}"
+     * (AUTO_CLOSE_JSON_CONTENT) y terminaría la respuesta. Antes del primer
+     * flush se descarta lo escrito y se responde el error; después la
+     * respuesta ya está comprometida y el contenedor corta la conexión. Así
+     * una página incompleta nunca parece la última.
+     *
+     * @param response Respuesta HTTP
+     * @param campos Campos de cada fila
+     * @param limite Recetas de la página
+     * @param recorrido Recorre las filas entregándolas al consumidor
+     * @param siguiente Cursor de la página siguiente a partir del último ID
+     * @throws IOException Si falla la escritura
+     */
+    public void escribirPagina(HttpServletResponse response, Set<CampoReceta> campos, int limite,
+                               ToIntFunction<Consumer<Object[]>> recorrido,
+                               LongFunction<String> siguiente) throws IOException {
+        prepararRespuesta(response);
+        JsonGenerator json = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        try {
+            json.writeStartObject();
+            json.writeArrayFieldStart("data");
+            long[] ultimoId = {-1};
+            int[] escritas = {0};
+            boolean[] hayMas = {false};
+            try {
+                recorrido.applyAsInt(fila -> {
+                    if (escritas[0] == limite) {
+                        hayMas[0] = true;
+                        return;
+                    }
+                    try {
+                        escribirFila(json, campos, fila);
+                        if (++escritas[0] % tamanoBloque == 0) {
+                            json.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    // El ID es siempre el primer campo
+                    ultimoId[0] = (Long) fila[0];
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            json.writeEndArray();
+            json.writeStringField("next", hayMas[0] ? siguiente.apply(ultimoId[0]) : null);
+            json.writeEndObject();
+        } catch (IOException | RuntimeException e) {
+            // Sin cerrar el generador: close() completaría el JSON y vaciaría
+            // lo escrito en la respuesta
+            if (!response.isCommitted()) {
+                response.resetBuffer();
+            }
+            throw e;
+        }
+        json.close();
+    }
+
+    /**
+     * Escribe una receta.
+     *
+     * @param response Respuesta HTTP
+     * @param campos Campos de la fila
+     * @param fila Valores en el orden de los campos
+     * @throws IOException Si falla la escritura
+     */
+    public void escribirReceta(HttpServletResponse response, Set<CampoReceta> campos,
+                               Object[] fila) throws IOException {
+        prepararRespuesta(response);
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            escribirFila(json, campos, fila);
+        }
+    }
+
+    private static void prepararRespuesta(HttpServletResponse response) {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    }
+
+    private static void escribirFila(JsonGenerator json, Set<CampoReceta> campos, Object[] fila)
+            throws IOException {
+        json.writeStartObject();
+        int i = 0;
+        for (CampoReceta campo : campos) {
+            Object valor = fila[i++];
+            json.writeFieldName(campo.getNombre());
+            if (valor == null) {
+                json.writeNull();
+            } else if (valor instanceof String texto) {
+                json.writeString(texto);
+            } else if (valor instanceof Integer entero) {
+                json.writeNumber(entero);
+            } else if (valor instanceof Long largo) {
+                json.writeNumber(largo);
+            } else if (valor instanceof Boolean booleano) {
+                json.writeBoolean(booleano);
+            } else if (valor instanceof LocalDateTime fecha) {
+                json.writeString(fecha.toString());
+            } else {
+                json.writeString(valor.toString());
+            }
+        }
+        json.writeEndObject();
+    }
+}
@@ -0,0 +1,23 @@
+-- ============================================
+-- Tablas sin entidad JPA (acceso con JDBC) para las ejecuciones sobre H2
+-- con spring.jpa.hibernate.ddl-auto=create (benchmarks/ y loadtest/).
+-- En MySQL se crean con database/schema.sql; mantener ambas definiciones
+-- alineadas.
+-- ============================================
+
+-- Visitas por receta y hora (UTC), agregadas por RegistroVisitas
+CREATE TABLE IF NOT EXISTS recetas_visitas_hora (
+    receta_id BIGINT NOT NULL,
+    hora TIMESTAMP NOT NULL,
+    visitas INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (receta_id, hora)
+);
+CREATE INDEX IF NOT EXISTS idx_visitas_hora ON recetas_visitas_hora (hora);
+
+-- Recetas vistas recientemente por cada usuario (RecientesService)
+CREATE TABLE IF NOT EXISTS usuarios_recetas_vistas (
+    username VARCHAR(50) NOT NULL,
+    receta_id BIGINT NOT NULL,
+    vista_en TIMESTAMP NOT NULL,
+    PRIMARY KEY (username, receta_id)
+);
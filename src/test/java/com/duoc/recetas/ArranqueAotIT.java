@@ -0,0 +1,235 @@
+package com.duoc.recetas;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Compara el arranque normal con el de Spring AOT (mvn -Paot verify).
+ *
+ * Levanta la aplicación dos veces en esta JVM, sin y con
+ * spring.aot.enabled, cada una sobre su propia base H2 cargada con
+ * database/schema.sql y database/data.sql. Recorre las mismas páginas
+ * (anónimo y con la sesión de admin) y exige respuestas idénticas: estado,
+ * redirección y HTML sin el token CSRF. Los tiempos de arranque quedan en
+ * el log como referencia; no incluyen AppCDS (ver Dockerfile).
+ */
+class ArranqueAotIT {
+
+    private static final Logger log = LoggerFactory.getLogger(ArranqueAotIT.class);
+
+    private static final String INICIALIZADOR_AOT = "com.duoc.recetas.RecetasApplication__ApplicationContextInitializer";
+
+    private static final Pattern FIN_SENTENCIA = Pattern.compile(";\\s*(\\n|$)");
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\" value=\"([^\"]*)\"");
+
+    private static final List<String> RUTAS_ANONIMO = List.of(
+        "/", "/login", "/recetas/buscar?tipoCocina=Italiana", "/recetas/buscar?nombre=a",
+        "/recetas/detalle/1", "/actuator/health");
+
+    private static final List<String> RUTAS_ADMIN = List.of(
+        "/", "/recetas/detalle/1", "/recetas/lista", "/recetas/detalle/99999");
+
+    private static final Duration ESPERA_MAXIMA = Duration.ofMinutes(2);
+
+    @Test
+    void aotRespondeIgualQueElArranqueNormal() throws Exception {
+        assertTrue(ClassUtils.isPresent(INICIALIZADOR_AOT, getClass().getClassLoader()),
+            "Faltan las clases de Spring AOT: ejecutar con mvn -Paot verify");
+
+        Map<String, String> normal = recorrer(false);
+        Map<String, String> aot = recorrer(true);
+
+        assertEquals(normal.keySet(), aot.keySet());
+        for (Map.Entry<String, String> respuesta : normal.entrySet()) {
+            assertEquals(respuesta.getValue(), aot.get(respuesta.getKey()), respuesta.getKey());
+        }
+    }
+
+    /**
+     * Arranca una variante, recorre las páginas y la detiene.
+     *
+     * @return Respuesta normalizada por ruta
+     */
+    private Map<String, String> recorrer(boolean aot) throws Exception {
+        String variante = aot ? "aot" : "normal";
+        String url = "jdbc:h2:mem:arranque_" + variante + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+        cargarDatos(url);
+
+        String anterior = System.getProperty("spring.aot.enabled");
+        System.setProperty("spring.aot.enabled", String.valueOf(aot));
+        long inicio = System.nanoTime();
+        SpringApplication aplicacion = new SpringApplication(RecetasApplication.class);
+        // El inicializador AOT se busca por la clase principal, que si no se
+        // deduce de la pila (aquí sería el proceso de failsafe)
+        aplicacion.setMainApplicationClass(RecetasApplication.class);
+        aplicacion.setApplicationStartup(new BufferingApplicationStartup(4096));
+        try (ConfigurableApplicationContext contexto = aplicacion.run(argumentos(url))) {
+            log.info("Arranque {}: {} ms", variante, (System.nanoTime() - inicio) / 1_000_000);
+            int puerto = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+
+            Map<String, String> respuestas = new LinkedHashMap<>();
+            Navegador anonimo = new Navegador(puerto);
+            anonimo.esperarReadiness();
+            for (String ruta : RUTAS_ANONIMO) {
+                respuestas.put("anónimo " + ruta, anonimo.capturar(ruta));
+            }
+            Navegador admin = new Navegador(puerto);
+            admin.iniciarSesion("admin", "admin123");
+            for (String ruta : RUTAS_ADMIN) {
+                respuestas.put("admin " + ruta, admin.capturar(ruta));
+            }
+            return respuestas;
+        } finally {
+            if (anterior != null) {
+                System.setProperty("spring.aot.enabled", anterior);
+            } else {
+                System.clearProperty("spring.aot.enabled");
+            }
+        }
+    }
+
+    private static String[] argumentos(String url) {
+        return new String[] {
+            "--server.port=0",
+            "--spring.datasource.url=" + url,
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+            "--spring.jpa.hibernate.ddl-auto=none",
+            "--spring.sql.init.mode=never"
+        };
+    }
+
+    /**
+     * Carga el esquema y los datos de database/ sin lo propio de MySQL
+     * (CREATE DATABASE, USE, vistas y consultas de resumen).
+     */
+    private static void cargarDatos(String url) throws Exception {
+        try (Connection conexion = DriverManager.getConnection(url, "sa", "");
+             Statement statement = conexion.createStatement()) {
+            for (String archivo : List.of("database/schema.sql", "database/data.sql")) {
+                String script = Files.readAllLines(Path.of(archivo)).stream()
+                    .filter(linea -> !linea.stripLeading().startsWith("--"))
+                    .collect(Collectors.joining("\n"));
+                for (String sentencia : FIN_SENTENCIA.split(script)) {
+                    if (!sentencia.isBlank() && compatibleConH2(sentencia)) {
+                        statement.execute(sentencia);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean compatibleConH2(String sentencia) {
+        String inicio = sentencia.stripLeading().toUpperCase(Locale.ROOT);
+        return !inicio.startsWith("CREATE DATABASE") && !inicio.startsWith("USE ")
+            && !inicio.startsWith("CREATE OR REPLACE VIEW") && !inicio.startsWith("SELECT");
+    }
+
+    /**
+     * Cliente HTTP con cookies propias y sin seguir redirecciones.
+     */
+    private static final class Navegador {
+
+        private final String base;
+
+        private final HttpClient cliente;
+
+        Navegador(int puerto) {
+            this.base = "http://localhost:" + puerto;
+            this.cliente = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        }
+
+        /**
+         * Estado, redirección (sin host) y cuerpo sin el token CSRF.
+         */
+        String capturar(String ruta) throws IOException, InterruptedException {
+            HttpResponse<String> respuesta = get(ruta);
+            String redireccion = respuesta.headers().firstValue("Location").orElse("").replace(base, "");
+            String cuerpo = CSRF.matcher(respuesta.body()).replaceAll("name=\"_csrf\" value=\"\"");
+            return respuesta.statusCode() + " " + redireccion + "\n" + cuerpo;
+        }
+
+        void esperarReadiness() throws IOException, InterruptedException {
+            long limite = System.nanoTime() + ESPERA_MAXIMA.toNanos();
+            while (get("/actuator/health/readiness").statusCode() != 200) {
+                if (System.nanoTime() > limite) {
+                    fail("La aplicación no quedó lista (readiness)");
+                }
+                Thread.sleep(100);
+            }
+        }
+
+        /**
+         * Inicia sesión; reintenta mientras DataInitializer actualiza los
+         * hashes de las contraseñas en segundo plano.
+         */
+        void iniciarSesion(String usuario, String password) throws IOException, InterruptedException {
+            long limite = System.nanoTime() + ESPERA_MAXIMA.toNanos();
+            while (System.nanoTime() < limite) {
+                Matcher token = CSRF.matcher(get("/login").body());
+                if (!token.find()) {
+                    fail("La página de login no tiene token CSRF");
+                }
+                String formulario = "username=" + codificar(usuario) + "&password=" + codificar(password)
+                    + "&_csrf=" + codificar(token.group(1));
+                HttpResponse<String> respuesta = cliente.send(HttpRequest.newBuilder(URI.create(base + "/login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(formulario))
+                        .build(),
+                    HttpResponse.BodyHandlers.ofString());
+                if (!respuesta.headers().firstValue("Location").orElse("error").contains("error")) {
+                    return;
+                }
+                Thread.sleep(200);
+            }
+            fail("No se pudo iniciar sesión como " + usuario);
+        }
+
+        private HttpResponse<String> get(String ruta) throws IOException, InterruptedException {
+            return cliente.send(HttpRequest.newBuilder(URI.create(base + ruta)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        }
+
+        private static String codificar(String valor) {
+            return URLEncoder.encode(valor, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.duoc.recetas.cache;
+
+import com.duoc.recetas.dto.FilaCatalogo;
+import com.duoc.recetas.dto.FiltroCatalogo;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Pruebas de los filtros de texto del catálogo columnar: ignoran
+ * mayúsculas y tildes, como LIKE en MySQL.
+ */
+class CatalogoColumnarTest {
+
+    private final CatalogoColumnar catalogo = CatalogoColumnar.constructor(3)
+        .agregar(new FilaCatalogo(1L, "Pollo agridulce", "Asiática", "China", "Media", 40, 4, 10))
+        .agregar(new FilaCatalogo(2L, "Ñoquis de papa", "Italiana", "Italia", "Difícil", 60, 4, 5))
+        .agregar(new FilaCatalogo(3L, "Pastel de choclo", "Chilena", "Perú", "Fácil", 90, 6, 20))
+        .construir();
+
+    @Test
+    void tipoDeCocinaSinTildeEncuentraElValorConTilde() {
+        assertArrayEquals(new long[] {1L}, buscar(null, "Asiatica", null, null));
+        assertArrayEquals(new long[] {1L}, buscar(null, "ASIÁTICA", null, null));
+    }
+
+    @Test
+    void nombrePaisYDificultadIgnoranTildes() {
+        assertArrayEquals(new long[] {2L}, buscar("noquis", null, null, null));
+        assertArrayEquals(new long[] {3L}, buscar(null, null, "peru", null));
+        assertArrayEquals(new long[] {2L}, buscar(null, null, null, "dificil"));
+        assertArrayEquals(new long[] {3L}, buscar(null, null, null, "facil"));
+    }
+
+    private long[] buscar(String nombre, String tipoCocina, String pais, String dificultad) {
+        return catalogo.buscar(new FiltroCatalogo(nombre, tipoCocina, pais, dificultad,
+            null, null, null, null, FiltroCatalogo.Orden.NINGUNO), Integer.MAX_VALUE);
+    }
+}
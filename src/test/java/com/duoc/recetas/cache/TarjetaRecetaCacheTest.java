@@ -0,0 +1,82 @@
+package com.duoc.recetas.cache;
+
+import com.duoc.recetas.dto.TarjetaReceta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de las tarjetas compartidas: el HTML en caché no depende de la
+ * sesión de quien lo renderizó.
+ */
+class TarjetaRecetaCacheTest {
+
+    private static final TarjetaReceta RECETA = new TarjetaReceta(7L, "Pastel de choclo", "Clásico",
+        "Chilena", "Chile", "Media", 60, 6, null, LocalDateTime.of(2024, 1, 1, 12, 0));
+
+    private TarjetaRecetaCache cache;
+
+    @BeforeEach
+    void crearCache() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        cache = new TarjetaRecetaCache(0, 100);
+        ReflectionTestUtils.setField(cache, "templateEngine", templateEngine);
+    }
+
+    @AfterEach
+    void limpiarPeticion() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void losEnlacesNoLlevanLaSesionDeQuienRenderiza() {
+        enPeticionSinCookies("ABC123");
+
+        String html = cache.renderizar("busqueda", RECETA, true);
+
+        assertFalse(html.contains("jsessionid"), html);
+        assertTrue(html.contains("href=\"/recetas/recetas/detalle/7\""), html);
+        assertTrue(html.contains("src=\"/recetas/images/recetas/7/miniatura"), html);
+
+        // Otro usuario recibe el mismo fragmento
+        enPeticionSinCookies("XYZ789");
+        assertEquals(html, cache.renderizar("busqueda", RECETA, true));
+        assertEquals(1, cache.getAciertos());
+    }
+
+    /**
+     * Petición con context path /recetas de un cliente sin cookies: la
+     * respuesta agrega la sesión a cada URL codificada.
+     */
+    private static void enPeticionSinCookies(String sesion) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/recetas/buscar");
+        request.setContextPath("/recetas");
+        MockHttpServletResponse response = new MockHttpServletResponse() {
+            @Override
+            public String encodeURL(String url) {
+                return url + ";jsessionid=" + sesion;
+            }
+        };
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+    }
+}
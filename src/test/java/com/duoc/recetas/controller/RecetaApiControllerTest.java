@@ -0,0 +1,103 @@
+package com.duoc.recetas.controller;
+
+import com.duoc.recetas.model.Receta;
+import com.duoc.recetas.repository.RecetaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pruebas de la búsqueda pública de la API (GET /api/v1/recetas): acceso
+ * a los campos privados y ETag.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RecetaApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RecetaRepository recetaRepository;
+
+    @BeforeEach
+    void crearReceta() {
+        if (recetaRepository.count() == 0) {
+            guardar("Pan amasado");
+        }
+    }
+
+    @Test
+    void anonimoBuscaConLosCamposDeLaTarjeta() throws Exception {
+        mockMvc.perform(get("/api/v1/recetas"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data[0].nombre").value("Pan amasado"))
+            .andExpect(jsonPath("$.data[0].ingredientes").doesNotExist());
+    }
+
+    @Test
+    void anonimoNoPuedePedirIngredientes() throws Exception {
+        mockMvc.perform(get("/api/v1/recetas").param("fields", "nombre,ingredientes"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").exists())
+            .andExpect(jsonPath("$.data").doesNotExist());
+    }
+
+    @Test
+    void anonimoNoPuedePedirInstrucciones() throws Exception {
+        mockMvc.perform(get("/api/v1/recetas").param("fields", "instrucciones"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.data").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    void autenticadoPuedePedirIngredientesEInstrucciones() throws Exception {
+        mockMvc.perform(get("/api/v1/recetas").param("fields", "nombre,ingredientes,instrucciones"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data[0].ingredientes").value("- 1 kg de harina\n- 1 taza de manteca"))
+            .andExpect(jsonPath("$.data[0].instrucciones").value("1. Amasar\n2. Hornear"));
+    }
+
+    @Test
+    void eliminarUnaRecetaQueNoEsLaUltimaCambiaElEtag() throws Exception {
+        Receta eliminada = guardar("Sopaipillas");
+        guardar("Calzones rotos");
+        String etag = mockMvc.perform(get("/api/v1/recetas"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        recetaRepository.delete(eliminada);
+
+        mockMvc.perform(get("/api/v1/recetas").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    private Receta guardar(String nombre) {
+        Receta receta = new Receta();
+        receta.setNombre(nombre);
+        receta.setTipoCocina("Chilena");
+        receta.setDificultad("Fácil");
+        receta.setTiempoCoccion(30);
+        receta.setIngredientes("- 1 kg de harina\n- 1 taza de manteca");
+        receta.setInstrucciones("1. Amasar\n2. Hornear");
+        receta.setFechaCreacion(LocalDateTime.now());
+        return recetaRepository.save(receta);
+    }
+}
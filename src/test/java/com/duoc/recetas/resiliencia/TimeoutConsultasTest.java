@@ -0,0 +1,50 @@
+package com.duoc.recetas.resiliencia;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Pruebas del timeout de consulta: solo las sentencias de una lectura
+ * resiliente lo reciben.
+ */
+class TimeoutConsultasTest {
+
+    private final TimeoutConsultas timeoutConsultas = new TimeoutConsultas(Duration.ofMillis(2500));
+
+    @Test
+    void lasSentenciasDeUnaLecturaResilienteLlevanTimeout() throws Throwable {
+        Statement statement = mock(Statement.class);
+
+        timeoutConsultas.ejecutar(() -> {
+            timeoutConsultas.beforeQuery(ejecucion(statement), List.of());
+            return null;
+        });
+
+        verify(statement).setQueryTimeout(3);
+    }
+
+    @Test
+    void lasDemasSentenciasNoLlevanTimeout() throws Throwable {
+        Statement statement = mock(Statement.class);
+        timeoutConsultas.ejecutar(() -> null);
+
+        timeoutConsultas.beforeQuery(ejecucion(statement), List.of());
+
+        verify(statement, never()).setQueryTimeout(anyInt());
+    }
+
+    private static ExecutionInfo ejecucion(Statement statement) {
+        ExecutionInfo ejecucion = new ExecutionInfo();
+        ejecucion.setStatement(statement);
+        return ejecucion;
+    }
+}
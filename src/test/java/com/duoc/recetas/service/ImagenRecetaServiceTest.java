@@ -0,0 +1,68 @@
+package com.duoc.recetas.service;
+
+import com.duoc.recetas.model.Receta;
+import com.duoc.recetas.repository.RecetaRepository;
+import com.duoc.recetas.service.ImagenRecetaService.TamanoImagen;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas del almacén de derivadas: con la versión de la URL las imágenes
+ * en disco se sirven sin consultar la receta.
+ */
+class ImagenRecetaServiceTest {
+
+    private static final String FOTO = "https://example.com/pastel.jpg";
+
+    @TempDir
+    Path directorio;
+
+    private RecetaRepository recetaRepository;
+
+    private ImagenRecetaService servicio;
+
+    private Path miniatura;
+
+    @BeforeEach
+    void crearDerivadas() throws IOException {
+        Path carpeta = Files.createDirectories(directorio.resolve("7"));
+        miniatura = Files.write(carpeta.resolve("miniatura.jpg"), new byte[] {1, 2, 3});
+        Files.writeString(carpeta.resolve("origen.txt"), FOTO);
+
+        recetaRepository = mock(RecetaRepository.class);
+        servicio = new ImagenRecetaService(directorio.toString(), Duration.ofSeconds(1), "");
+        ReflectionTestUtils.setField(servicio, "recetaRepository", recetaRepository);
+    }
+
+    @Test
+    void conLaVersionDeLasDerivadasNoConsultaLaReceta() {
+        Optional<Path> archivo = servicio.obtenerDerivada(7L, TamanoImagen.MINIATURA, Receta.versionFoto(FOTO));
+
+        assertEquals(Optional.of(miniatura), archivo);
+        verify(recetaRepository, never()).findFotoUrlById(7L);
+    }
+
+    @Test
+    void conOtraVersionComparaConLaFotoActual() {
+        when(recetaRepository.findFotoUrlById(7L)).thenReturn(Optional.of(FOTO));
+
+        Optional<Path> archivo = servicio.obtenerDerivada(7L, TamanoImagen.MINIATURA, "antigua");
+
+        assertEquals(Optional.of(miniatura), archivo);
+        verify(recetaRepository).findFotoUrlById(7L);
+    }
+}
@@ -0,0 +1,146 @@
+package com.duoc.recetas.util;
+
+import com.duoc.recetas.service.CompresionTextoService;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del formato de CompresorTexto: ida y vuelta con y sin cabecera,
+ * diccionarios desconocidos y valores vacíos o nulos.
+ */
+class CompresorTextoTest {
+
+    private static final IntFunction<byte[]> SIN_DICCIONARIOS = id -> null;
+
+    private static final String INGREDIENTES = """
+        - 2 tazas de harina
+        - 1 taza de azúcar
+        - 3 huevos
+        - 1 cucharadita de sal
+        - 200 g de mantequilla derretida
+        - 1 taza de leche tibia
+        """;
+
+    @Test
+    void idaYVueltaSinDiccionario() {
+        String texto = INGREDIENTES.repeat(4);
+
+        byte[] datos = CompresorTexto.comprimir(texto, 0, null, 6);
+
+        assertTrue(CompresorTexto.tieneCabecera(datos));
+        assertEquals(CompresorTexto.CODEC_DEFLATE, datos[2]);
+        assertEquals(0, CompresorTexto.diccionarioId(datos));
+        assertTrue(datos.length < texto.getBytes(StandardCharsets.UTF_8).length);
+        assertEquals(texto, CompresorTexto.descomprimir(datos, SIN_DICCIONARIOS));
+    }
+
+    @Test
+    void idaYVueltaConDiccionario() {
+        byte[] diccionario = CompresorTexto.entrenarDiccionario(muestras(), CompresorTexto.MAX_DICCIONARIO);
+        int id = 7;
+
+        byte[] datos = CompresorTexto.comprimir(INGREDIENTES, id, diccionario, 6);
+
+        assertEquals(CompresorTexto.CODEC_DEFLATE, datos[2]);
+        assertEquals(id, CompresorTexto.diccionarioId(datos));
+        assertEquals(INGREDIENTES, CompresorTexto.descomprimir(datos, Map.of(id, diccionario)::get));
+    }
+
+    @Test
+    void textoQueNoSeComprimeQuedaEnUtf8TrasLaCabecera() {
+        String texto = "Ñandú";
+
+        byte[] datos = CompresorTexto.comprimir(texto, 0, null, 9);
+
+        assertTrue(CompresorTexto.tieneCabecera(datos));
+        assertEquals(CompresorTexto.CODEC_UTF8, datos[2]);
+        assertEquals(CompresorTexto.CABECERA + texto.getBytes(StandardCharsets.UTF_8).length, datos.length);
+        assertEquals(texto, CompresorTexto.descomprimir(datos, SIN_DICCIONARIOS));
+    }
+
+    @Test
+    void valoresSinCabeceraSeLeenComoUtf8() {
+        for (String texto : List.of("sal", "Preparación: mezclar y hornear 40 minutos.", INGREDIENTES)) {
+            byte[] datos = texto.getBytes(StandardCharsets.UTF_8);
+
+            assertFalse(CompresorTexto.tieneCabecera(datos));
+            assertEquals(texto, CompresorTexto.descomprimir(datos, SIN_DICCIONARIOS));
+        }
+    }
+
+    @Test
+    void diccionarioDesconocidoFalla() {
+        byte[] diccionario = CompresorTexto.entrenarDiccionario(muestras(), CompresorTexto.MAX_DICCIONARIO);
+        byte[] datos = CompresorTexto.comprimir(INGREDIENTES, 3, diccionario, 6);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> CompresorTexto.descomprimir(datos, SIN_DICCIONARIOS));
+        assertTrue(e.getMessage().contains("3"));
+    }
+
+    @Test
+    void versionDesconocidaFalla() {
+        byte[] datos = CompresorTexto.comprimir(INGREDIENTES, 0, null, 6);
+        datos[1] = CompresorTexto.VERSION + 1;
+
+        assertThrows(IllegalArgumentException.class, () -> CompresorTexto.descomprimir(datos, SIN_DICCIONARIOS));
+    }
+
+    @Test
+    void contenidoTruncadoFalla() {
+        byte[] datos = CompresorTexto.comprimir(INGREDIENTES.repeat(4), 0, null, 6);
+        byte[] truncado = new byte[datos.length / 2];
+        System.arraycopy(datos, 0, truncado, 0, truncado.length);
+
+        assertThrows(IllegalArgumentException.class, () -> CompresorTexto.descomprimir(truncado, SIN_DICCIONARIOS));
+    }
+
+    @Test
+    void textoVacio() {
+        byte[] datos = CompresorTexto.comprimir("", 0, null, 6);
+
+        assertTrue(CompresorTexto.tieneCabecera(datos));
+        assertEquals(CompresorTexto.CABECERA, datos.length);
+        assertEquals("", CompresorTexto.descomprimir(datos, SIN_DICCIONARIOS));
+        assertEquals("", CompresorTexto.descomprimir(new byte[0], SIN_DICCIONARIOS));
+    }
+
+    @Test
+    void valoresNulos() {
+        assertFalse(CompresorTexto.tieneCabecera(null));
+        assertArrayEquals(new byte[0], CompresorTexto.entrenarDiccionario(nulos(), 1024));
+
+        // El null de la columna lo resuelve el servicio, antes de llegar al formato
+        CompresionTextoService servicio = new CompresionTextoService();
+        assertNull(servicio.codificar(null));
+        assertNull(servicio.decodificar(null));
+    }
+
+    private static List<String> muestras() {
+        List<String> muestras = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            muestras.add("- " + i + " tazas de harina\n- 1 taza de azúcar\n- 3 huevos\n"
+                + "- 1 cucharadita de sal\n- 200 g de mantequilla derretida\n");
+        }
+        return muestras;
+    }
+
+    private static List<String> nulos() {
+        List<String> nulos = new ArrayList<>();
+        nulos.add(null);
+        nulos.add(null);
+        return nulos;
+    }
+}
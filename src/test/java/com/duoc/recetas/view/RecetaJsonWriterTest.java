@@ -0,0 +1,98 @@
+package com.duoc.recetas.view;
+
+import com.duoc.recetas.dto.CampoReceta;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de la página de búsqueda de la API escrita en streaming: una
+ * página completa termina en "next" y una interrumpida nunca lo parece.
+ */
+class RecetaJsonWriterTest {
+
+    private static final Set<CampoReceta> CAMPOS = EnumSet.of(CampoReceta.ID, CampoReceta.NOMBRE);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private RecetaJsonWriter writer;
+
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void crearWriter() {
+        writer = new RecetaJsonWriter();
+        ReflectionTestUtils.setField(writer, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(writer, "tamanoBloque", 2);
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void paginaCompletaConSiguiente() throws Exception {
+        writer.escribirPagina(response, CAMPOS, 3, filas(4, -1), id -> "c" + id);
+
+        JsonNode pagina = objectMapper.readTree(response.getContentAsString());
+        assertEquals(3, pagina.get("data").size());
+        assertEquals("c3", pagina.get("next").asText());
+    }
+
+    @Test
+    void falloAntesDelPrimerFlushDescartaLoEscrito() {
+        assertThrows(IllegalStateException.class,
+            () -> writer.escribirPagina(response, CAMPOS, 10, filas(10, 1), id -> "c" + id));
+
+        assertFalse(response.isCommitted());
+        assertEquals(0, response.getContentLength());
+        assertEquals("", contenido());
+    }
+
+    @Test
+    void falloDespuesDelFlushNoCierraElJson() {
+        assertThrows(IllegalStateException.class,
+            () -> writer.escribirPagina(response, CAMPOS, 10, filas(10, 3), id -> "c" + id));
+
+        assertTrue(response.isCommitted());
+        String contenido = contenido();
+        assertTrue(contenido.startsWith("{\"data\":["));
+        assertFalse(contenido.contains("next"));
+        assertThrows(JsonProcessingException.class, () -> objectMapper.readTree(contenido));
+    }
+
+    /**
+     * Recorrido de prueba: entrega filas con ID 1..total y falla al llegar a
+     * la fila fallarEn (-1 = nunca).
+     */
+    private static ToIntFunction<Consumer<Object[]>> filas(int total, int fallarEn) {
+        return consumidor -> {
+            for (long id = 1; id <= total; id++) {
+                if (id == fallarEn) {
+                    throw new IllegalStateException("Base de datos no disponible");
+                }
+                consumidor.accept(new Object[] {id, "Receta " + id});
+            }
+            return total;
+        };
+    }
+
+    private String contenido() {
+        try {
+            return response.getContentAsString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}